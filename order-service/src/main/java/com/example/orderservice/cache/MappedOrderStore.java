@@ -0,0 +1,490 @@
+package com.example.orderservice.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Order snapshots in a memory-mapped file, outside the heap and kept across
+ * restarts. The file is a header followed by a fixed number of fixed-size
+ * slots forming an open-addressing hash table on orderId; a record lives in
+ * its slot, so a lookup is one hash and a few adjacent slot reads. Probing is
+ * bounded, and a put that finds no free slot in range overwrites the key's
+ * home slot, so the store behaves as a cache rather than filling up.
+ *
+ * Every record carries a CRC32 of its contents, so a write torn by a crash
+ * reads as a miss, and the generation it was last confirmed in. The
+ * generation goes up each time the file is opened; records from an earlier
+ * one come back with {@link OrderSnapshot#validated()} false and should be
+ * checked against the database before being trusted.
+ */
+public class MappedOrderStore implements Closeable {
+
+    private static final int MAGIC = 0x4F524453;
+    private static final int FORMAT = 2;
+
+    static final int HEADER_SIZE = 4096;
+    static final int SLOT_SIZE = 512;
+    private static final int SEGMENT_BITS = 20;
+    private static final int SLOTS_PER_SEGMENT = 1 << SEGMENT_BITS;
+
+    private static final byte EMPTY = 0;
+    private static final byte FULL = 1;
+    private static final byte REMOVED = 2;
+
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    // Header layout
+    private static final int H_MAGIC = 0;
+    private static final int H_FORMAT = 4;
+    private static final int H_SLOT_SIZE = 8;
+    private static final int H_CAPACITY = 12;
+    private static final int H_GENERATION = 16;
+
+    // Slot layout; the checksum covers VERSION up to the end of the strings
+    private static final int STATE = 0;
+    private static final int CRC = 4;
+    private static final int GENERATION = 8;
+    private static final int VERSION = 16;
+    private static final int QUANTITY = 24;
+    private static final int ID_LENGTH = 28;
+    private static final int ITEM_LENGTH = 30;
+    private static final int KEY_LENGTH = 32;
+    private static final int UPDATED_AT = 36;
+    private static final int DATA = 44;
+    static final int MAX_DATA = SLOT_SIZE - DATA;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer[] segments;
+
+    private final int capacity;
+    private final int mask;
+    private final int maxProbes;
+    private final long generation;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int size;
+
+    /**
+     * Opens the store at {@code file}, creating it, or starting it over when
+     * it was written with a different layout or capacity.
+     *
+     * @param capacity number of slots, a power of two
+     */
+    public MappedOrderStore(Path file, int capacity, int maxProbes) throws IOException {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two");
+        }
+
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.maxProbes = Math.min(maxProbes, capacity);
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long length = HEADER_SIZE + (long) capacity * SLOT_SIZE;
+        boolean reuse = channel.size() == length && headerMatches();
+        if (!reuse) {
+            // Truncating and re-extending leaves every slot zeroed, i.e. EMPTY
+            channel.truncate(0);
+            channel.write(ByteBuffer.wrap(new byte[1]), length - 1);
+        }
+
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        if (!reuse) {
+            header.putInt(H_MAGIC, MAGIC);
+            header.putInt(H_FORMAT, FORMAT);
+            header.putInt(H_SLOT_SIZE, SLOT_SIZE);
+            header.putInt(H_CAPACITY, capacity);
+            header.putLong(H_GENERATION, 0);
+        }
+        this.generation = header.getLong(H_GENERATION) + 1;
+        header.putLong(H_GENERATION, generation);
+
+        int segmentCount = (capacity + SLOTS_PER_SEGMENT - 1) / SLOTS_PER_SEGMENT;
+        this.segments = new MappedByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            long slots = Math.min(SLOTS_PER_SEGMENT, capacity - (long) i * SLOTS_PER_SEGMENT);
+            segments[i] = channel.map(FileChannel.MapMode.READ_WRITE,
+                    HEADER_SIZE + (long) i * SLOTS_PER_SEGMENT * SLOT_SIZE, slots * SLOT_SIZE);
+        }
+
+        for (int slot = 0; slot < capacity; slot++) {
+            if (state(slot) == FULL) {
+                size++;
+            }
+        }
+    }
+
+    private boolean headerMatches() throws IOException {
+        ByteBuffer existing = ByteBuffer.allocate(H_GENERATION);
+        channel.read(existing, 0);
+
+        return existing.getInt(H_MAGIC) == MAGIC
+                && existing.getInt(H_FORMAT) == FORMAT
+                && existing.getInt(H_SLOT_SIZE) == SLOT_SIZE
+                && existing.getInt(H_CAPACITY) == capacity;
+    }
+
+    public long generation() {
+        return generation;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public OrderSnapshot get(String orderId) {
+        byte[] id = orderId.getBytes(StandardCharsets.UTF_8);
+
+        lock.readLock().lock();
+        try {
+            int slot = find(id);
+            if (slot < 0) {
+                return null;
+            }
+
+            OrderSnapshot snapshot = read(slot);
+            if (snapshot != null) {
+                return snapshot;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        removeCorrupt(id);
+        return null;
+    }
+
+    /**
+     * Stores the snapshot as confirmed in the current generation. Returns
+     * false when its strings do not fit in a slot.
+     */
+    public boolean put(OrderSnapshot snapshot) {
+        byte[] id = snapshot.orderId().getBytes(StandardCharsets.UTF_8);
+        byte[] item = bytes(snapshot.itemName());
+        byte[] key = bytes(snapshot.idempotencyKey());
+
+        if (id.length + item.length + key.length > MAX_DATA) {
+            return false;
+        }
+
+        lock.writeLock().lock();
+        try {
+            int home = home(id);
+            int target = -1;
+
+            for (int probe = 0; probe < maxProbes; probe++) {
+                int slot = (home + probe) & mask;
+                byte state = state(slot);
+
+                if (state == FULL && keyEquals(slot, id)) {
+                    target = slot;
+                    break;
+                }
+                if (state != FULL && target < 0) {
+                    target = slot;
+                }
+                if (state == EMPTY) {
+                    break;
+                }
+            }
+            if (target < 0) {
+                // No room within the probe limit; the home slot's entry makes way
+                target = home;
+            }
+
+            if (state(target) != FULL) {
+                size++;
+            }
+            write(target, snapshot, id, item, key);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Confirms a record from an earlier generation, provided it still holds
+     * {@code version}.
+     */
+    public boolean markValidated(String orderId, long version) {
+        byte[] id = orderId.getBytes(StandardCharsets.UTF_8);
+
+        lock.writeLock().lock();
+        try {
+            int slot = find(id);
+            if (slot < 0 || segment(slot).getLong(offset(slot) + VERSION) != version) {
+                return false;
+            }
+
+            segment(slot).putLong(offset(slot) + GENERATION, generation);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(String orderId) {
+        byte[] id = orderId.getBytes(StandardCharsets.UTF_8);
+
+        lock.writeLock().lock();
+        try {
+            int slot = find(id);
+            if (slot < 0) {
+                return false;
+            }
+
+            segment(slot).put(offset(slot) + STATE, REMOVED);
+            size--;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the record only if it still holds {@code version}, so a newer
+     * one written since it was read is kept.
+     */
+    public boolean remove(String orderId, long version) {
+        byte[] id = orderId.getBytes(StandardCharsets.UTF_8);
+
+        lock.writeLock().lock();
+        try {
+            int slot = find(id);
+            if (slot < 0 || segment(slot).getLong(offset(slot) + VERSION) != version) {
+                return false;
+            }
+
+            segment(slot).put(offset(slot) + STATE, REMOVED);
+            size--;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            for (int slot = 0; slot < capacity; slot++) {
+                segment(slot).put(offset(slot) + STATE, EMPTY);
+            }
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Collects up to {@code max} records from earlier generations, scanning
+     * from slot {@code fromSlot}. Returns the slot to continue from, or
+     * {@link #capacity()} once the scan is done.
+     */
+    public int scanUnvalidated(int fromSlot, int max, List<OrderSnapshot> found) {
+        lock.readLock().lock();
+        try {
+            int slot = fromSlot;
+            while (slot < capacity && found.size() < max) {
+                if (state(slot) == FULL && segment(slot).getLong(offset(slot) + GENERATION) < generation) {
+                    OrderSnapshot snapshot = read(slot);
+                    if (snapshot != null) {
+                        found.add(snapshot);
+                    }
+                }
+                slot++;
+            }
+            return slot;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+            header.force();
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The slot may have been rewritten since the read lock was released, so check it again
+    private void removeCorrupt(byte[] id) {
+        lock.writeLock().lock();
+        try {
+            int slot = find(id);
+            if (slot >= 0 && read(slot) == null) {
+                segment(slot).put(offset(slot) + STATE, REMOVED);
+                size--;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int find(byte[] id) {
+        int home = home(id);
+
+        for (int probe = 0; probe < maxProbes; probe++) {
+            int slot = (home + probe) & mask;
+            byte state = state(slot);
+
+            if (state == EMPTY) {
+                return -1;
+            }
+            if (state == FULL && keyEquals(slot, id)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int home(byte[] id) {
+        int hash = Arrays.hashCode(id);
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        return hash & mask;
+    }
+
+    private boolean keyEquals(int slot, byte[] id) {
+        ByteBuffer segment = segment(slot);
+        int base = offset(slot);
+
+        if (segment.getShort(base + ID_LENGTH) != id.length) {
+            return false;
+        }
+        for (int i = 0; i < id.length; i++) {
+            if (segment.get(base + DATA + i) != id[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private OrderSnapshot read(int slot) {
+        ByteBuffer segment = segment(slot);
+        int base = offset(slot);
+
+        int idLength = segment.getShort(base + ID_LENGTH);
+        int itemLength = segment.getShort(base + ITEM_LENGTH);
+        int keyLength = segment.getShort(base + KEY_LENGTH);
+        if (idLength < 0 || itemLength < -1 || keyLength < -1
+                || idLength + Math.max(itemLength, 0) + Math.max(keyLength, 0) > MAX_DATA) {
+            return null;
+        }
+
+        int end = base + DATA + idLength + Math.max(itemLength, 0) + Math.max(keyLength, 0);
+        if (segment.getInt(base + CRC) != checksum(segment, base, end)) {
+            return null;
+        }
+
+        int position = base + DATA;
+        String orderId = string(segment, position, idLength);
+        position += idLength;
+        String itemName = string(segment, position, itemLength);
+        position += Math.max(itemLength, 0);
+        String idempotencyKey = string(segment, position, keyLength);
+
+        long updatedAt = segment.getLong(base + UPDATED_AT);
+
+        return new OrderSnapshot(orderId, itemName, segment.getInt(base + QUANTITY), idempotencyKey,
+                segment.getLong(base + VERSION),
+                updatedAt == NO_TIME ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(updatedAt), ZoneOffset.UTC),
+                segment.getLong(base + GENERATION) == generation);
+    }
+
+    private void write(int slot, OrderSnapshot snapshot, byte[] id, byte[] item, byte[] key) {
+        ByteBuffer segment = segment(slot);
+        int base = offset(slot);
+
+        // Mark the slot unreadable while it is rewritten; a torn write then fails its checksum
+        segment.put(base + STATE, REMOVED);
+
+        segment.putLong(base + GENERATION, generation);
+        segment.putLong(base + VERSION, snapshot.version());
+        segment.putInt(base + QUANTITY, snapshot.quantity());
+        segment.putShort(base + ID_LENGTH, (short) id.length);
+        segment.putShort(base + ITEM_LENGTH, (short) (snapshot.itemName() == null ? -1 : item.length));
+        segment.putShort(base + KEY_LENGTH, (short) (snapshot.idempotencyKey() == null ? -1 : key.length));
+        segment.putLong(base + UPDATED_AT, snapshot.updatedAt() == null
+                ? NO_TIME : snapshot.updatedAt().toInstant(ZoneOffset.UTC).toEpochMilli());
+
+        int position = base + DATA;
+        segment.put(position, id);
+        position += id.length;
+        segment.put(position, item);
+        position += item.length;
+        segment.put(position, key);
+        position += key.length;
+
+        segment.putInt(base + CRC, checksum(segment, base, position));
+        segment.put(base + STATE, FULL);
+    }
+
+    private static int checksum(ByteBuffer segment, int base, int end) {
+        CRC32 crc = new CRC32();
+        crc.update(segment.slice(base + VERSION, end - base - VERSION));
+        return (int) crc.getValue();
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(ByteBuffer segment, int position, int length) {
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        segment.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private byte state(int slot) {
+        return segment(slot).get(offset(slot) + STATE);
+    }
+
+    private MappedByteBuffer segment(int slot) {
+        return segments[slot >>> SEGMENT_BITS];
+    }
+
+    private static int offset(int slot) {
+        return (slot & (SLOTS_PER_SEGMENT - 1)) * SLOT_SIZE;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.orderservice.cache;
+
+import com.example.orderservice.dto.OrderResponse;
+
+import java.time.LocalDateTime;
+
+/**
+ * An order as stored in {@link MappedOrderStore}. {@code validated} is false
+ * for records written before the store was last opened.
+ */
+public record OrderSnapshot(String orderId, String itemName, int quantity, String idempotencyKey,
+                            long version, LocalDateTime updatedAt, boolean validated) {
+
+    public static OrderSnapshot of(OrderResponse response) {
+        return new OrderSnapshot(response.getOrderId(), response.getItemName(), response.getQuantity(),
+                response.getIdempotencyKey(), response.getVersion(), response.getUpdatedAt(), true);
+    }
+
+    public OrderResponse toResponse() {
+        return new OrderResponse(orderId, itemName, quantity, idempotencyKey, version, updatedAt);
+    }
+}
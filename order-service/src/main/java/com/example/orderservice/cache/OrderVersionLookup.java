@@ -0,0 +1,44 @@
+package com.example.orderservice.cache;
+
+import com.example.orderservice.repository.OrderJpaRepository;
+import com.example.orderservice.sharding.ShardTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Current order versions from the database, read off the primary key on each
+ * order's shard. Used to check snapshots before they are trusted.
+ */
+public class OrderVersionLookup {
+
+    private final OrderJpaRepository orderRepository;
+    private final ShardTemplate shardTemplate;
+
+    public OrderVersionLookup(OrderJpaRepository orderRepository, ShardTemplate shardTemplate) {
+        this.orderRepository = orderRepository;
+        this.shardTemplate = shardTemplate;
+    }
+
+    /**
+     * Versions by orderId; orders that no longer exist are left out.
+     */
+    public Map<String, Long> versions(Collection<String> orderIds) {
+        Map<String, List<String>> byShard = new LinkedHashMap<>();
+        for (String orderId : orderIds) {
+            byShard.computeIfAbsent(shardTemplate.shardFor(orderId), shard -> new ArrayList<>()).add(orderId);
+        }
+
+        Map<String, Long> versions = new HashMap<>();
+        byShard.forEach((shard, ids) -> {
+            for (Object[] row : shardTemplate.read(shard, () -> orderRepository.findVersions(ids))) {
+                versions.put((String) row[0], (Long) row[1]);
+            }
+        });
+        return versions;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.orderservice.cache;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Checks the snapshots left from before a restart against the database in the
+ * background, a batch of primary-key lookups at a time: matching versions are
+ * restamped for this generation, the rest dropped. Reads don't wait for it; a
+ * snapshot it hasn't reached yet is checked on its own when first read.
+ */
+public class SnapshotValidator {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotValidator.class);
+
+    private final MappedOrderStore store;
+    private final OrderVersionLookup versionLookup;
+    private final int batchSize;
+
+    private final ExecutorService validator;
+
+    public SnapshotValidator(MappedOrderStore store, OrderVersionLookup versionLookup, int batchSize) {
+        this.store = store;
+        this.versionLookup = versionLookup;
+        this.batchSize = batchSize;
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("Order-Snapshot-");
+        threadFactory.setDaemon(true);
+        this.validator = Executors.newSingleThreadExecutor(threadFactory);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        log.info("Order snapshot store opened with {} of {} slots in use, generation {}",
+                store.size(), store.capacity(), store.generation());
+        validator.execute(this::validate);
+    }
+
+    void validate() {
+        int kept = 0;
+        int dropped = 0;
+        int slot = 0;
+
+        try {
+            while (slot < store.capacity() && !Thread.currentThread().isInterrupted()) {
+                List<OrderSnapshot> batch = new ArrayList<>(batchSize);
+                slot = store.scanUnvalidated(slot, batchSize, batch);
+                if (batch.isEmpty()) {
+                    continue;
+                }
+
+                Map<String, Long> versions = versionLookup.versions(batch.stream().map(OrderSnapshot::orderId).toList());
+
+                for (OrderSnapshot snapshot : batch) {
+                    Long current = versions.get(snapshot.orderId());
+                    if (current != null && current == snapshot.version() && store.markValidated(snapshot.orderId(), current)) {
+                        kept++;
+                    } else {
+                        store.remove(snapshot.orderId(), snapshot.version());
+                        dropped++;
+                    }
+                }
+            }
+            log.info("Validated order snapshots: {} kept, {} dropped", kept, dropped);
+        } catch (RuntimeException e) {
+            log.warn("Order snapshot validation stopped after {} kept, {} dropped: {}", kept, dropped, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        validator.shutdownNow();
+    }
+}
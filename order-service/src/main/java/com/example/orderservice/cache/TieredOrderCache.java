@@ -0,0 +1,134 @@
+package com.example.orderservice.cache;
+
+import com.example.orderservice.dto.OrderResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * The orders cache with {@link MappedOrderStore} as a second level behind the
+ * heap cache. Misses on the heap are served from the store without being
+ * copied up, so the heap only holds what this node loaded or wrote itself and
+ * the store, bounded by its capacity, holds the rest; writes and evictions go
+ * to both. A snapshot left from before a restart is only served once its
+ * version matches the database.
+ */
+public class TieredOrderCache implements Cache {
+
+    private final Cache heap;
+    private final MappedOrderStore store;
+    private final OrderVersionLookup versionLookup;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter staleCounter;
+
+    public TieredOrderCache(Cache heap, MappedOrderStore store, OrderVersionLookup versionLookup, MeterRegistry meterRegistry) {
+        this.heap = heap;
+        this.store = store;
+        this.versionLookup = versionLookup;
+
+        this.hitCounter = meterRegistry.counter("orders.snapshot.requests", "result", "hit");
+        this.missCounter = meterRegistry.counter("orders.snapshot.requests", "result", "miss");
+        this.staleCounter = meterRegistry.counter("orders.snapshot.requests", "result", "stale");
+    }
+
+    @Override
+    public String getName() {
+        return heap.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return heap.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper cached = heap.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        OrderResponse response = fromStore(key);
+        return response != null ? new SimpleValueWrapper(response) : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper cached = get(key);
+        Object value = cached != null ? cached.get() : null;
+
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        heap.put(key, value);
+
+        if (value instanceof OrderResponse response && response.getVersion() != null) {
+            store.put(OrderSnapshot.of(response));
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        heap.evict(key);
+        store.remove(key.toString());
+    }
+
+    @Override
+    public void clear() {
+        heap.clear();
+        store.clear();
+    }
+
+    private OrderResponse fromStore(Object key) {
+        String orderId = key.toString();
+        OrderSnapshot snapshot = store.get(orderId);
+
+        if (snapshot == null) {
+            missCounter.increment();
+            return null;
+        }
+
+        if (!snapshot.validated()) {
+            Long current = versionLookup.versions(List.of(orderId)).get(orderId);
+
+            if (current == null || current != snapshot.version() || !store.markValidated(orderId, current)) {
+                staleCounter.increment();
+                store.remove(orderId, snapshot.version());
+                return null;
+            }
+        }
+
+        hitCounter.increment();
+        return snapshot.toResponse();
+    }
+}
@@ -1,38 +1,63 @@
 package com.example.orderservice.config;
 
-import org.slf4j.MDC;
+import com.example.orderservice.executor.ExecutorRegistry;
+import com.example.orderservice.executor.ExecutorSettings;
+import com.example.orderservice.executor.RejectionPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
-import java.util.concurrent.Executor;
-
+/**
+ * One pool per workload, registered under its bean name.
+ */
 @Configuration
 public class AsyncConfig {
 
+    @Bean
+    public ExecutorRegistry executorRegistry(Environment environment, MeterRegistry meterRegistry) {
+        return new ExecutorRegistry(environment, meterRegistry);
+    }
+
+    // Parallel per-shard queries from ShardTemplate; the caller waits on them
     @Bean(name = "orderExecutor")
-    public Executor orderExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2);        // Always running threads
-        executor.setMaxPoolSize(5);         // Max allowed threads
-        executor.setQueueCapacity(50);      // Waiting tasks
-        executor.setThreadNamePrefix("Order-Async-");
-
-        executor.setTaskDecorator(runnable -> {
-            var contextMap = MDC.getCopyOfContextMap();
-            return () -> {
-                if(contextMap != null) {
-                    MDC.setContextMap(contextMap);
-                }
-
-                try {
-                    runnable.run();
-                } finally {
-                    MDC.clear();
-                }
-            };
-        });
-        executor.initialize();
-        return executor;
+    public ThreadPoolTaskExecutor orderExecutor(ExecutorRegistry executorRegistry) {
+        return executorRegistry.register("orderExecutor", "Order-Async-",
+                new ExecutorSettings(2, 5, 50, RejectionPolicy.ABORT));
+    }
+
+    // Inventory reservations for new orders; a full pool makes the request thread reserve itself
+    @Bean(name = "inventoryExecutor")
+    public ThreadPoolTaskExecutor inventoryExecutor(ExecutorRegistry executorRegistry) {
+        return executorRegistry.register("inventoryExecutor", "Order-Inventory-",
+                new ExecutorSettings(2, 5, 50, RejectionPolicy.CALLER_RUNS));
+    }
+
+    @Bean(name = "sideEffectExecutor")
+    public ThreadPoolTaskExecutor sideEffectExecutor(ExecutorRegistry executorRegistry) {
+        return executorRegistry.register("sideEffectExecutor", "Order-SideEffect-",
+                new ExecutorSettings(1, 2, 100, RejectionPolicy.CALLER_RUNS));
+    }
+
+    // Drains shard outboxes in parallel, one thread per shard at most
+    @Bean(name = "outboxExecutor")
+    public ThreadPoolTaskExecutor outboxExecutor(ExecutorRegistry executorRegistry) {
+        return executorRegistry.register("outboxExecutor", "Order-Outbox-",
+                new ExecutorSettings(1, 4, 0, RejectionPolicy.CALLER_RUNS));
+    }
+
+    // Expired saga deadlines, one batch at a time
+    @Bean(name = "recoveryExecutor")
+    public ThreadPoolTaskExecutor recoveryExecutor(ExecutorRegistry executorRegistry) {
+        return executorRegistry.register("recoveryExecutor", "Order-Recovery-",
+                new ExecutorSettings(1, 1, 100, RejectionPolicy.CALLER_RUNS));
+    }
+
+    // Stale-order scans; a tick is skipped while one runs, so a scan that still finds no room is dropped
+    @Bean(name = "recoveryScanExecutor")
+    public ThreadPoolTaskExecutor recoveryScanExecutor(ExecutorRegistry executorRegistry) {
+        return executorRegistry.register("recoveryScanExecutor", "Order-RecoveryScan-",
+                new ExecutorSettings(1, 1, 1, RejectionPolicy.DISCARD));
     }
 }
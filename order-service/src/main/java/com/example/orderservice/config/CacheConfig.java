@@ -1,17 +1,44 @@
 package com.example.orderservice.config;
 
+import com.example.orderservice.cache.MappedOrderStore;
+import com.example.orderservice.cache.OrderVersionLookup;
+import com.example.orderservice.cache.TieredOrderCache;
+import com.example.orderservice.repository.OrderJpaRepository;
+import com.example.orderservice.sharding.ShardTemplate;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
+
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    // Also answers order GETs' If-None-Match without loading the order
     @Bean
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager("orders");
+    public OrderVersionLookup orderVersionLookup(OrderJpaRepository orderRepository, ShardTemplate shardTemplate) {
+        return new OrderVersionLookup(orderRepository, shardTemplate);
+    }
+
+    @Bean
+    public CacheManager cacheManager(ObjectProvider<MappedOrderStore> mappedOrderStore,
+                                     ObjectProvider<OrderVersionLookup> orderVersionLookup,
+                                     MeterRegistry meterRegistry) {
+        MappedOrderStore store = mappedOrderStore.getIfAvailable();
+        if (store == null) {
+            return new ConcurrentMapCacheManager("orders");
+        }
+
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(
+                new TieredOrderCache(new ConcurrentMapCache("orders"), store, orderVersionLookup.getObject(), meterRegistry)));
+        return cacheManager;
     }
 }
@@ -0,0 +1,92 @@
+package com.example.orderservice.config;
+
+import com.example.orderservice.datasource.ReadWriteRoutingDataSource;
+import com.example.orderservice.datasource.ReadYourWritesTracker;
+import com.example.orderservice.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${datasource.routing.sticky-window-ms:5000}") long stickyWindowMs,
+            @Value("${datasource.routing.client-header:X-Client-Id}") String clientHeader) {
+
+        return new ReadYourWritesTracker(Duration.ofMillis(stickyWindowMs), 10_000, clientHeader);
+    }
+
+    /**
+     * Every pool gets the spring.datasource.hikari.* settings, as the
+     * auto-configured pool would; the pools are bound here rather than exposed
+     * as DataSource beans of their own, so only the routing DataSource is
+     * instrumented.
+     */
+    @Bean
+    public ReadWriteRoutingDataSource dataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            ReadYourWritesTracker writesTracker,
+            MeterRegistry meterRegistry,
+            @Value("${datasource.routing.replica-urls}") List<String> replicaUrls,
+            @Value("${datasource.routing.replica-username:${spring.datasource.username}}") String replicaUsername,
+            @Value("${datasource.routing.replica-password:${spring.datasource.password}}") String replicaPassword,
+            @Value("${datasource.routing.replica-pool-size:10}") int replicaPoolSize,
+            @Value("${datasource.routing.lag-query:}") String lagQuery,
+            @Value("${datasource.routing.max-lag-ms:1000}") long maxLagMs,
+            @Value("${datasource.routing.lag-check-interval-ms:5000}") long lagCheckIntervalMs) {
+
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        primary.setMetricsTrackerFactory(metrics);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : replicaUrls) {
+            HikariDataSource replica = new HikariDataSource();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(metrics);
+            replicas.put(replica.getPoolName(), replica);
+        }
+
+        ReplicaRoutingDataSource replicaRouting = new ReplicaRoutingDataSource(
+                primary,
+                replicas,
+                writesTracker,
+                lagQuery,
+                Duration.ofMillis(maxLagMs),
+                Duration.ofMillis(lagCheckIntervalMs),
+                meterRegistry
+        );
+
+        return new ReadWriteRoutingDataSource(primary, replicaRouting);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.orderservice.config;
+
+import com.example.orderservice.integration.AsyncInventoryClient;
+import com.example.orderservice.integration.HedgedRequestExecutor;
+import com.example.orderservice.integration.InventoryRequestCollapser;
+import com.example.orderservice.loadbalancer.InstanceLatencyTracker;
+import com.example.orderservice.loadbalancer.InventoryLoadBalancerConfiguration;
+import com.example.orderservice.port.InventoryPort;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+@Configuration
+@LoadBalancerClient(name = InventoryConfig.INVENTORY_SERVICE, configuration = InventoryLoadBalancerConfiguration.class)
+public class InventoryConfig {
+
+    public static final String INVENTORY_SERVICE = "inventory-service";
+
+    @Bean
+    public HedgedRequestExecutor inventoryHedgedRequestExecutor(
+            InstanceLatencyTracker latencyTracker,
+            MeterRegistry meterRegistry,
+            @Value("${inventory.hedging.enabled:false}") boolean enabled,
+            @Value("${inventory.hedging.min-delay-ms:10}") long minDelayMs,
+            @Value("${inventory.hedging.max-delay-ms:500}") long maxDelayMs,
+            @Value("${inventory.hedging.budget-ratio:0.1}") double budgetRatio,
+            @Value("${inventory.hedging.max-tokens:20}") int maxTokens) {
+
+        return new HedgedRequestExecutor(
+                enabled,
+                latencyTracker,
+                Duration.ofMillis(minDelayMs),
+                Duration.ofMillis(maxDelayMs),
+                budgetRatio,
+                maxTokens,
+                meterRegistry
+        );
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "inventory.client.type", havingValue = "async")
+    public AsyncInventoryClient asyncInventoryClient(
+            LoadBalancerClientFactory loadBalancerClientFactory,
+            InstanceLatencyTracker latencyTracker,
+            HedgedRequestExecutor hedgedRequestExecutor,
+            ObjectMapper objectMapper,
+            @Value("${inventory.async.http-version:HTTP_2}") HttpClient.Version httpVersion,
+            @Value("${inventory.async.connect-timeout-ms:1000}") long connectTimeoutMs,
+            @Value("${inventory.async.timeout-ms:2000}") long timeoutMs,
+            @Value("${inventory.async.max-in-flight:500}") int maxInFlight,
+            @Value("${inventory.async.io-threads:4}") int ioThreads) {
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("Inventory-Http-");
+        threadFactory.setDaemon(true);
+
+        // Connection pooling and keep-alive are built into HttpClient; the pool
+        // is tuned through the jdk.httpclient.* system properties.
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(httpVersion)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .executor(Executors.newFixedThreadPool(ioThreads, threadFactory))
+                .build();
+
+        return new AsyncInventoryClient(
+                httpClient,
+                loadBalancerClientFactory.getInstance(INVENTORY_SERVICE),
+                latencyTracker,
+                hedgedRequestExecutor,
+                objectMapper,
+                Duration.ofMillis(timeoutMs),
+                maxInFlight
+        );
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "inventory.collapser.enabled", havingValue = "true")
+    public InventoryRequestCollapser inventoryRequestCollapser(
+            InventoryPort inventoryClient,
+            MeterRegistry meterRegistry,
+            @Value("${inventory.collapser.max-batch-size:50}") int maxBatchSize,
+            @Value("${inventory.collapser.window-ms:5}") long windowMs,
+            @Value("${inventory.collapser.timeout-ms:5000}") long timeoutMs,
+            @Value("${inventory.collapser.dispatch-threads:2}") int dispatchThreads) {
+
+        return new InventoryRequestCollapser(
+                inventoryClient,
+                maxBatchSize,
+                Duration.ofMillis(windowMs),
+                Duration.ofMillis(timeoutMs),
+                dispatchThreads,
+                meterRegistry
+        );
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.orderservice.config;
+
+import com.example.orderservice.readmodel.OrderReadModel;
+import com.example.orderservice.repository.ItemNameRepository;
+import com.example.orderservice.repository.OrderJpaRepository;
+import com.example.orderservice.search.InMemoryItemNameSearch;
+import com.example.orderservice.search.ItemNameSearch;
+import com.example.orderservice.search.TrigramItemNameSearch;
+import com.example.orderservice.sharding.ShardTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Picks the item-name search backend: trigram indexes when the database is
+ * Postgres, the in-memory index otherwise. orders.item-search.mode forces one.
+ * The in-memory index also learns the names the read model sees.
+ */
+@Configuration
+public class ItemSearchConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemSearchConfig.class);
+
+    @Bean
+    public ItemNameSearch itemNameSearch(DataSource dataSource,
+                                         OrderJpaRepository orderRepository,
+                                         ItemNameRepository itemNameRepository,
+                                         ShardTemplate shardTemplate,
+                                         JdbcTemplate jdbcTemplate,
+                                         OrderReadModel readModel,
+                                         @Value("${orders.item-search.mode:auto}") String mode,
+                                         @Value("${orders.item-search.load-chunk-size:1000}") int loadChunkSize,
+                                         @Value("${orders.item-search.similarity-threshold:0.3}") double threshold,
+                                         @Value("${orders.item-search.max-known-names:100000}") int maxKnownNames) {
+
+        boolean trigram = switch (mode) {
+            case "trigram" -> true;
+            case "memory" -> false;
+            default -> isPostgres(dataSource);
+        };
+
+        log.info("Item name search uses the {} index", trigram ? "trigram" : "in-memory");
+
+        if (trigram) {
+            return new TrigramItemNameSearch(itemNameRepository, shardTemplate, jdbcTemplate, maxKnownNames);
+        }
+
+        InMemoryItemNameSearch search = new InMemoryItemNameSearch(orderRepository, shardTemplate, loadChunkSize, threshold);
+        // Names first ordered on other nodes arrive through the read model's tail of the change log
+        readModel.addListener(view -> search.recordItem(view.itemName()));
+        return search;
+    }
+
+    private boolean isPostgres(DataSource dataSource) {
+        try {
+            return "PostgreSQL".equals(JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName));
+        } catch (MetaDataAccessException e) {
+            log.warn("Could not detect the database, using in-memory item search: {}", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.orderservice.config;
+
+import com.example.orderservice.json.OrderJsonMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Streams order responses past the generic Jackson converter. Boot places
+ * converter beans ahead of its defaults, so everything else is unaffected.
+ */
+@Configuration
+@ConditionalOnProperty(name = "orders.json.fast-path.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderJsonConfig {
+
+    @Bean
+    public OrderJsonMessageConverter orderJsonMessageConverter(ObjectMapper objectMapper) {
+        return new OrderJsonMessageConverter(objectMapper.getFactory());
+    }
+}
@@ -1,34 +1,84 @@
 package com.example.orderservice.config;
 
+import com.example.orderservice.security.BearerTokenFilter;
+import com.example.orderservice.security.CachingAuthenticationProvider;
+import com.example.orderservice.security.TokenService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import java.time.Clock;
+import java.time.Duration;
 
 @Configuration
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           AuthenticationManager authenticationManager,
+                                           ObjectProvider<TokenService> tokenService) throws Exception {
 
         http
                 .csrf(csrf -> csrf.disable())
                 .headers(headers -> headers.frameOptions(frame -> frame.disable()))
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/h2-console/**").permitAll()
                         .requestMatchers("/orders/**").authenticated()
+                        .requestMatchers("/reactive/orders/**").authenticated()
+                        .requestMatchers("/auth/**").authenticated()
                         .anyRequest().permitAll()
                 )
+                .authenticationManager(authenticationManager)
                 .httpBasic(Customizer.withDefaults());
 
+        tokenService.ifAvailable(tokens -> http.addFilterBefore(new BearerTokenFilter(tokens), BasicAuthenticationFilter.class));
+
         return http.build();
 
     }
 
+    /**
+     * Basic credentials are checked against the user store once per cache TTL;
+     * set security.basic-cache.ttl-seconds=0 to hash on every request.
+     */
+    @Bean
+    public AuthenticationManager authenticationManager(InMemoryUserDetailsManager userDetailsManager,
+                                                       MeterRegistry meterRegistry,
+                                                       @Value("${security.basic-cache.ttl-seconds:60}") long ttlSeconds,
+                                                       @Value("${security.basic-cache.max-entries:10000}") int maxEntries) {
+        return new ProviderManager(new CachingAuthenticationProvider(new DaoAuthenticationProvider(userDetailsManager),
+                Clock.systemUTC(), Duration.ofSeconds(ttlSeconds), maxEntries, meterRegistry));
+    }
+
+    /**
+     * Bearer tokens are opt-in: without security.token.enabled=true there is no
+     * token endpoint and every request authenticates with Basic.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "security.token.enabled", havingValue = "true")
+    public TokenService tokenService(ObjectMapper objectMapper,
+                                     @Value("${security.token.keys:}") String keys,
+                                     @Value("${security.token.ttl-seconds:900}") long ttlSeconds,
+                                     @Value("${security.token.allow-local-key:false}") boolean allowLocalKey) {
+        return new TokenService(objectMapper, Clock.systemUTC(), keys, Duration.ofSeconds(ttlSeconds), allowLocalKey);
+    }
+
     @Bean
     public InMemoryUserDetailsManager userDetailsManager() {
 
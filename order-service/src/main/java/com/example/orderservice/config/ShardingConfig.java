@@ -0,0 +1,93 @@
+package com.example.orderservice.config;
+
+import com.example.orderservice.sharding.ConsistentHashRing;
+import com.example.orderservice.sharding.ShardRoutingAspect;
+import com.example.orderservice.sharding.ShardRoutingDataSource;
+import com.example.orderservice.sharding.ShardSchemaInitializer;
+import com.example.orderservice.sharding.ShardTemplate;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+@Configuration
+public class ShardingConfig {
+
+    @Bean
+    public ShardTemplate shardTemplate(
+            PlatformTransactionManager transactionManager,
+            @Qualifier("orderExecutor") Executor orderExecutor,
+            ObjectProvider<ConsistentHashRing> shardRing) {
+
+        ConsistentHashRing ring = shardRing.getIfAvailable();
+
+        return ring != null
+                ? new ShardTemplate(ring, transactionManager, orderExecutor)
+                : new ShardTemplate(List.of("default"), transactionManager, orderExecutor);
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+    static class ShardedStorage {
+
+        @Bean
+        public ConsistentHashRing shardRing(
+                @Value("${sharding.shard-urls}") List<String> shardUrls,
+                @Value("${sharding.virtual-nodes:128}") int virtualNodes) {
+
+            List<String> shards = new ArrayList<>();
+            for (int i = 0; i < shardUrls.size(); i++) {
+                shards.add("shard-" + i);
+            }
+            return new ConsistentHashRing(shards, virtualNodes);
+        }
+
+        @Bean
+        public ShardRoutingDataSource dataSource(
+                ConsistentHashRing shardRing,
+                DataSourceProperties properties,
+                MeterRegistry meterRegistry,
+                @Value("${sharding.shard-urls}") List<String> shardUrls,
+                @Value("${sharding.pool-size:10}") int poolSize) {
+
+            MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+            Map<String, DataSource> shards = new LinkedHashMap<>();
+            for (int i = 0; i < shardUrls.size(); i++) {
+                HikariDataSource shard = new HikariDataSource();
+                shard.setPoolName(shardRing.shards().get(i));
+                shard.setJdbcUrl(shardUrls.get(i).trim());
+                shard.setUsername(properties.determineUsername());
+                shard.setPassword(properties.determinePassword());
+                shard.setMaximumPoolSize(poolSize);
+                shard.setMetricsTrackerFactory(metrics);
+                shards.put(shard.getPoolName(), shard);
+            }
+            return new ShardRoutingDataSource(shards);
+        }
+
+        @Bean
+        public ShardRoutingAspect shardRoutingAspect(ConsistentHashRing shardRing) {
+            return new ShardRoutingAspect(shardRing);
+        }
+
+        @Bean
+        public ShardSchemaInitializer shardSchemaInitializer(ConsistentHashRing shardRing) {
+            return new ShardSchemaInitializer(shardRing.shards());
+        }
+    }
+}
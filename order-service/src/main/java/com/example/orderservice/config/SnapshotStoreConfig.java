@@ -0,0 +1,35 @@
+package com.example.orderservice.config;
+
+import com.example.orderservice.cache.MappedOrderStore;
+import com.example.orderservice.cache.OrderVersionLookup;
+import com.example.orderservice.cache.SnapshotValidator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * The memory-mapped second level of the orders cache, kept across restarts.
+ * Off unless orders.snapshot-store.enabled is set.
+ */
+@Configuration
+@ConditionalOnProperty(name = "orders.snapshot-store.enabled", havingValue = "true")
+public class SnapshotStoreConfig {
+
+    @Bean
+    public MappedOrderStore mappedOrderStore(@Value("${orders.snapshot-store.path:data/order-snapshots.dat}") String path,
+                                             @Value("${orders.snapshot-store.capacity:262144}") int capacity,
+                                             @Value("${orders.snapshot-store.max-probes:16}") int maxProbes) throws IOException {
+        return new MappedOrderStore(Path.of(path), capacity, maxProbes);
+    }
+
+    @Bean
+    public SnapshotValidator snapshotValidator(MappedOrderStore mappedOrderStore,
+                                               OrderVersionLookup orderVersionLookup,
+                                               @Value("${orders.snapshot-store.validate-batch-size:500}") int batchSize) {
+        return new SnapshotValidator(mappedOrderStore, orderVersionLookup, batchSize);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.orderservice.config;
+
+import com.example.orderservice.datasource.InstrumentedDataSource;
+import com.example.orderservice.datasource.SqlStatementsEndpoint;
+import com.example.orderservice.datasource.StatementRecorder;
+import com.example.orderservice.datasource.StatementTrackingFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Times every JDBC statement the application runs, whichever DataSource
+ * setup (single, read/write routing or sharded) is active, by wrapping the
+ * DataSource bean.
+ */
+@Configuration
+@ConditionalOnProperty(name = "orders.sql.instrumentation.enabled", havingValue = "true", matchIfMissing = true)
+public class StatementMetricsConfig {
+
+    @Bean
+    public StatementRecorder statementRecorder(
+            MeterRegistry meterRegistry,
+            @Value("${orders.sql.slow-threshold-ms:200}") long slowThresholdMs,
+            @Value("${orders.sql.n-plus-one-threshold:10}") int nPlusOneThreshold,
+            @Value("${orders.sql.log-sample-rate:0}") double logSampleRate,
+            @Value("${orders.sql.max-shapes:500}") int maxShapes) {
+
+        return new StatementRecorder(meterRegistry, Duration.ofMillis(slowThresholdMs), nPlusOneThreshold, logSampleRate, maxShapes);
+    }
+
+    @Bean
+    public static BeanPostProcessor instrumentedDataSourcePostProcessor(ObjectProvider<StatementRecorder> statementRecorder) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof InstrumentedDataSource)) {
+                    return new InstrumentedDataSource(dataSource, statementRecorder::getObject);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public StatementTrackingFilter statementTrackingFilter(StatementRecorder statementRecorder) {
+        return new StatementTrackingFilter(statementRecorder);
+    }
+
+    @Bean
+    public SqlStatementsEndpoint sqlStatementsEndpoint(StatementRecorder statementRecorder) {
+        return new SqlStatementsEndpoint(statementRecorder);
+    }
+}
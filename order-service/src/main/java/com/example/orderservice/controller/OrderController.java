@@ -2,26 +2,55 @@ package com.example.orderservice.controller;
 
 import com.example.orderservice.dto.OrderRequest;
 import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.dto.OrderStatsResponse;
+import com.example.orderservice.dto.OrderStatusResponse;
+import com.example.orderservice.dto.QuantityChangeRequest;
 import com.example.orderservice.model.Order;
+import com.example.orderservice.readmodel.OrderQueryService;
+import com.example.orderservice.search.ItemMatch;
 import com.example.orderservice.service.OrderService;
+import com.example.orderservice.service.OrderStatsService;
+import com.example.orderservice.service.QuantityIncrementCombiner;
+import com.example.orderservice.stream.OrderStatusStreams;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
 
 @Validated
 @RestController
 @RequestMapping("/orders")
 public class OrderController {
 
+    private static final int MAX_ITEM_NAMES = 50;
+
     private final OrderService orderService;
 
-    public OrderController(OrderService orderService) {
+    private final OrderStatsService orderStatsService;
+
+    private final OrderQueryService orderQueryService;
+
+    private final QuantityIncrementCombiner quantityIncrements;
+
+    private final OrderStatusStreams statusStreams;
+
+    public OrderController(OrderService orderService, OrderStatsService orderStatsService, OrderQueryService orderQueryService,
+                           QuantityIncrementCombiner quantityIncrements, OrderStatusStreams statusStreams) {
         this.orderService = orderService;
+        this.orderStatsService = orderStatsService;
+        this.orderQueryService = orderQueryService;
+        this.quantityIncrements = quantityIncrements;
+        this.statusStreams = statusStreams;
     }
 
     @PostMapping
@@ -33,30 +62,81 @@ public class OrderController {
     }
 
 
+    @PatchMapping("/{orderId}/quantity")
+    public OrderResponse increaseQuantity(@PathVariable String orderId, @Valid @RequestBody QuantityChangeRequest request) {
+        return quantityIncrements.increment(orderId, request.getDelta());
+    }
+
     @GetMapping("/{orderId}")
-    public OrderResponse getOrder(@PathVariable String orderId) {
-        return orderService.getOrderById(orderId);
+    public ResponseEntity<OrderResponse> getOrder(@PathVariable String orderId, @RequestParam(required = false) Long minVersion,
+                                                  WebRequest request) {
+        if (OrderETags.hasETag(request)) {
+            Long version = orderQueryService.currentVersion(orderId, minVersion);
+            ResponseEntity<OrderResponse> notModified = version != null ? OrderETags.notModified(request, version) : null;
+            if (notModified != null) {
+                return notModified;
+            }
+        }
+        return OrderETags.conditional(orderQueryService.getOrderById(orderId, minVersion));
+    }
+
+    @GetMapping(path = "/{orderId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStatus(@PathVariable String orderId) {
+        return statusStreams.stream(orderId);
+    }
+
+    @GetMapping("/{orderId}/status")
+    public DeferredResult<OrderStatusResponse> getStatus(@PathVariable String orderId,
+                                                         @RequestParam(required = false) Long afterVersion,
+                                                         @RequestParam(defaultValue = "30000") long timeoutMs) {
+        return statusStreams.poll(orderId, afterVersion, timeoutMs);
     }
 
     @GetMapping
-    public Page<OrderResponse> getOrders(@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "10") int size) {
-        return orderService.getOrders(page, size);
+    public ResponseEntity<Page<OrderResponse>> getOrders(@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "10") int size,
+                                                         @RequestParam(defaultValue = "eventual") String consistency) {
+        return OrderETags.conditional(orderQueryService.getOrders(page, size, consistency.equalsIgnoreCase("strong")));
     }
 
     @GetMapping("/search")
-    public Page<OrderResponse> searchOrders(
+    public ResponseEntity<Page<OrderResponse>> searchOrders(
             @RequestParam(required = false) String itemName,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "orderId") String sortBy,
-            @RequestParam(defaultValue = "asc") String direction
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "EXACT") ItemMatch match,
+            @RequestParam(defaultValue = "eventual") String consistency
     ) {
         Sort sort = direction.equalsIgnoreCase("desc")
                 ? Sort.by(sortBy).descending()
                 : Sort.by(sortBy).ascending();
 
         Pageable pageable = PageRequest.of(page, size, sort);
-        return orderService.searchOrders(itemName, pageable);
+        return OrderETags.conditional(
+                orderQueryService.searchOrders(itemName, match, MAX_ITEM_NAMES, pageable, consistency.equalsIgnoreCase("strong")));
+    }
+
+    @GetMapping("/items")
+    public List<String> suggestItems(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "PREFIX") ItemMatch match,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return orderService.suggestItemNames(q, match, Math.min(limit, MAX_ITEM_NAMES));
+    }
+
+    @GetMapping("/stats")
+    public OrderStatsResponse getStats(@RequestParam(required = false) String itemName) {
+        return itemName == null
+                ? orderStatsService.getStats()
+                : orderStatsService.getItemStats(itemName);
+    }
+
+    @PostMapping("/stats/rebuild")
+    public OrderStatsResponse rebuildStats() {
+        orderStatsService.rebuild();
+        return orderStatsService.getStats();
     }
 
 
@@ -0,0 +1,96 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.dto.OrderResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.ZoneId;
+
+/**
+ * Validators for order GETs. A single order's strong ETag is its version and
+ * its Last-Modified its updatedAt; a page gets a weak ETag over the ids and
+ * versions it contains. A single order's If-None-Match is checked against its
+ * current version before the order is loaded or mapped, which costs at most a
+ * query on the version column. Other validators, and every page, are answered
+ * by Spring with 304 before the body is written, which saves serializing it
+ * but not the query behind it.
+ */
+final class OrderETags {
+
+    // Clients may keep a copy but must revalidate it; overrides Spring Security's no-store default
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private OrderETags() {
+    }
+
+    /**
+     * Whether the request carries an If-None-Match, i.e. is worth checking
+     * with {@link #notModified} before the order is loaded.
+     */
+    static boolean hasETag(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null;
+    }
+
+    /**
+     * A 304 if the request's If-None-Match matches {@code version}, else null.
+     */
+    static ResponseEntity<OrderResponse> notModified(WebRequest request, long version) {
+        ETag current = ETag.create(Long.toString(version));
+
+        String[] headers = request.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+        if (headers == null) {
+            return null;
+        }
+
+        for (String header : headers) {
+            for (ETag etag : ETag.parse(header)) {
+                // If-None-Match uses the weak comparison
+                if (etag.isWildcard() || etag.compare(current, false)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                            .cacheControl(REVALIDATE)
+                            .eTag(current.formattedTag())
+                            .build();
+                }
+            }
+        }
+        return null;
+    }
+
+    static ResponseEntity<OrderResponse> conditional(OrderResponse response) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().cacheControl(REVALIDATE);
+
+        if (response.getVersion() != null) {
+            builder.eTag(Long.toString(response.getVersion()));
+        }
+        if (response.getUpdatedAt() != null) {
+            builder.lastModified(response.getUpdatedAt().atZone(ZoneId.systemDefault()));
+        }
+        return builder.body(response);
+    }
+
+    static ResponseEntity<Page<OrderResponse>> conditional(Page<OrderResponse> page) {
+        long hash = 0xcbf29ce484222325L;
+        hash = mix(hash, page.getNumber());
+        hash = mix(hash, page.getSize());
+        hash = mix(hash, page.getTotalElements());
+
+        for (OrderResponse response : page.getContent()) {
+            hash = mix(hash, response.getOrderId().hashCode());
+            hash = mix(hash, response.getVersion() != null ? response.getVersion() : -1);
+        }
+
+        return ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .eTag("W/\"" + Long.toHexString(hash) + "\"")
+                .body(page);
+    }
+
+    private static long mix(long hash, long value) {
+        return (hash ^ value) * 0x100000001b3L;
+    }
+}
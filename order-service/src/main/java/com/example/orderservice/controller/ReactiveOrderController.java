@@ -0,0 +1,107 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.error.ApiError;
+import com.example.orderservice.readmodel.OrderQueryService;
+import com.example.orderservice.search.ItemMatch;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Non-blocking variant of the order reads under /reactive/orders. Requests
+ * return a {@link Mono}, so the servlet thread goes back to the container as
+ * soon as the read is scheduled; the read itself runs through the same
+ * {@link OrderQueryService} (cache, read model, then JPA and OrderMapper) on a
+ * bounded elastic scheduler. Slow reads then queue on that scheduler instead of
+ * exhausting Tomcat's threads and starving writes and cached reads. Reads that
+ * reach the database are still bounded by the connection pool; when the
+ * scheduler's queue is full the request gets 503.
+ */
+@RestController
+@RequestMapping("/reactive/orders")
+@ConditionalOnProperty(name = "orders.reactive-api.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveOrderController {
+
+    private static final int MAX_ITEM_NAMES = 50;
+
+    private final OrderQueryService orderQueryService;
+
+    private final Scheduler readScheduler;
+
+    public ReactiveOrderController(OrderQueryService orderQueryService,
+                                   @Value("${orders.reactive-api.max-threads:64}") int maxThreads,
+                                   @Value("${orders.reactive-api.max-queued:10000}") int maxQueued) {
+        this.orderQueryService = orderQueryService;
+        this.readScheduler = Schedulers.newBoundedElastic(maxThreads, maxQueued, "Order-Read", 60, true);
+    }
+
+    @GetMapping("/{orderId}")
+    public Mono<ResponseEntity<OrderResponse>> getOrder(@PathVariable String orderId,
+                                                        @RequestParam(required = false) Long minVersion) {
+        return read(() -> OrderETags.conditional(orderQueryService.getOrderById(orderId, minVersion)));
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Page<OrderResponse>>> getOrders(@RequestParam(defaultValue = "0") int page,
+                                                               @RequestParam(defaultValue = "10") int size,
+                                                               @RequestParam(defaultValue = "eventual") String consistency) {
+        return read(() -> OrderETags.conditional(
+                orderQueryService.getOrders(page, size, consistency.equalsIgnoreCase("strong"))));
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<Page<OrderResponse>>> searchOrders(
+            @RequestParam(required = false) String itemName,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "orderId") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "EXACT") ItemMatch match,
+            @RequestParam(defaultValue = "eventual") String consistency
+    ) {
+        Sort sort = direction.equalsIgnoreCase("desc")
+                ? Sort.by(sortBy).descending()
+                : Sort.by(sortBy).ascending();
+
+        PageRequest pageable = PageRequest.of(page, size, sort);
+        return read(() -> OrderETags.conditional(
+                orderQueryService.searchOrders(itemName, match, MAX_ITEM_NAMES, pageable, consistency.equalsIgnoreCase("strong"))));
+    }
+
+    private <T> Mono<T> read(Callable<T> query) {
+        return Mono.fromCallable(query).subscribeOn(readScheduler);
+    }
+
+    // Only this controller's reads, so a rejection elsewhere is not reported as a full read queue
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ApiError> handleRejected(RejectedExecutionException ex, HttpServletRequest request) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ApiError(503, "Too many reads in progress, please retry", request.getRequestURI()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        readScheduler.dispose();
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.dto.TokenResponse;
+import com.example.orderservice.security.TokenService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Exchanges the caller's credentials for a bearer token, so later requests
+ * skip password verification entirely.
+ */
+@RestController
+@RequestMapping("/auth")
+@ConditionalOnProperty(name = "security.token.enabled", havingValue = "true")
+public class TokenController {
+
+    private final TokenService tokenService;
+
+    public TokenController(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @PostMapping("/token")
+    public TokenResponse issueToken(Authentication authentication) {
+        return new TokenResponse(tokenService.issue(authentication), tokenService.getTtl().toSeconds());
+    }
+}
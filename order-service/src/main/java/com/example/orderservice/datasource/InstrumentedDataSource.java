@@ -0,0 +1,171 @@
+package com.example.orderservice.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+/**
+ * Wraps the connections of the application's DataSource so that every
+ * statement execution, and every batch with its size, is timed and handed to
+ * the {@link StatementRecorder}. Everything else passes straight through.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final Supplier<StatementRecorder> recorderSupplier;
+    private volatile StatementRecorder recorder;
+
+    /**
+     * The recorder is looked up on first use, so wrapping the DataSource does
+     * not pull the meter registry into early bean creation.
+     */
+    public InstrumentedDataSource(DataSource target, Supplier<StatementRecorder> recorder) {
+        super(target);
+        this.recorderSupplier = recorder;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private StatementRecorder recorder() {
+        StatementRecorder current = recorder;
+        if (current == null) {
+            current = recorderSupplier.get();
+            recorder = current;
+        }
+        return current;
+    }
+
+    private Connection wrap(Connection connection) {
+        return proxy(Connection.class, new ConnectionHandler(connection));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                default:
+                    break;
+            }
+
+            Object result = InstrumentedDataSource.invoke(target, method, args);
+
+            return switch (method.getName()) {
+                case "prepareStatement" -> proxy(PreparedStatement.class,
+                        new StatementHandler((Statement) result, (Connection) proxy, (String) args[0]));
+                case "prepareCall" -> proxy(CallableStatement.class,
+                        new StatementHandler((Statement) result, (Connection) proxy, (String) args[0]));
+                case "createStatement" -> proxy(Statement.class,
+                        new StatementHandler((Statement) result, (Connection) proxy, null));
+                default -> result;
+            };
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final Connection connection;
+
+        private String sql;
+        private int batchSize;
+
+        StatementHandler(Statement target, Connection connection, String sql) {
+            this.target = target;
+            this.connection = connection;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "getConnection":
+                    return connection;
+                case "addBatch":
+                    if (args != null && args.length > 0) {
+                        sql = (String) args[0];
+                    }
+                    batchSize++;
+                    return InstrumentedDataSource.invoke(target, method, args);
+                case "clearBatch":
+                    batchSize = 0;
+                    return InstrumentedDataSource.invoke(target, method, args);
+                case "executeBatch", "executeLargeBatch":
+                    int size = batchSize;
+                    batchSize = 0;
+                    return timed(method, args, size);
+                case "execute", "executeQuery", "executeUpdate", "executeLargeUpdate":
+                    if (args != null && args.length > 0) {
+                        sql = (String) args[0];
+                    }
+                    return timed(method, args, 1);
+                default:
+                    return InstrumentedDataSource.invoke(target, method, args);
+            }
+        }
+
+        private Object timed(Method method, Object[] args, int statements) throws Throwable {
+            long start = System.nanoTime();
+            try {
+                return InstrumentedDataSource.invoke(target, method, args);
+            } finally {
+                recorder().record(sql, System.nanoTime() - start, statements);
+            }
+        }
+    }
+}
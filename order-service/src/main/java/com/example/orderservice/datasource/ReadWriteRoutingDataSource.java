@@ -0,0 +1,38 @@
+package com.example.orderservice.datasource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Application DataSource when replicas are configured. Physical connections
+ * are only fetched at the first statement, by which time the transaction's
+ * read-only flag is known: {@code @Transactional(readOnly = true)} work goes
+ * to the replicas, everything else to the primary. Writers are pinned to the
+ * primary by {@link ReadYourWritesTracker#recordWrite()}, called where a write
+ * is made on a client's behalf.
+ */
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private final DataSource primary;
+    private final ReplicaRoutingDataSource replicas;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaRoutingDataSource replicas) {
+
+        super(primary);
+        setReadOnlyDataSource(replicas);
+
+        this.primary = primary;
+        this.replicas = replicas;
+    }
+
+    @Override
+    public void close() throws IOException {
+        replicas.close();
+        if (primary instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
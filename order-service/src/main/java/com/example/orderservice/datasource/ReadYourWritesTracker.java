@@ -0,0 +1,98 @@
+package com.example.orderservice.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which clients wrote recently so their reads can be pinned to the
+ * primary until replicas have had time to catch up. Clients are keyed by the
+ * configured request header (X-Client-Id by default), or by their remote
+ * address when they send none, since every caller shares one principal.
+ * Work outside an HTTP request (Kafka, outbox, schedulers) is never pinned.
+ */
+public class ReadYourWritesTracker {
+
+    private final long windowNanos;
+    private final int maxEntries;
+    private final String clientHeader;
+
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(Duration window, int maxEntries, String clientHeader) {
+        this.windowNanos = window.toNanos();
+        this.maxEntries = maxEntries;
+        this.clientHeader = clientHeader;
+    }
+
+    /**
+     * Pins the current client once the surrounding transaction commits, so a
+     * rolled-back write, or a read-write transaction that wrote nothing, pins
+     * no one. Without a transaction the client is pinned right away.
+     */
+    public void recordWrite() {
+        String key = currentKey();
+        if (key == null || windowNanos <= 0) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(key);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(key);
+            }
+        });
+    }
+
+    private void record(String key) {
+        long now = System.nanoTime();
+        lastWrites.put(key, now);
+
+        if (lastWrites.size() > maxEntries) {
+            lastWrites.values().removeIf(writtenAt -> now - writtenAt > windowNanos);
+        }
+    }
+
+    public boolean requiresPrimary() {
+        String key = currentKey();
+        if (key == null) {
+            return false;
+        }
+
+        Long writtenAt = lastWrites.get(key);
+        if (writtenAt == null) {
+            return false;
+        }
+
+        if (System.nanoTime() - writtenAt > windowNanos) {
+            lastWrites.remove(key, writtenAt);
+            return false;
+        }
+        return true;
+    }
+
+    private String currentKey() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return null;
+        }
+
+        HttpServletRequest request = servletAttributes.getRequest();
+        String clientId = request.getHeader(clientHeader);
+        if (clientId != null && !clientId.isBlank()) {
+            return "client:" + clientId.trim();
+        }
+        return "address:" + request.getRemoteAddr();
+    }
+}
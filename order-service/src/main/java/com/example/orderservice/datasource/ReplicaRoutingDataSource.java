@@ -0,0 +1,189 @@
+package com.example.orderservice.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read-only side of the read/write split. Hands out connections from the
+ * replica pools in turn, skipping replicas whose replication lag is above the
+ * limit, and falls back to the primary when the caller has just written or no
+ * replica is usable.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final ReadYourWritesTracker writesTracker;
+    private final String lagQuery;
+    private final long maxLagMs;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService lagChecker;
+
+    private final Counter replicaReads;
+    private final Counter stickyReads;
+    private final Counter fallbackReads;
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    Map<String, DataSource> replicas,
+                                    ReadYourWritesTracker writesTracker,
+                                    String lagQuery,
+                                    Duration maxLag,
+                                    Duration lagCheckInterval,
+                                    MeterRegistry meterRegistry) {
+
+        this.primary = primary;
+        this.writesTracker = writesTracker;
+        this.lagQuery = lagQuery;
+        this.maxLagMs = maxLag.toMillis();
+
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource);
+            this.replicas.add(replica);
+            meterRegistry.gauge("datasource.replica.lag", Tags.of("pool", name), replica, r -> r.lagMs);
+        });
+
+        this.replicaReads = meterRegistry.counter("datasource.routing.reads.count", "target", "replica");
+        this.stickyReads = meterRegistry.counter("datasource.routing.reads.count", "target", "primary-sticky");
+        this.fallbackReads = meterRegistry.counter("datasource.routing.reads.count", "target", "primary-fallback");
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("Replica-Lag-");
+        threadFactory.setDaemon(true);
+        this.lagChecker = Executors.newSingleThreadScheduledExecutor(threadFactory);
+
+        long intervalMs = lagCheckInterval.toMillis();
+        lagChecker.scheduleWithFixedDelay(this::checkLag, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    /**
+     * Routes like {@link #getConnection()} and passes the credentials to the
+     * chosen pool, which may not support them; Hikari throws
+     * SQLFeatureNotSupportedException.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection route(Connector connector) throws SQLException {
+
+        if (writesTracker.requiresPrimary()) {
+            stickyReads.increment();
+            return connector.connect(primary);
+        }
+
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+            if (!replica.healthy) {
+                continue;
+            }
+
+            try {
+                Connection connection = connector.connect(replica.dataSource);
+                replicaReads.increment();
+                return connection;
+            } catch (SQLFeatureNotSupportedException e) {
+                throw e;
+            } catch (SQLException e) {
+                log.warn("Replica {} unavailable, taking it out of rotation: {}", replica.name, e.getMessage());
+                replica.healthy = false;
+            }
+        }
+
+        fallbackReads.increment();
+        return connector.connect(primary);
+    }
+
+    /**
+     * Probes every replica once. A replica is usable again as soon as a probe
+     * succeeds and reports lag within the limit.
+     */
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+
+                long lagMs = 0;
+                if (lagQuery != null && !lagQuery.isBlank()) {
+                    try (Statement statement = connection.createStatement();
+                         ResultSet rs = statement.executeQuery(lagQuery)) {
+                        lagMs = rs.next() ? (long) rs.getDouble(1) : 0;
+                    }
+                }
+
+                replica.lagMs = lagMs;
+                boolean healthy = lagMs <= maxLagMs;
+                if (replica.healthy != healthy) {
+                    log.info("Replica {} lag={}ms, {} rotation", replica.name, lagMs, healthy ? "returning to" : "leaving");
+                }
+                replica.healthy = healthy;
+
+            } catch (SQLException e) {
+                if (replica.healthy) {
+                    log.warn("Replica {} lag check failed: {}", replica.name, e.getMessage());
+                }
+                replica.healthy = false;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        lagChecker.shutdownNow();
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close replica pool {}", replica.name, e);
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Connector {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+
+        private volatile boolean healthy = true;
+        private volatile long lagMs;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.orderservice.datasource;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A statement with its literals replaced by ? and IN lists collapsed, so every
+ * execution of the same query lands on one shape whatever its parameters.
+ * Operation and table are the first keyword and the first table it names,
+ * coarse enough to tag metrics with.
+ */
+record SqlShape(String sql, String operation, String table) {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Pattern TABLE = Pattern.compile(
+            "(?i)\\b(?:from|into|update|join)\\s+\"?([\\w.]+)\"?");
+
+    static SqlShape of(String sql) {
+        if (sql == null || sql.isBlank()) {
+            return new SqlShape("", "other", "unknown");
+        }
+
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("in (?)");
+
+        return new SqlShape(shape, operationOf(shape), tableOf(shape));
+    }
+
+    private static String operationOf(String shape) {
+        int end = shape.indexOf(' ');
+        String keyword = (end < 0 ? shape : shape.substring(0, end)).toLowerCase(Locale.ROOT);
+
+        return switch (keyword) {
+            case "select", "with" -> "select";
+            case "insert", "update", "delete", "merge" -> keyword;
+            default -> "other";
+        };
+    }
+
+    private static String tableOf(String shape) {
+        Matcher matcher = TABLE.matcher(shape);
+        if (!matcher.find()) {
+            return "unknown";
+        }
+
+        String table = matcher.group(1).toLowerCase(Locale.ROOT);
+        return table.substring(table.lastIndexOf('.') + 1);
+    }
+}
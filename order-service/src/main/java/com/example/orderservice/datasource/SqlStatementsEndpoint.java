@@ -0,0 +1,28 @@
+package com.example.orderservice.datasource;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * /actuator/sql: statement shapes by total time spent, with their counts,
+ * latency, batch sizes and how often they were slow or looked like an N+1.
+ */
+@Endpoint(id = "sql")
+public class SqlStatementsEndpoint {
+
+    private static final int DEFAULT_LIMIT = 50;
+
+    private final StatementRecorder recorder;
+
+    public SqlStatementsEndpoint(StatementRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @ReadOperation
+    public List<StatementRecorder.ShapeReport> statements(@Nullable Integer limit) {
+        return recorder.report(limit != null ? limit : DEFAULT_LIMIT);
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.orderservice.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects every JDBC statement run through {@link InstrumentedDataSource}.
+ * Statements are grouped by {@link SqlShape}: each shape keeps its own counts
+ * for the sql actuator endpoint, and feeds the jdbc.statements timer and the
+ * jdbc.batch.size summary tagged with its operation and table.
+ *
+ * Within a request (see {@link StatementTrackingFilter}) statements are also
+ * counted per shape, so a SELECT repeated n-plus-one-threshold times in one
+ * request is reported as a likely N+1. Statements slower than the threshold
+ * are logged with their shape; the rest are logged at the sample rate only.
+ * Statements on other threads, such as shard fan-out or scheduled jobs, are
+ * measured but not attributed to a request.
+ */
+public class StatementRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementRecorder.class);
+
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdNanos;
+    private final int nPlusOneThreshold;
+    private final double logSampleRate;
+    private final int maxShapes;
+
+    // Raw SQL to its shape; Hibernate reuses the same strings, so this saves normalizing them again
+    private final Map<String, ShapeStats> bySql = new ConcurrentHashMap<>();
+    private final Map<String, ShapeStats> byShape = new ConcurrentHashMap<>();
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<RequestStatements> currentRequest = new ThreadLocal<>();
+
+    private final DistributionSummary requestStatements;
+    private final Counter untrackedShapes;
+
+    public StatementRecorder(MeterRegistry meterRegistry,
+                             Duration slowThreshold,
+                             int nPlusOneThreshold,
+                             double logSampleRate,
+                             int maxShapes) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.logSampleRate = logSampleRate;
+        this.maxShapes = maxShapes;
+
+        this.requestStatements = DistributionSummary.builder("jdbc.request.statements")
+                .description("JDBC statements run by one HTTP request")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.untrackedShapes = meterRegistry.counter("jdbc.statements.untracked");
+    }
+
+    /**
+     * Records one execution; batchSize is 1 for a plain statement.
+     */
+    public void record(String sql, long elapsedNanos, int batchSize) {
+        ShapeStats stats = statsFor(sql);
+        stats.record(elapsedNanos, batchSize);
+
+        RequestStatements request = currentRequest.get();
+        if (request != null) {
+            request.count(stats);
+        }
+
+        if (elapsedNanos >= slowThresholdNanos) {
+            stats.slow.increment();
+            stats.meters.slow.increment();
+            log.warn("Slow SQL took {} ms: {}", TimeUnit.NANOSECONDS.toMillis(elapsedNanos), stats.shape.sql());
+        } else if (logSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+            log.info("SQL took {} ms (batch {}): {}", TimeUnit.NANOSECONDS.toMillis(elapsedNanos), batchSize, sql);
+        }
+    }
+
+    public void beginRequest(String description) {
+        currentRequest.set(new RequestStatements(description));
+    }
+
+    public void endRequest() {
+        RequestStatements request = currentRequest.get();
+        currentRequest.remove();
+
+        if (request != null) {
+            requestStatements.record(request.total);
+        }
+    }
+
+    /**
+     * Shapes by total time spent, most expensive first.
+     */
+    public List<ShapeReport> report(int limit) {
+        return byShape.values().stream()
+                .map(ShapeStats::report)
+                .sorted(Comparator.comparingDouble(ShapeReport::totalMs).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private ShapeStats statsFor(String sql) {
+        ShapeStats stats = bySql.get(sql);
+        if (stats != null) {
+            return stats;
+        }
+
+        SqlShape shape = SqlShape.of(sql);
+        stats = byShape.get(shape.sql());
+        if (stats == null) {
+            if (byShape.size() >= maxShapes) {
+                // Still measured through its meters, just not listed on the endpoint
+                untrackedShapes.increment();
+                return new ShapeStats(shape, metersFor(shape));
+            }
+            stats = byShape.computeIfAbsent(shape.sql(), key -> new ShapeStats(shape, metersFor(shape)));
+        }
+
+        if (bySql.size() >= maxShapes * 4) {
+            bySql.clear();
+        }
+        bySql.put(sql, stats);
+        return stats;
+    }
+
+    private Meters metersFor(SqlShape shape) {
+        return meters.computeIfAbsent(shape.operation() + " " + shape.table(), key -> new Meters(
+                Timer.builder("jdbc.statements")
+                        .description("JDBC statement execution time")
+                        .tag("operation", shape.operation())
+                        .tag("table", shape.table())
+                        .publishPercentileHistogram()
+                        .register(meterRegistry),
+                DistributionSummary.builder("jdbc.batch.size")
+                        .description("Statements per executed JDBC batch")
+                        .tag("operation", shape.operation())
+                        .tag("table", shape.table())
+                        .register(meterRegistry),
+                meterRegistry.counter("jdbc.statements.slow", "operation", shape.operation(), "table", shape.table()),
+                meterRegistry.counter("jdbc.n-plus-one", "operation", shape.operation(), "table", shape.table())));
+    }
+
+    /**
+     * Per-request counts, only touched by the request's own thread.
+     */
+    private final class RequestStatements {
+
+        private final String description;
+        private final Map<ShapeStats, Integer> counts = new HashMap<>();
+        private int total;
+
+        RequestStatements(String description) {
+            this.description = description;
+        }
+
+        void count(ShapeStats stats) {
+            total++;
+            int count = counts.merge(stats, 1, Integer::sum);
+
+            if (count == nPlusOneThreshold && "select".equals(stats.shape.operation())) {
+                stats.nPlusOne.increment();
+                stats.meters.nPlusOne.increment();
+                log.warn("Possible N+1: {} ran the same query {} times: {}", description, count, stats.shape.sql());
+            }
+        }
+    }
+
+    private record Meters(Timer timer, DistributionSummary batchSize, Counter slow, Counter nPlusOne) {
+    }
+
+    private static final class ShapeStats {
+
+        private final SqlShape shape;
+        private final Meters meters;
+
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder batches = new LongAdder();
+        private final AtomicLong maxBatchSize = new AtomicLong();
+        private final LongAdder slow = new LongAdder();
+        private final LongAdder nPlusOne = new LongAdder();
+
+        ShapeStats(SqlShape shape, Meters meters) {
+            this.shape = shape;
+            this.meters = meters;
+        }
+
+        void record(long elapsedNanos, int batchSize) {
+            executions.increment();
+            statements.add(batchSize);
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+            meters.timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+            if (batchSize > 1) {
+                batches.increment();
+                maxBatchSize.accumulateAndGet(batchSize, Math::max);
+                meters.batchSize.record(batchSize);
+            }
+        }
+
+        ShapeReport report() {
+            long count = executions.sum();
+            double totalMs = totalNanos.sum() / 1e6;
+            return new ShapeReport(shape.sql(), shape.operation(), shape.table(),
+                    count, statements.sum(), totalMs, count == 0 ? 0 : totalMs / count, maxNanos.get() / 1e6,
+                    batches.sum(), maxBatchSize.get(), slow.sum(), nPlusOne.sum());
+        }
+    }
+
+    public record ShapeReport(String sql,
+                              String operation,
+                              String table,
+                              long executions,
+                              long statements,
+                              double totalMs,
+                              double meanMs,
+                              double maxMs,
+                              long batches,
+                              long maxBatchSize,
+                              long slow,
+                              long nPlusOne) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.orderservice.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Scopes statement counting to one HTTP request, including anything security
+ * does before the controller runs.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class StatementTrackingFilter extends OncePerRequestFilter {
+
+    private final StatementRecorder recorder;
+
+    public StatementTrackingFilter(StatementRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        recorder.beginRequest(request.getMethod() + " " + request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            recorder.endRequest();
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.orderservice.dto;
 
 import com.example.orderservice.model.Order;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDateTime;
 
 public class OrderResponse {
 
@@ -14,6 +17,10 @@ public class OrderResponse {
 
     private String idempotencyKey;
 
+    private Long version;
+
+    private LocalDateTime updatedAt;
+
 
     public OrderResponse(String orderId, String itemName, int quantity, String idempotencyKey) {
         this.orderId = orderId;
@@ -22,6 +29,17 @@ public class OrderResponse {
         this.idempotencyKey = idempotencyKey;
     }
 
+    public OrderResponse(String orderId, String itemName, int quantity, String idempotencyKey, Long version) {
+        this(orderId, itemName, quantity, idempotencyKey);
+        this.version = version;
+    }
+
+    public OrderResponse(String orderId, String itemName, int quantity, String idempotencyKey, Long version,
+                         LocalDateTime updatedAt) {
+        this(orderId, itemName, quantity, idempotencyKey, version);
+        this.updatedAt = updatedAt;
+    }
+
 
     public String getOrderId() {
         return orderId;
@@ -35,4 +53,19 @@ public class OrderResponse {
         return quantity;
     }
 
+    /**
+     * Pass back as minVersion to read this write or a later one.
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sent as the Last-Modified header rather than in the body.
+     */
+    @JsonIgnore
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
 }
@@ -0,0 +1,47 @@
+package com.example.orderservice.dto;
+
+import java.util.Map;
+
+public class OrderStatsResponse {
+
+    private final Map<String, Totals> byStatus;
+    private final Map<String, Totals> byItem;
+    private final String checkpointedAt;
+
+    public OrderStatsResponse(Map<String, Totals> byStatus, Map<String, Totals> byItem, String checkpointedAt) {
+        this.byStatus = byStatus;
+        this.byItem = byItem;
+        this.checkpointedAt = checkpointedAt;
+    }
+
+    public Map<String, Totals> getByStatus() {
+        return byStatus;
+    }
+
+    public Map<String, Totals> getByItem() {
+        return byItem;
+    }
+
+    public String getCheckpointedAt() {
+        return checkpointedAt;
+    }
+
+    public static class Totals {
+
+        private final long orderCount;
+        private final long quantity;
+
+        public Totals(long orderCount, long quantity) {
+            this.orderCount = orderCount;
+            this.quantity = quantity;
+        }
+
+        public long getOrderCount() {
+            return orderCount;
+        }
+
+        public long getQuantity() {
+            return quantity;
+        }
+    }
+}
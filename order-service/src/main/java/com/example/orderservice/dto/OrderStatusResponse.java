@@ -0,0 +1,32 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.model.OrderStatus;
+
+public class OrderStatusResponse {
+
+    private final String orderId;
+    private final OrderStatus status;
+    private final long version;
+
+    public OrderStatusResponse(String orderId, OrderStatus status, long version) {
+        this.orderId = orderId;
+        this.status = status;
+        this.version = version;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isFinal() {
+        return status != OrderStatus.PENDING;
+    }
+}
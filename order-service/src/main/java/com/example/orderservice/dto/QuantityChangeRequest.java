@@ -0,0 +1,26 @@
+package com.example.orderservice.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public class QuantityChangeRequest {
+
+    @NotNull
+    @Min(value = 1, message = "delta must be at least 1")
+    private Integer delta;
+
+    public QuantityChangeRequest() {
+    }
+
+    public QuantityChangeRequest(Integer delta) {
+        this.delta = delta;
+    }
+
+    public Integer getDelta() {
+        return delta;
+    }
+
+    public void setDelta(Integer delta) {
+        this.delta = delta;
+    }
+}
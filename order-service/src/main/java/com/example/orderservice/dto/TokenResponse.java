@@ -0,0 +1,27 @@
+package com.example.orderservice.dto;
+
+public class TokenResponse {
+
+    private final String accessToken;
+    private final long expiresIn;
+
+    public TokenResponse(String accessToken, long expiresIn) {
+        this.accessToken = accessToken;
+        this.expiresIn = expiresIn;
+    }
+
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    public String getTokenType() {
+        return "Bearer";
+    }
+
+    /**
+     * Seconds until the token expires.
+     */
+    public long getExpiresIn() {
+        return expiresIn;
+    }
+}
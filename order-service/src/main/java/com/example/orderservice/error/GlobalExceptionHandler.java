@@ -1,10 +1,13 @@
 package com.example.orderservice.error;
 
+import com.example.orderservice.service.ItemUnavailableException;
 import com.example.orderservice.service.OrderNotFoundException;
+import com.example.orderservice.stream.SubscriberLimitException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
@@ -42,6 +45,19 @@ public class GlobalExceptionHandler {
                 .body(new ApiError(409, "Concurrent update detected, please retry", request.getRequestURI()));
     }
 
+    @ExceptionHandler(ItemUnavailableException.class)
+    public ResponseEntity<ApiError> handleItemUnavailable(ItemUnavailableException ex, HttpServletRequest request) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ApiError(409, ex.getMessage(), request.getRequestURI()));
+    }
+
+    @ExceptionHandler(SubscriberLimitException.class)
+    public ResponseEntity<ApiError> handleSubscriberLimit(SubscriberLimitException ex, HttpServletRequest request) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(new ApiError(503, ex.getMessage(), request.getRequestURI()));
+    }
+
     @ExceptionHandler(IllegalStateException.class)
     public ResponseEntity<ApiError> handleConflict(IllegalStateException ex, HttpServletRequest request) {
         return ResponseEntity.status(HttpStatus.CONFLICT)
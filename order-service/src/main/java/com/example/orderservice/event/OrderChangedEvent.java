@@ -0,0 +1,60 @@
+package com.example.orderservice.event;
+
+import com.example.orderservice.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Full state of an order after a committed change, written to the outbox for
+ * the read model. Carries the order's version so replays and out-of-order
+ * deliveries can be dropped.
+ */
+public class OrderChangedEvent {
+
+    private final String orderId;
+    private final String itemName;
+    private final int quantity;
+    private final String idempotencyKey;
+    private final OrderStatus status;
+    private final long version;
+    private final LocalDateTime updatedAt;
+
+    public OrderChangedEvent(String orderId, String itemName, int quantity, String idempotencyKey,
+                             OrderStatus status, long version, LocalDateTime updatedAt) {
+        this.orderId = orderId;
+        this.itemName = itemName;
+        this.quantity = quantity;
+        this.idempotencyKey = idempotencyKey;
+        this.status = status;
+        this.version = version;
+        this.updatedAt = updatedAt;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -6,24 +6,32 @@ import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.event.EventListener;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 @Component
 public class OrderEventListener {
 
     private static final Logger log = LoggerFactory.getLogger(OrderEventListener.class);
 
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MS = 1000;
+
     private final InventoryPort inventoryPort;
 
+    private final Executor inventoryExecutor;
+
     private final Counter inventoryFailureCount;
 
     public static volatile int failureCount = 0;
@@ -31,8 +39,11 @@ public class OrderEventListener {
 
     private final Set<String> processedOrders = ConcurrentHashMap.newKeySet();
 
-    public OrderEventListener(InventoryPort inventoryPort, MeterRegistry meterRegistry) {
+    public OrderEventListener(InventoryPort inventoryPort,
+                              @Qualifier("inventoryExecutor") Executor inventoryExecutor,
+                              MeterRegistry meterRegistry) {
         this.inventoryPort = inventoryPort;
+        this.inventoryExecutor = inventoryExecutor;
         this.inventoryFailureCount = meterRegistry.counter("inventory.failure.count");
 
         meterRegistry.gauge("inventory.circuit.open",
@@ -40,13 +51,14 @@ public class OrderEventListener {
                 listener -> circuitOpen ? 1: 0);
     }
 
-    @Async("orderExecutor")
+    /**
+     * Starts the reservation and returns without waiting for it. Retries are
+     * scheduled on {@code inventoryExecutor} after a delay instead of sleeping, so
+     * with a non-blocking {@link InventoryPort} no thread is held while the
+     * inventory call is in flight.
+     */
+    @Async("inventoryExecutor")
     @EventListener
-    @Retryable(
-            value = RuntimeException.class,
-            maxAttempts = 3,
-            backoff = @Backoff(delay = 1000)
-    )
     public void handleOrderCreated(OrderCreatedEvent event) {
 
         log.info("Processing orderId={}", event.getOrderId());
@@ -63,36 +75,61 @@ public class OrderEventListener {
             return;
         }
 
-        try {
+        reserveWithRetry(event, 1)
+                .whenComplete((ignored, ex) -> {
+                    if (ex != null) {
+                        log.error("Inventory reservation gave up for orderId={}", event.getOrderId());
+                        return;
+                    }
+                    log.info("Finished async processing for orderId={} on thread={}",
+                            event.getOrderId(),
+                            Thread.currentThread().getName());
+                });
+    }
 
+    private CompletableFuture<Void> reserveWithRetry(OrderCreatedEvent event, int attempt) {
+
+        return reserve(event)
+                .handle((ignored, ex) -> {
+                    if (ex == null) {
+                        failureCount = 0;
+
+                        log.info("Inventory reserved successfully for orderId={}",
+                                event.getOrderId());
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+
+                    inventoryFailureCount.increment();
+                    failureCount++;
+                    log.error("Inventory failure. failureCount={}", failureCount);
+
+                    if (failureCount >= 3) {
+                        circuitOpen = true;
+                        log.error("Circuit OPENED due to repeated failures");
+                    }
+
+                    if (attempt >= MAX_ATTEMPTS || circuitOpen) {
+                        return CompletableFuture.<Void>failedFuture(ex);
+                    }
+
+                    Executor delayed = CompletableFuture.delayedExecutor(
+                            RETRY_DELAY_MS, TimeUnit.MILLISECONDS, inventoryExecutor);
+                    return CompletableFuture.runAsync(() -> { }, delayed)
+                            .thenCompose(retry -> reserveWithRetry(event, attempt + 1));
+                })
+                .thenCompose(Function.identity());
+    }
 
+    private CompletableFuture<Void> reserve(OrderCreatedEvent event) {
+        try {
             if (Math.random() > 0.6) {
                 throw new RuntimeException("Simulated inventory failure");
             }
 
-            inventoryPort.reserveStock(event.getItemName(), event.getQuantity());
-
-            failureCount = 0;
-
-            log.info("Inventory reserved successfully for orderId={}",
-                    event.getOrderId());
-
+            return inventoryPort.reserveStockAsync(event.getItemName(), event.getQuantity());
         } catch (RuntimeException ex) {
-            inventoryFailureCount.increment();
-            failureCount++;
-            log.error("Inventory failure. failureCount={}", failureCount);
-
-            if (failureCount >= 3) {
-                circuitOpen = true;
-                log.error("Circuit OPENED due to repeated failures");
-            }
-
-            throw ex; // Let retry handle transient behavior
+            return CompletableFuture.failedFuture(ex);
         }
-
-        log.info("Finished async processing for orderId={} on thread={}",
-                event.getOrderId(),
-                Thread.currentThread().getName());
     }
 
 }
@@ -0,0 +1,31 @@
+package com.example.orderservice.event;
+
+import com.example.orderservice.model.OrderStatus;
+
+public class OrderStatusChangedEvent {
+
+    private String orderId;
+    private OrderStatus status;
+    private long version;
+
+    public OrderStatusChangedEvent() {
+    }
+
+    public OrderStatusChangedEvent(String orderId, OrderStatus status, long version) {
+        this.orderId = orderId;
+        this.status = status;
+        this.version = version;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
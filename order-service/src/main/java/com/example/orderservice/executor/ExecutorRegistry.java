@@ -0,0 +1,152 @@
+package com.example.orderservice.executor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.MDC;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Named thread pools, one per workload, so a backlog in one cannot starve the
+ * others. Pools are registered under their bean name, e.g. sideEffectExecutor,
+ * and their defaults can be overridden under orders.executors.side-effect.*
+ * (core-size, max-size, queue-capacity, rejection).
+ *
+ * Every pool is published as executor.* meters tagged with its name: pool,
+ * active and queued gauges, executor.idle for the time a task waited in the
+ * queue, executor for the time it ran, and executor.rejected for each task
+ * that found the pool full, whatever the policy then did with it. The gauges
+ * are the ones Spring Boot binds for executor beans, so both land on the same
+ * series. Tasks carry the submitter's MDC.
+ */
+public class ExecutorRegistry {
+
+    private static final String PREFIX = "orders.executors.";
+    private static final String SUFFIX = "Executor";
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, ThreadPoolTaskExecutor> executors = new ConcurrentHashMap<>();
+
+    public ExecutorRegistry(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Creates the named pool. It starts when initialized, which Spring does
+     * for pools returned from a {@code @Bean} method.
+     */
+    public ThreadPoolTaskExecutor register(String name, String threadNamePrefix, ExecutorSettings defaults) {
+        ExecutorSettings settings = settingsFor(name, defaults);
+
+        InstrumentedTaskExecutor executor = new InstrumentedTaskExecutor(name, settings.rejection(), meterRegistry);
+        executor.setCorePoolSize(settings.coreSize());
+        executor.setMaxPoolSize(settings.maxSize());
+        executor.setQueueCapacity(settings.queueCapacity());
+        executor.setThreadNamePrefix(threadNamePrefix);
+
+        if (executors.putIfAbsent(name, executor) != null) {
+            throw new IllegalStateException("Executor " + name + " is already registered");
+        }
+        return executor;
+    }
+
+    public ThreadPoolTaskExecutor get(String name) {
+        ThreadPoolTaskExecutor executor = executors.get(name);
+        if (executor == null) {
+            throw new IllegalArgumentException("No executor named " + name);
+        }
+        return executor;
+    }
+
+    public Set<String> names() {
+        return Collections.unmodifiableSet(executors.keySet());
+    }
+
+    ExecutorSettings settingsFor(String name, ExecutorSettings defaults) {
+        String workload = name.endsWith(SUFFIX) ? name.substring(0, name.length() - SUFFIX.length()) : name;
+        String prefix = PREFIX + workload.replaceAll("([a-z0-9])([A-Z])", "$1-$2").toLowerCase(Locale.ROOT) + ".";
+
+        String rejection = environment.getProperty(prefix + "rejection");
+        return new ExecutorSettings(
+                environment.getProperty(prefix + "core-size", Integer.class, defaults.coreSize()),
+                environment.getProperty(prefix + "max-size", Integer.class, defaults.maxSize()),
+                environment.getProperty(prefix + "queue-capacity", Integer.class, defaults.queueCapacity()),
+                rejection != null ? RejectionPolicy.of(rejection) : defaults.rejection());
+    }
+
+    private static final class InstrumentedTaskExecutor extends ThreadPoolTaskExecutor {
+
+        private final String name;
+        private final MeterRegistry meterRegistry;
+        private final Timer idleTimer;
+        private final Timer runTimer;
+
+        InstrumentedTaskExecutor(String name, RejectionPolicy rejection, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.meterRegistry = meterRegistry;
+            this.idleTimer = meterRegistry.timer("executor.idle", "name", name);
+            this.runTimer = meterRegistry.timer("executor", "name", name);
+
+            Counter rejected = meterRegistry.counter("executor.rejected",
+                    "name", name, "policy", rejection.name().toLowerCase(Locale.ROOT).replace('_', '-'));
+            RejectedExecutionHandler handler = rejection.handler();
+
+            setRejectedExecutionHandler((task, pool) -> {
+                rejected.increment();
+                handler.rejectedExecution(task, pool);
+            });
+            setTaskDecorator(this::decorate);
+        }
+
+        @Override
+        protected ExecutorService initializeExecutor(ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+            ExecutorService service = super.initializeExecutor(threadFactory, rejectedExecutionHandler);
+            new ExecutorServiceMetrics(service, name, List.of()).bindTo(meterRegistry);
+            return service;
+        }
+
+        private Runnable decorate(Runnable task) {
+            long queuedAt = System.nanoTime();
+            Map<String, String> context = MDC.getCopyOfContextMap();
+
+            return () -> {
+                long startedAt = System.nanoTime();
+                idleTimer.record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+
+                // With CALLER_RUNS this is the submitter's own thread, so put its MDC back afterwards
+                Map<String, String> previous = MDC.getCopyOfContextMap();
+                setContext(context);
+                try {
+                    task.run();
+                } finally {
+                    runTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                    setContext(previous);
+                }
+            };
+        }
+
+        private static void setContext(Map<String, String> context) {
+            if (context != null) {
+                MDC.setContextMap(context);
+            } else {
+                MDC.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.orderservice.executor;
+
+/**
+ * Size and overflow behaviour of one named pool. A queue capacity of 0 hands
+ * tasks straight to a thread, growing the pool to maxSize before rejecting.
+ */
+public record ExecutorSettings(int coreSize, int maxSize, int queueCapacity, RejectionPolicy rejection) {
+}
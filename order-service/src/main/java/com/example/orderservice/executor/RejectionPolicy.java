@@ -0,0 +1,36 @@
+package com.example.orderservice.executor;
+
+import java.util.Locale;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
+
+/**
+ * What a pool does with a task once its threads and queue are full.
+ * CALLER_RUNS runs the task on the submitting thread, which slows the
+ * producer down to the pool's pace instead of dropping work.
+ */
+public enum RejectionPolicy {
+
+    ABORT(ThreadPoolExecutor.AbortPolicy::new),
+    CALLER_RUNS(ThreadPoolExecutor.CallerRunsPolicy::new),
+    DISCARD(ThreadPoolExecutor.DiscardPolicy::new),
+    DISCARD_OLDEST(ThreadPoolExecutor.DiscardOldestPolicy::new);
+
+    private final Supplier<RejectedExecutionHandler> handler;
+
+    RejectionPolicy(Supplier<RejectedExecutionHandler> handler) {
+        this.handler = handler;
+    }
+
+    public RejectedExecutionHandler handler() {
+        return handler.get();
+    }
+
+    /**
+     * Parses "caller-runs" as well as "CALLER_RUNS".
+     */
+    public static RejectionPolicy of(String value) {
+        return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+}
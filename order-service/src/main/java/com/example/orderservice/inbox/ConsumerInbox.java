@@ -0,0 +1,255 @@
+package com.example.orderservice.inbox;
+
+import com.example.orderservice.repository.InboxMessageRepository;
+import com.example.orderservice.sharding.ShardTemplate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Deduplicates consumed Kafka records. A handler records the message id in
+ * inbox_messages inside the transaction that applies it, on the same shard,
+ * so the effect and the record commit together; {@link #isDuplicate} lets a
+ * redelivery be skipped before any of that work starts.
+ *
+ * Ids this node has recorded are also added to a Bloom filter. A miss in the
+ * filter means the message is new, so first deliveries skip the lookup; only
+ * filter hits (redeliveries and false positives) read the inbox. Two filters
+ * rotate every retention period so the pair always covers the last one.
+ *
+ * Messages recorded by another node are not in this node's filter, so a
+ * partition assigned in a rebalance is cold: every delivery from it is looked
+ * up until a reload of the recent ids, started after the assignment, has
+ * finished; Spring Boot's listener container factory registers this bean as
+ * its rebalance listener. A failed load is retried until it succeeds.
+ */
+@Component
+public class ConsumerInbox implements ConsumerAwareRebalanceListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ConsumerInbox.class);
+
+    private final InboxMessageRepository inboxRepository;
+    private final ShardTemplate shardTemplate;
+
+    private final boolean enabled;
+    private final Duration retention;
+    private final long expectedMessages;
+    private final double falsePositiveRate;
+    private final int loadChunkSize;
+    private final long loadRetryMs;
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter previous;
+    private volatile LocalDateTime rotatedAt = LocalDateTime.now();
+
+    // Until the recent ids are loaded a filter miss proves nothing
+    private volatile boolean ready;
+
+    // topic-partition prefixes of message ids whose filter entries may be missing
+    private final Set<String> coldPartitions = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean loadQueued = new AtomicBoolean();
+
+    private final ScheduledExecutorService loader;
+
+    private final Counter newCounter;
+    private final Counter duplicateCounter;
+    private final Counter lookupCounter;
+
+    public ConsumerInbox(InboxMessageRepository inboxRepository,
+                         ShardTemplate shardTemplate,
+                         MeterRegistry meterRegistry,
+                         @Value("${orders.inbox.enabled:true}") boolean enabled,
+                         @Value("${orders.inbox.retention-hours:168}") long retentionHours,
+                         @Value("${orders.inbox.expected-messages:1000000}") long expectedMessages,
+                         @Value("${orders.inbox.false-positive-rate:0.01}") double falsePositiveRate,
+                         @Value("${orders.inbox.load-chunk-size:10000}") int loadChunkSize,
+                         @Value("${orders.inbox.load-retry-ms:30000}") long loadRetryMs) {
+        this.inboxRepository = inboxRepository;
+        this.shardTemplate = shardTemplate;
+        this.enabled = enabled;
+        this.retention = Duration.ofHours(retentionHours);
+        this.expectedMessages = expectedMessages;
+        this.falsePositiveRate = falsePositiveRate;
+        this.loadChunkSize = loadChunkSize;
+        this.loadRetryMs = loadRetryMs;
+
+        this.current = new BloomFilter(expectedMessages, falsePositiveRate);
+        this.previous = new BloomFilter(1, falsePositiveRate);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("Inbox-Loader-");
+        threadFactory.setDaemon(true);
+        this.loader = Executors.newSingleThreadScheduledExecutor(threadFactory);
+
+        this.newCounter = meterRegistry.counter("orders.inbox.messages", "result", "new");
+        this.duplicateCounter = meterRegistry.counter("orders.inbox.messages", "result", "duplicate");
+        this.lookupCounter = meterRegistry.counter("orders.inbox.lookups");
+    }
+
+    public static String messageId(ConsumerRecord<?, ?> record) {
+        return record.topic() + "-" + record.partition() + "@" + record.offset();
+    }
+
+    /**
+     * Whether the message was already applied, looked up on the shard that
+     * owns {@code shardKey}. Call outside the handling transaction.
+     */
+    public boolean isDuplicate(String shardKey, String messageId) {
+        if (!enabled) {
+            return false;
+        }
+
+        if (ready && !isCold(messageId) && !current.mightContain(messageId) && !previous.mightContain(messageId)) {
+            newCounter.increment();
+            return false;
+        }
+
+        lookupCounter.increment();
+        boolean duplicate = shardTemplate.read(shardTemplate.shardFor(shardKey), () -> inboxRepository.existsById(messageId));
+        (duplicate ? duplicateCounter : newCounter).increment();
+        return duplicate;
+    }
+
+    /**
+     * Records the message in the current transaction. Fails with a key
+     * violation if it was recorded concurrently, rolling the handler back.
+     */
+    public void record(String messageId) {
+        if (!enabled) {
+            return;
+        }
+
+        // Added first: if the insert fails, the redelivery must take the lookup
+        current.add(messageId);
+        inboxRepository.insert(messageId, LocalDateTime.now());
+    }
+
+    /**
+     * Another node may have applied messages from these partitions, so they
+     * are looked up until the next load has covered them.
+     */
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (!enabled || partitions.isEmpty()) {
+            return;
+        }
+
+        partitions.forEach(partition -> coldPartitions.add(partition.topic() + "-" + partition.partition()));
+        requestLoad();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            requestLoad();
+        }
+    }
+
+    private void requestLoad() {
+        if (loadQueued.compareAndSet(false, true)) {
+            loader.execute(() -> {
+                // Cleared first, so partitions assigned while loading queue another load
+                loadQueued.set(false);
+                load();
+            });
+        }
+    }
+
+    private boolean isCold(String messageId) {
+        int at = messageId.lastIndexOf('@');
+        return at > 0 && coldPartitions.contains(messageId.substring(0, at));
+    }
+
+    void load() {
+        LocalDateTime since = LocalDateTime.now().minus(retention);
+        Set<String> covered = Set.copyOf(coldPartitions);
+        long loaded = 0;
+
+        try {
+            for (String shard : shardTemplate.shards()) {
+                String after = "";
+
+                while (true) {
+                    String from = after;
+                    List<String> chunk = shardTemplate.read(shard,
+                            () -> inboxRepository.findIdsProcessedSince(since, from, Limit.of(loadChunkSize)));
+
+                    chunk.forEach(current::add);
+                    loaded += chunk.size();
+
+                    if (chunk.size() < loadChunkSize) {
+                        break;
+                    }
+                    after = chunk.get(chunk.size() - 1);
+                }
+            }
+
+            coldPartitions.removeAll(covered);
+            ready = true;
+            log.info("Consumer inbox loaded {} recent message ids", loaded);
+        } catch (RuntimeException e) {
+            log.warn("Consumer inbox failed to load, every delivery is looked up until a retry in {} ms succeeds: {}",
+                    loadRetryMs, e.getMessage());
+            if (!loader.isShutdown()) {
+                loader.schedule(this::requestLoad, loadRetryMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Deletes messages older than the retention window on every shard, and
+     * rotates the filters once per window.
+     */
+    @Scheduled(fixedDelayString = "${orders.inbox.prune-interval-ms:3600000}")
+    public void prune() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (rotatedAt.plus(retention).isBefore(now)) {
+            previous = current;
+            current = new BloomFilter(expectedMessages, falsePositiveRate);
+            rotatedAt = now;
+        }
+
+        try {
+            shardTemplate.forEachShard(() -> {
+                int deleted = inboxRepository.deleteProcessedBefore(now.minus(retention));
+                if (deleted > 0) {
+                    log.info("Pruned {} inbox messages", deleted);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not prune the consumer inbox: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loader.shutdownNow();
+    }
+}
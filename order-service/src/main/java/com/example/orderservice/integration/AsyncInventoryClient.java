@@ -0,0 +1,250 @@
+package com.example.orderservice.integration;
+
+import com.example.orderservice.loadbalancer.InstanceLatencyTracker;
+import com.example.orderservice.port.InventoryPort;
+import com.example.orderservice.port.ReservationResult;
+import com.example.orderservice.port.StockReservation;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Inventory adapter on the JDK {@link HttpClient}. Calls never block the
+ * caller: the instance is resolved through the reactive load balancer and the
+ * HTTP exchange completes on the client's own executor, so many reservations
+ * can be in flight on a handful of threads. The client pools connections and
+ * multiplexes requests when the server speaks HTTP/2.
+ * <p>
+ * Every call reports its latency to the {@link InstanceLatencyTracker} used by
+ * the load balancer. Availability reads are idempotent and may be hedged.
+ * <p>
+ * The blocking methods carry their own circuit breaker: they call the async
+ * ones on {@code this}, which skips the proxy that applies the annotation.
+ */
+public class AsyncInventoryClient implements InventoryPort {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncInventoryClient.class);
+
+    private static final TypeReference<List<ReservationResult>> RESULT_LIST = new TypeReference<>() {};
+    private static final TypeReference<Map<String, Integer>> AVAILABILITY = new TypeReference<>() {};
+
+    private final HttpClient httpClient;
+    private final ReactiveLoadBalancer<ServiceInstance> loadBalancer;
+    private final InstanceLatencyTracker latencyTracker;
+    private final HedgedRequestExecutor hedgedRequestExecutor;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final Semaphore inFlight;
+
+    public AsyncInventoryClient(HttpClient httpClient,
+                                ReactiveLoadBalancer<ServiceInstance> loadBalancer,
+                                InstanceLatencyTracker latencyTracker,
+                                HedgedRequestExecutor hedgedRequestExecutor,
+                                ObjectMapper objectMapper,
+                                Duration timeout,
+                                int maxInFlight) {
+        this.httpClient = httpClient;
+        this.loadBalancer = loadBalancer;
+        this.latencyTracker = latencyTracker;
+        this.hedgedRequestExecutor = hedgedRequestExecutor;
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    @Override
+    @CircuitBreaker(name = "inventoryService",
+    fallbackMethod = "inventoryFallback")
+    public void reserveStock(String itemName, int quantity) {
+        await(reserveStockAsync(itemName, quantity));
+    }
+
+    @Override
+    @CircuitBreaker(name = "inventoryService",
+    fallbackMethod = "batchFallback")
+    public List<ReservationResult> reserveStockBatch(List<StockReservation> reservations) {
+        return await(reserveStockBatchAsync(reservations));
+    }
+
+    @Override
+    @CircuitBreaker(name = "inventoryService",
+    fallbackMethod = "availabilityFallback")
+    public Map<String, Integer> getAvailability(List<String> itemNames) {
+        return await(getAvailabilityAsync(itemNames));
+    }
+
+    @Override
+    @CircuitBreaker(name = "inventoryService",
+    fallbackMethod = "inventoryFallbackAsync")
+    public CompletableFuture<Void> reserveStockAsync(String itemName, int quantity) {
+
+        String path = "/inventory/reserve?itemName=" + URLEncoder.encode(itemName, StandardCharsets.UTF_8)
+                + "&quantity=" + quantity;
+
+        return send("POST", path, HttpRequest.BodyPublishers.noBody())
+                .thenAccept(response -> {
+                    if (response.statusCode() / 100 != 2) {
+                        throw new InventoryReservationException(
+                                "Inventory rejected itemName=" + itemName + " with status " + response.statusCode());
+                    }
+                });
+    }
+
+    @Override
+    @CircuitBreaker(name = "inventoryService",
+    fallbackMethod = "batchFallbackAsync")
+    public CompletableFuture<List<ReservationResult>> reserveStockBatchAsync(List<StockReservation> reservations) {
+
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(reservations);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(new InventoryReservationException("Failed to serialize batch", e));
+        }
+
+        return send("POST", "/inventory/reserve/batch", HttpRequest.BodyPublishers.ofByteArray(body))
+                .thenApply(response -> {
+                    if (response.statusCode() / 100 != 2) {
+                        throw new InventoryReservationException(
+                                "Inventory batch failed with status " + response.statusCode());
+                    }
+                    List<ReservationResult> results = read(response.body(), RESULT_LIST);
+                    if (results.size() != reservations.size()) {
+                        throw new InventoryReservationException("Inventory batch response does not match request size");
+                    }
+                    return results;
+                });
+    }
+
+    @Override
+    @CircuitBreaker(name = "inventoryService",
+    fallbackMethod = "availabilityFallbackAsync")
+    public CompletableFuture<Map<String, Integer>> getAvailabilityAsync(List<String> itemNames) {
+
+        StringBuilder path = new StringBuilder("/inventory/availability");
+        for (int i = 0; i < itemNames.size(); i++) {
+            path.append(i == 0 ? '?' : '&')
+                    .append("itemName=")
+                    .append(URLEncoder.encode(itemNames.get(i), StandardCharsets.UTF_8));
+        }
+
+        return hedgedRequestExecutor.execute(() -> send("GET", path.toString(), HttpRequest.BodyPublishers.noBody()))
+                .thenApply(response -> {
+                    if (response.statusCode() / 100 != 2) {
+                        throw new InventoryReservationException(
+                                "Inventory availability failed with status " + response.statusCode());
+                    }
+                    return read(response.body(), AVAILABILITY);
+                });
+    }
+
+    public void inventoryFallback(String itemName, int quantity, Throwable ex) {
+        log.error("Inventory service unavailable. Fallback triggered.");
+    }
+
+    public List<ReservationResult> batchFallback(List<StockReservation> reservations, Throwable ex) {
+        log.error("Inventory service unavailable. Batch fallback triggered for {} reservations.", reservations.size());
+
+        return reservations.stream()
+                .map(r -> ReservationResult.rejected(r.getItemName(), "Inventory service unavailable"))
+                .toList();
+    }
+
+    public Map<String, Integer> availabilityFallback(List<String> itemNames, Throwable ex) {
+        log.error("Inventory service unavailable. Availability unknown for {} items.", itemNames.size());
+        return Map.of();
+    }
+
+    public CompletableFuture<Void> inventoryFallbackAsync(String itemName, int quantity, Throwable ex) {
+        inventoryFallback(itemName, quantity, ex);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    public CompletableFuture<List<ReservationResult>> batchFallbackAsync(List<StockReservation> reservations, Throwable ex) {
+        return CompletableFuture.completedFuture(batchFallback(reservations, ex));
+    }
+
+    public CompletableFuture<Map<String, Integer>> availabilityFallbackAsync(List<String> itemNames, Throwable ex) {
+        return CompletableFuture.completedFuture(availabilityFallback(itemNames, ex));
+    }
+
+    private CompletableFuture<HttpResponse<byte[]>> send(String method, String path, HttpRequest.BodyPublisher body) {
+
+        if (!inFlight.tryAcquire()) {
+            return CompletableFuture.failedFuture(
+                    new InventoryReservationException("Too many in-flight inventory calls"));
+        }
+
+        return chooseInstance()
+                .thenCompose(instance -> {
+                    HttpRequest request = HttpRequest.newBuilder(instance.getUri().resolve(path))
+                            .timeout(timeout)
+                            .header("Content-Type", "application/json")
+                            .method(method, body)
+                            .build();
+
+                    long start = latencyTracker.start(instance);
+                    return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                            .whenComplete((response, ex) -> latencyTracker.complete(
+                                    instance, start, ex == null && response.statusCode() < 500));
+                })
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((response, ex) -> inFlight.release());
+    }
+
+    private CompletableFuture<ServiceInstance> chooseInstance() {
+        return Mono.from(loadBalancer.choose())
+                .toFuture()
+                .thenApply(response -> {
+                    if (response == null || !response.hasServer()) {
+                        throw new InventoryReservationException("No inventory-service instance available");
+                    }
+                    return response.getServer();
+                });
+    }
+
+    private <T> T read(byte[] body, TypeReference<T> type) {
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (IOException e) {
+            throw new InventoryReservationException("Failed to read inventory response", e);
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof TimeoutException) {
+                throw new InventoryReservationException("Inventory call timed out", cause);
+            }
+            throw new InventoryReservationException("Inventory call failed", cause);
+        }
+    }
+}
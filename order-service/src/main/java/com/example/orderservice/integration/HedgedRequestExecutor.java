@@ -0,0 +1,148 @@
+package com.example.orderservice.integration;
+
+import com.example.orderservice.loadbalancer.InstanceLatencyTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends a second copy of an idempotent call when the first has not answered
+ * within the observed p95 latency, and completes with whichever succeeds
+ * first. Hedges are paid for from a token budget refilled by a fraction of
+ * every primary call, so hedging can add at most that fraction of extra load.
+ * Only use this for calls that are safe to repeat.
+ */
+public class HedgedRequestExecutor {
+
+    private final boolean enabled;
+    private final InstanceLatencyTracker tracker;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final double budgetRatio;
+    private final double maxTokens;
+    private final ScheduledExecutorService scheduler;
+
+    private final Counter hedgesSent;
+    private final Counter hedgesSuppressed;
+
+    private double tokens;
+
+    public HedgedRequestExecutor(boolean enabled,
+                                 InstanceLatencyTracker tracker,
+                                 Duration minDelay,
+                                 Duration maxDelay,
+                                 double budgetRatio,
+                                 int maxTokens,
+                                 MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.tracker = tracker;
+        this.minDelayNanos = minDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.budgetRatio = budgetRatio;
+        this.maxTokens = maxTokens;
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("Inventory-Hedge-");
+        threadFactory.setDaemon(true);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+
+        this.hedgesSent = meterRegistry.counter("inventory.hedge.sent.count");
+        this.hedgesSuppressed = meterRegistry.counter("inventory.hedge.suppressed.count");
+    }
+
+    public <T> CompletableFuture<T> execute(Supplier<CompletableFuture<T>> call) {
+
+        if (!enabled) {
+            return call.get();
+        }
+
+        deposit();
+
+        Attempts<T> attempts = new Attempts<>();
+        attempts.launch(call);
+
+        ScheduledFuture<?> hedgeTimer = scheduler.schedule(() -> {
+            if (attempts.result.isDone()) {
+                return;
+            }
+            if (!withdraw()) {
+                hedgesSuppressed.increment();
+                return;
+            }
+            hedgesSent.increment();
+            attempts.launch(call);
+        }, hedgeDelayNanos(), TimeUnit.NANOSECONDS);
+
+        attempts.result.whenComplete((value, ex) -> {
+            hedgeTimer.cancel(false);
+            attempts.cancelAll();
+        });
+        return attempts.result;
+    }
+
+    long hedgeDelayNanos() {
+        Duration p95 = tracker.p95();
+        if (p95 == null) {
+            return maxDelayNanos;
+        }
+        return Math.min(maxDelayNanos, Math.max(minDelayNanos, p95.toNanos()));
+    }
+
+    private synchronized void deposit() {
+        tokens = Math.min(maxTokens, tokens + budgetRatio);
+    }
+
+    private synchronized boolean withdraw() {
+        if (tokens < 1.0) {
+            return false;
+        }
+        tokens -= 1.0;
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private static final class Attempts<T> {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final List<CompletableFuture<T>> inFlight = new CopyOnWriteArrayList<>();
+        final AtomicInteger pending = new AtomicInteger();
+
+        void launch(Supplier<CompletableFuture<T>> call) {
+            pending.incrementAndGet();
+
+            CompletableFuture<T> attempt;
+            try {
+                attempt = call.get();
+            } catch (RuntimeException ex) {
+                attempt = CompletableFuture.failedFuture(ex);
+            }
+            inFlight.add(attempt);
+
+            attempt.whenComplete((value, ex) -> {
+                if (ex == null) {
+                    result.complete(value);
+                } else if (pending.decrementAndGet() == 0) {
+                    result.completeExceptionally(ex);
+                }
+            });
+        }
+
+        void cancelAll() {
+            inFlight.forEach(attempt -> attempt.cancel(true));
+        }
+    }
+}
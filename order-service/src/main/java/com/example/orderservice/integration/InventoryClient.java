@@ -1,12 +1,19 @@
 package com.example.orderservice.integration;
 
 import com.example.orderservice.port.InventoryPort;
+import com.example.orderservice.port.ReservationResult;
+import com.example.orderservice.port.StockReservation;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Map;
+
 @Component
+@ConditionalOnProperty(name = "inventory.client.type", havingValue = "feign", matchIfMissing = true)
 public class InventoryClient implements InventoryPort {
 
     private final InventoryFeignClient feignClient;
@@ -25,7 +32,41 @@ public class InventoryClient implements InventoryPort {
         feignClient.reserveStock(itemName, quantity);
     }
 
+    @Override
+    @CircuitBreaker(name = "inventoryService",
+    fallbackMethod = "batchFallback")
+    public List<ReservationResult> reserveStockBatch(List<StockReservation> reservations) {
+
+        List<ReservationResult> results = feignClient.reserveStockBatch(reservations);
+
+        if (results == null || results.size() != reservations.size()) {
+            throw new InventoryReservationException("Inventory batch response does not match request size");
+        }
+        return results;
+    }
+
+    @Override
+    @CircuitBreaker(name = "inventoryService",
+    fallbackMethod = "availabilityFallback")
+    public Map<String, Integer> getAvailability(List<String> itemNames) {
+
+        return feignClient.getAvailability(itemNames);
+    }
+
     public void inventoryFallback(String itemName, int quantity, Throwable ex) {
         log.error("Inventory service unavailable. Fallback triggered.");
     }
+
+    public List<ReservationResult> batchFallback(List<StockReservation> reservations, Throwable ex) {
+        log.error("Inventory service unavailable. Batch fallback triggered for {} reservations.", reservations.size());
+
+        return reservations.stream()
+                .map(r -> ReservationResult.rejected(r.getItemName(), "Inventory service unavailable"))
+                .toList();
+    }
+
+    public Map<String, Integer> availabilityFallback(List<String> itemNames, Throwable ex) {
+        log.error("Inventory service unavailable. Availability unknown for {} items.", itemNames.size());
+        return Map.of();
+    }
 }
@@ -1,9 +1,16 @@
 package com.example.orderservice.integration;
 
+import com.example.orderservice.port.ReservationResult;
+import com.example.orderservice.port.StockReservation;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
+import java.util.Map;
+
 @FeignClient(name = "inventory-service")
 public interface InventoryFeignClient {
 
@@ -12,4 +19,10 @@ public interface InventoryFeignClient {
             @RequestParam("itemName") String itemName,
             @RequestParam("quantity") int quantity
     );
+
+    @PostMapping("/inventory/reserve/batch")
+    List<ReservationResult> reserveStockBatch(@RequestBody List<StockReservation> reservations);
+
+    @GetMapping("/inventory/availability")
+    Map<String, Integer> getAvailability(@RequestParam("itemName") List<String> itemNames);
 }
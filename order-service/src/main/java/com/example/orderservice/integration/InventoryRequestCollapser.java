@@ -0,0 +1,227 @@
+package com.example.orderservice.integration;
+
+import com.example.orderservice.port.InventoryPort;
+import com.example.orderservice.port.ReservationResult;
+import com.example.orderservice.port.StockReservation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Collapses concurrent single-item reservations into one batch call on the
+ * delegate port. A batch is sent when {@code maxBatchSize} reservations are
+ * waiting or when the first of them has waited for {@code window}, whichever
+ * comes first. Each caller receives its own result from the batch.
+ */
+public class InventoryRequestCollapser implements InventoryPort {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryRequestCollapser.class);
+
+    private final InventoryPort delegate;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final long callTimeoutMillis;
+    private final ScheduledExecutorService scheduler;
+
+    private final Counter requestCounter;
+    private final Counter batchCounter;
+    private final DistributionSummary batchSize;
+
+    private final Object lock = new Object();
+    private List<PendingReservation> pending;
+    private ScheduledFuture<?> scheduledFlush;
+
+    public InventoryRequestCollapser(InventoryPort delegate,
+                                     int maxBatchSize,
+                                     Duration window,
+                                     Duration callTimeout,
+                                     int dispatchThreads,
+                                     MeterRegistry meterRegistry) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be at least 1");
+        }
+        this.delegate = delegate;
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = window.toNanos();
+        this.callTimeoutMillis = callTimeout.toMillis();
+        this.pending = new ArrayList<>(maxBatchSize);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("Inventory-Collapser-");
+        threadFactory.setDaemon(true);
+        this.scheduler = Executors.newScheduledThreadPool(dispatchThreads, threadFactory);
+
+        this.requestCounter = meterRegistry.counter("inventory.collapser.requests.count");
+        this.batchCounter = meterRegistry.counter("inventory.collapser.batches.count");
+        this.batchSize = DistributionSummary.builder("inventory.collapser.batch.size")
+                .description("Reservations sent per batch call")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void reserveStock(String itemName, int quantity) {
+
+        ReservationResult result;
+        try {
+            result = submit(itemName, quantity).get(callTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InventoryReservationException("Interrupted while reserving itemName=" + itemName, e);
+        } catch (TimeoutException e) {
+            throw new InventoryReservationException("Timed out reserving itemName=" + itemName, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new InventoryReservationException("Inventory reservation failed for itemName=" + itemName, e.getCause());
+        }
+
+        if (!result.isReserved()) {
+            throw new InventoryReservationException(
+                    "Inventory rejected itemName=" + itemName + ": " + result.getReason());
+        }
+    }
+
+    @Override
+    public List<ReservationResult> reserveStockBatch(List<StockReservation> reservations) {
+        return delegate.reserveStockBatch(reservations);
+    }
+
+    @Override
+    public Map<String, Integer> getAvailability(List<String> itemNames) {
+        return delegate.getAvailability(itemNames);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Integer>> getAvailabilityAsync(List<String> itemNames) {
+        return delegate.getAvailabilityAsync(itemNames);
+    }
+
+    @Override
+    public CompletableFuture<Void> reserveStockAsync(String itemName, int quantity) {
+        return submit(itemName, quantity).thenAccept(result -> {
+            if (!result.isReserved()) {
+                throw new InventoryReservationException(
+                        "Inventory rejected itemName=" + itemName + ": " + result.getReason());
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<ReservationResult>> reserveStockBatchAsync(List<StockReservation> reservations) {
+        return delegate.reserveStockBatchAsync(reservations);
+    }
+
+    /**
+     * Queues a reservation for the next batch. The returned future completes
+     * with this reservation's result, or exceptionally if the batch call failed.
+     */
+    public CompletableFuture<ReservationResult> submit(String itemName, int quantity) {
+
+        PendingReservation reservation = new PendingReservation(new StockReservation(itemName, quantity));
+        List<PendingReservation> ready = null;
+
+        synchronized (lock) {
+            pending.add(reservation);
+
+            if (pending.size() >= maxBatchSize) {
+                ready = drain();
+            } else if (pending.size() == 1) {
+                scheduledFlush = scheduler.schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        requestCounter.increment();
+
+        if (ready != null) {
+            List<PendingReservation> batch = ready;
+            scheduler.execute(() -> dispatch(batch));
+        }
+        return reservation.future;
+    }
+
+    void flush() {
+        List<PendingReservation> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = drain();
+        }
+        dispatch(batch);
+    }
+
+    // caller must hold lock
+    private List<PendingReservation> drain() {
+        List<PendingReservation> batch = pending;
+        pending = new ArrayList<>(maxBatchSize);
+
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(List<PendingReservation> batch) {
+
+        batchCounter.increment();
+        batchSize.record(batch.size());
+
+        List<StockReservation> requests = batch.stream()
+                .map(p -> p.request)
+                .toList();
+
+        CompletableFuture<List<ReservationResult>> call;
+        try {
+            call = delegate.reserveStockBatchAsync(requests);
+        } catch (RuntimeException ex) {
+            call = CompletableFuture.failedFuture(ex);
+        }
+
+        call.whenComplete((results, ex) -> {
+            if (ex == null && (results == null || results.size() != batch.size())) {
+                ex = new InventoryReservationException("Inventory batch response does not match request size");
+            }
+            if (ex != null) {
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                log.error("Inventory batch of {} reservations failed", batch.size(), cause);
+                batch.forEach(p -> p.future.completeExceptionally(cause));
+                return;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future.complete(results.get(i));
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        scheduler.shutdown();
+    }
+
+    private static final class PendingReservation {
+        final StockReservation request;
+        final CompletableFuture<ReservationResult> future = new CompletableFuture<>();
+
+        PendingReservation(StockReservation request) {
+            this.request = request;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.orderservice.integration;
+
+public class InventoryReservationException extends RuntimeException {
+
+    public InventoryReservationException(String message) {
+        super(message);
+    }
+
+    public InventoryReservationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.orderservice.json;
+
+import com.example.orderservice.dto.OrderResponse;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Writes {@link OrderResponse} and {@code Page<OrderResponse>} straight to the
+ * response stream with a streaming generator: field names are pre-encoded once,
+ * there is no bean introspection or serializer lookup per response, and no
+ * intermediate String or byte[] is built. Pages use the compact envelope
+ * {@code {"content":[...],"page":{"size","number","totalElements","totalPages"}}},
+ * the same shape Spring Data writes with spring.data.web.pageable.serialization-mode=via-dto,
+ * so turning this converter off does not change the API.
+ *
+ * Write-only; request bodies still go through the Jackson converter.
+ */
+public class OrderJsonMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private static final SerializableString ORDER_ID = new SerializedString("orderId");
+    private static final SerializableString ITEM_NAME = new SerializedString("itemName");
+    private static final SerializableString QUANTITY = new SerializedString("quantity");
+    private static final SerializableString IDEMPOTENCY_KEY = new SerializedString("idempotencyKey");
+    private static final SerializableString VERSION = new SerializedString("version");
+
+    private static final SerializableString CONTENT = new SerializedString("content");
+    private static final SerializableString PAGE = new SerializedString("page");
+    private static final SerializableString SIZE = new SerializedString("size");
+    private static final SerializableString NUMBER = new SerializedString("number");
+    private static final SerializableString TOTAL_ELEMENTS = new SerializedString("totalElements");
+    private static final SerializableString TOTAL_PAGES = new SerializedString("totalPages");
+
+    private final JsonFactory jsonFactory;
+
+    public OrderJsonMessageConverter(JsonFactory jsonFactory) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.jsonFactory = jsonFactory;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return OrderResponse.class == clazz;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        if (OrderResponse.class == clazz) {
+            return true;
+        }
+        if (!Page.class.isAssignableFrom(clazz)) {
+            return false;
+        }
+
+        ResolvableType element = ResolvableType.forType(type != null ? type : clazz).as(Page.class).getGeneric(0);
+        return element.resolve() == OrderResponse.class;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        // Closing the generator flushes it; the servlet output stream stays open for the container
+        try (JsonGenerator generator = jsonFactory.createGenerator(StreamUtils.nonClosing(outputMessage.getBody()), JsonEncoding.UTF8)) {
+            if (body instanceof Page<?> page) {
+                writePage(generator, page);
+            } else {
+                writeOrder(generator, (OrderResponse) body);
+            }
+        }
+    }
+
+    static void writeOrder(JsonGenerator generator, OrderResponse order) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ORDER_ID);
+        generator.writeString(order.getOrderId());
+        generator.writeFieldName(ITEM_NAME);
+        generator.writeString(order.getItemName());
+        generator.writeFieldName(QUANTITY);
+        generator.writeNumber(order.getQuantity());
+        generator.writeFieldName(IDEMPOTENCY_KEY);
+        generator.writeString(order.getIdempotencyKey());
+        generator.writeFieldName(VERSION);
+        if (order.getVersion() != null) {
+            generator.writeNumber(order.getVersion());
+        } else {
+            generator.writeNull();
+        }
+        generator.writeEndObject();
+    }
+
+    static void writePage(JsonGenerator generator, Page<?> page) throws IOException {
+        generator.writeStartObject();
+
+        generator.writeFieldName(CONTENT);
+        generator.writeStartArray();
+        for (Object order : page.getContent()) {
+            writeOrder(generator, (OrderResponse) order);
+        }
+        generator.writeEndArray();
+
+        generator.writeFieldName(PAGE);
+        generator.writeStartObject();
+        generator.writeFieldName(SIZE);
+        generator.writeNumber(page.getSize());
+        generator.writeFieldName(NUMBER);
+        generator.writeNumber(page.getNumber());
+        generator.writeFieldName(TOTAL_ELEMENTS);
+        generator.writeNumber(page.getTotalElements());
+        generator.writeFieldName(TOTAL_PAGES);
+        generator.writeNumber(page.getTotalPages());
+        generator.writeEndObject();
+
+        generator.writeEndObject();
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Order responses are write-only", inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Order responses are write-only", inputMessage);
+    }
+}
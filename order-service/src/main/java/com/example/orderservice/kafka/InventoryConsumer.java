@@ -2,18 +2,31 @@ package com.example.orderservice.kafka;
 
 import com.example.orderservice.event.InventoryFailedEvent;
 import com.example.orderservice.event.InventoryReservedEvent;
+import com.example.orderservice.inbox.ConsumerInbox;
+import com.example.orderservice.scheduler.OrderDeadlineTracker;
 import com.example.orderservice.service.OrderService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
 @Service
 public class InventoryConsumer {
 
+    private static final Logger log = LoggerFactory.getLogger(InventoryConsumer.class);
+
     private final OrderService orderService;
 
+    private final OrderDeadlineTracker deadlineTracker;
+
+    private final ConsumerInbox inbox;
+
 
-    public InventoryConsumer(OrderService orderService) {
+    public InventoryConsumer(OrderService orderService, OrderDeadlineTracker deadlineTracker, ConsumerInbox inbox) {
         this.orderService = orderService;
+        this.deadlineTracker = deadlineTracker;
+        this.inbox = inbox;
     }
 
     @KafkaListener(
@@ -23,8 +36,16 @@ public class InventoryConsumer {
         "spring.json.value.default.type=com.example.orderservice.event.InventoryReservedEvent"
     }
     )
-    public void handleSuccess(InventoryReservedEvent event) {
-        orderService.markOrderCompleted(event.getOrderId());
+    public void handleSuccess(ConsumerRecord<String, InventoryReservedEvent> record) {
+        String orderId = record.value().getOrderId();
+        String messageId = ConsumerInbox.messageId(record);
+
+        if (inbox.isDuplicate(orderId, messageId)) {
+            log.debug("Skipping redelivered {} for orderId={}", messageId, orderId);
+        } else {
+            orderService.markOrderCompleted(orderId, messageId);
+        }
+        deadlineTracker.cancel(orderId);
     }
 
 
@@ -35,8 +56,16 @@ public class InventoryConsumer {
         "spring.json.value.default.type=com.example.orderservice.event.InventoryFailedEvent"
     }
     )
-    public void handleFailure(InventoryFailedEvent event) {
-        orderService.markOrderFailed(event.getOrderId());
+    public void handleFailure(ConsumerRecord<String, InventoryFailedEvent> record) {
+        String orderId = record.value().getOrderId();
+        String messageId = ConsumerInbox.messageId(record);
+
+        if (inbox.isDuplicate(orderId, messageId)) {
+            log.debug("Skipping redelivered {} for orderId={}", messageId, orderId);
+        } else {
+            orderService.markOrderFailed(orderId, messageId, record.value().getReason());
+        }
+        deadlineTracker.cancel(orderId);
     }
 
 }
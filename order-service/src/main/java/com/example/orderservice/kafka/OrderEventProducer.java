@@ -1,6 +1,7 @@
 package com.example.orderservice.kafka;
 
 import com.example.orderservice.event.OrderCreatedEvent;
+import com.example.orderservice.event.OrderStatusChangedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -26,4 +27,8 @@ public class OrderEventProducer {
         log.info("Order event sent to Kafka: {}", event.getOrderId());
         return send;
     }
+
+    public CompletableFuture<SendResult<String, Object>> sendOrderStatusChanged(OrderStatusChangedEvent event) {
+        return kafkaTemplate.send("order-status-changed", event.getOrderId(), event);
+    }
 }
@@ -0,0 +1,35 @@
+package com.example.orderservice.kafka;
+
+import com.example.orderservice.dto.OrderStatusResponse;
+import com.example.orderservice.event.OrderStatusChangedEvent;
+import com.example.orderservice.stream.OrderStatusHub;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Receives every node's status changes, under a consumer group unique to this
+ * node, and passes them to the local status subscribers. Only changes made
+ * after the node started matter, so it starts from the latest offset.
+ */
+@Service
+public class OrderStatusFanoutConsumer {
+
+    private final OrderStatusHub hub;
+
+    public OrderStatusFanoutConsumer(OrderStatusHub hub) {
+        this.hub = hub;
+    }
+
+    @KafkaListener(
+    topics = "order-status-changed",
+    groupId = "${orders.status-stream.group-id}",
+    autoStartup = "${orders.status-stream.fanout-enabled:true}",
+    properties = {
+        "spring.json.value.default.type=com.example.orderservice.event.OrderStatusChangedEvent",
+        "auto.offset.reset=latest"
+    }
+    )
+    public void handleStatusChanged(OrderStatusChangedEvent event) {
+        hub.publish(new OrderStatusResponse(event.getOrderId(), event.getStatus(), event.getVersion()));
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.orderservice.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows observed latency, after the gradient
+ * algorithm: a slow moving average of request latency is the baseline, and
+ * each window of samples moves the limit by baseline / recent latency (capped
+ * to [0.5, 1]) plus a small headroom of sqrt(limit). When latency rises
+ * because the database is queueing, the limit shrinks until it stops rising;
+ * once latency returns to the baseline the headroom grows it back. The limit
+ * only grows while at least half of it is in use, so an idle service does not
+ * drift to the maximum.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double BASELINE_SAMPLES = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+    private final int minWindowSamples;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    private volatile double limit;
+
+    // Guarded by this
+    private double baselineNanos;
+    private long windowStart;
+    private long windowSumNanos;
+    private int windowSamples;
+    private int windowMaxInflight;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long windowNanos, int minWindowSamples) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowNanos = windowNanos;
+        this.minWindowSamples = minWindowSamples;
+    }
+
+    /**
+     * Takes a slot if the priority's share of the limit allows it. A caller
+     * that gets true must call {@link #release}.
+     */
+    public boolean tryAcquire(RequestPriority priority) {
+        int allowed = Math.max(1, (int) (limit * priority.getShare()));
+
+        while (true) {
+            int current = inflight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long startNanos, long endNanos) {
+        int inflightAtEnd = inflight.getAndDecrement();
+        onSample(endNanos - startNanos, inflightAtEnd, endNanos);
+    }
+
+    synchronized void onSample(long latencyNanos, int inflightAtEnd, long now) {
+        if (windowSamples == 0) {
+            windowStart = now;
+        }
+        windowSumNanos += latencyNanos;
+        windowSamples++;
+        windowMaxInflight = Math.max(windowMaxInflight, inflightAtEnd);
+
+        if (windowSamples < minWindowSamples || now - windowStart < windowNanos) {
+            return;
+        }
+
+        double recent = (double) windowSumNanos / windowSamples;
+        if (baselineNanos == 0) {
+            baselineNanos = recent;
+        } else {
+            baselineNanos += (recent - baselineNanos) * Math.min(1.0, windowSamples / BASELINE_SAMPLES);
+            // Let the baseline follow a lasting drop instead of holding the limit down
+            if (baselineNanos > 2 * recent) {
+                baselineNanos *= 0.95;
+            }
+        }
+
+        double current = limit;
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * baselineNanos / recent));
+        double target = current * gradient + Math.sqrt(current);
+
+        if (target > current && windowMaxInflight < current / 2) {
+            target = current;
+        }
+
+        double next = current * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+
+        windowSumNanos = 0;
+        windowSamples = 0;
+        windowMaxInflight = 0;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+}
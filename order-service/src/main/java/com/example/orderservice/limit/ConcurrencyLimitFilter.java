@@ -0,0 +1,156 @@
+package com.example.orderservice.limit;
+
+import com.example.orderservice.error.ApiError;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sheds order API requests with 503 and Retry-After once the adaptive
+ * concurrency limit is reached, ahead of security and before anything takes
+ * a database connection. Writes may use the whole limit, single-order reads
+ * 90% of it and pages, searches and stats 70%, so reads give way to writes
+ * first. Status streams and long polls are long-lived by design and are not
+ * counted. Async requests hold their slot until they complete.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final String retryAfterSeconds;
+
+    private final Map<RequestPriority, Counter> rejectedCounters = new EnumMap<>(RequestPriority.class);
+
+    public ConcurrencyLimitFilter(ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${orders.concurrency-limit.enabled:true}") boolean enabled,
+                                  @Value("${orders.concurrency-limit.initial:50}") int initialLimit,
+                                  @Value("${orders.concurrency-limit.min:10}") int minLimit,
+                                  @Value("${orders.concurrency-limit.max:400}") int maxLimit,
+                                  @Value("${orders.concurrency-limit.window-ms:250}") long windowMs,
+                                  @Value("${orders.concurrency-limit.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.retryAfterSeconds = Integer.toString(retryAfterSeconds);
+        this.limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, TimeUnit.MILLISECONDS.toNanos(windowMs), 10);
+
+        meterRegistry.gauge("orders.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit);
+        meterRegistry.gauge("orders.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInflight);
+        for (RequestPriority priority : RequestPriority.values()) {
+            rejectedCounters.put(priority, meterRegistry.counter("orders.concurrency.rejected", "priority", priority.name()));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || priorityOf(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RequestPriority priority = priorityOf(request);
+        if (!limiter.tryAcquire(priority)) {
+            rejectedCounters.get(priority).increment();
+            reject(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingListener(start, released));
+            } else if (released.compareAndSet(false, true)) {
+                limiter.release(start, System.nanoTime());
+            }
+        }
+    }
+
+    static RequestPriority priorityOf(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/reactive")) {
+            path = path.substring("/reactive".length());
+        }
+        if (!path.startsWith("/orders") || path.endsWith("/events") || path.endsWith("/status")) {
+            return null;
+        }
+
+        if (!"GET".equals(request.getMethod())) {
+            return RequestPriority.HIGH;
+        }
+
+        // /orders/{id}, but not /orders/search, /orders/items or /orders/stats
+        String rest = path.substring("/orders".length());
+        boolean singleOrder = rest.length() > 1 && rest.indexOf('/', 1) < 0
+                && !rest.equals("/search") && !rest.equals("/items") && !rest.equals("/stats");
+        return singleOrder ? RequestPriority.NORMAL : RequestPriority.LOW;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ApiError(503, "Server is at capacity, please retry", request.getRequestURI()));
+    }
+
+    private class ReleasingListener implements AsyncListener {
+
+        private final long start;
+        private final AtomicBoolean released;
+
+        ReleasingListener(long start, AtomicBoolean released) {
+            this.start = start;
+            this.released = released;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(start, System.nanoTime());
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            onComplete(event);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            onComplete(event);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.orderservice.limit;
+
+/**
+ * How much of the concurrency limit a request may use. Lower priorities are
+ * shed first as the service approaches its limit.
+ */
+public enum RequestPriority {
+
+    // Order writes
+    HIGH(1.0),
+
+    // Single-order reads
+    NORMAL(0.9),
+
+    // Pages, searches and stats
+    LOW(0.7);
+
+    private final double share;
+
+    RequestPriority(double share) {
+        this.share = share;
+    }
+
+    public double getShare() {
+        return share;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.orderservice.loadbalancer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-instance peak-EWMA latency and outstanding request counts for
+ * inventory-service, plus a service-wide latency timer whose p95 drives
+ * the hedging delay.
+ */
+@Component
+public class InstanceLatencyTracker {
+
+    private static final long DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final long FAILURE_PENALTY_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final double UNPROBED_PENALTY = FAILURE_PENALTY_NANOS;
+
+    private final ConcurrentMap<String, InstanceStats> stats = new ConcurrentHashMap<>();
+    private final Timer latency;
+
+    public InstanceLatencyTracker(MeterRegistry meterRegistry) {
+        this.latency = Timer.builder("inventory.client.latency")
+                .description("Observed inventory-service call latency")
+                .publishPercentiles(0.95)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Marks a call to the instance as started and returns its start timestamp.
+     */
+    public long start(ServiceInstance instance) {
+        stats(instance).outstanding.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    public void complete(ServiceInstance instance, long startNanos, boolean success) {
+        long now = System.nanoTime();
+        long rtt = now - startNanos;
+
+        InstanceStats instanceStats = stats(instance);
+        instanceStats.outstanding.decrementAndGet();
+        instanceStats.observe(success ? rtt : Math.max(rtt, FAILURE_PENALTY_NANOS), now);
+
+        if (success) {
+            latency.record(rtt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Peak-EWMA cost: decayed latency estimate weighted by the requests
+     * already waiting on the instance. Lower is better.
+     */
+    public double cost(ServiceInstance instance) {
+        InstanceStats instanceStats = stats(instance);
+        int pending = instanceStats.outstanding.get();
+        double ewma = instanceStats.decayed(System.nanoTime());
+
+        if (ewma == 0.0) {
+            return pending == 0 ? 0.0 : UNPROBED_PENALTY + pending;
+        }
+        return ewma * (pending + 1);
+    }
+
+    public int outstanding(ServiceInstance instance) {
+        return stats(instance).outstanding.get();
+    }
+
+    /**
+     * p95 of recent successful calls, or {@code null} before any were seen.
+     */
+    public Duration p95() {
+        for (ValueAtPercentile value : latency.takeSnapshot().percentileValues()) {
+            if (value.percentile() == 0.95 && value.value() > 0) {
+                return Duration.ofNanos((long) value.value(TimeUnit.NANOSECONDS));
+            }
+        }
+        return null;
+    }
+
+    private InstanceStats stats(ServiceInstance instance) {
+        return stats.computeIfAbsent(key(instance), k -> new InstanceStats());
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getInstanceId() != null
+                ? instance.getInstanceId()
+                : instance.getHost() + ":" + instance.getPort();
+    }
+
+    private static final class InstanceStats {
+        final AtomicInteger outstanding = new AtomicInteger();
+        private double ewma;
+        private long lastUpdate = System.nanoTime();
+
+        synchronized void observe(long rtt, long now) {
+            if (rtt > ewma) {
+                ewma = rtt;
+            } else {
+                double w = Math.exp(-(now - lastUpdate) / (double) DECAY_NANOS);
+                ewma = ewma * w + rtt * (1 - w);
+            }
+            lastUpdate = now;
+        }
+
+        synchronized double decayed(long now) {
+            return ewma * Math.exp(-(now - lastUpdate) / (double) DECAY_NANOS);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.orderservice.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Load balancer configuration for the inventory-service child context.
+ * Deliberately not a {@code @Configuration} so component scanning does not
+ * register these beans in the main application context.
+ */
+public class InventoryLoadBalancerConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> inventoryLoadBalancer(Environment environment,
+                                                                      LoadBalancerClientFactory loadBalancerClientFactory,
+                                                                      InstanceLatencyTracker tracker) {
+
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        String strategy = environment.getProperty("inventory.loadbalancer.strategy", "peak-ewma");
+
+        var supplierProvider = loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class);
+
+        return switch (strategy) {
+            case "round-robin" -> new RoundRobinLoadBalancer(supplierProvider, serviceId);
+            case "least-outstanding" -> new LatencyAwareLoadBalancer(
+                    supplierProvider, serviceId, tracker, LatencyAwareLoadBalancer.Strategy.LEAST_OUTSTANDING);
+            case "peak-ewma" -> new LatencyAwareLoadBalancer(
+                    supplierProvider, serviceId, tracker, LatencyAwareLoadBalancer.Strategy.PEAK_EWMA);
+            default -> throw new IllegalArgumentException("Unknown inventory.loadbalancer.strategy: " + strategy);
+        };
+    }
+
+    @Bean
+    public LatencyTrackingLifecycle latencyTrackingLifecycle(InstanceLatencyTracker tracker) {
+        return new LatencyTrackingLifecycle(tracker);
+    }
+}
@@ -12,7 +12,9 @@ public class OrderMapper {
                 order.getOrderId(),
                 order.getItemName(),
                 order.getQuantity(),
-                order.getIdempotencyKey()
+                order.getIdempotencyKey(),
+                order.getVersion(),
+                order.getUpdatedAt()
         );
 
     }
@@ -0,0 +1,37 @@
+package com.example.orderservice.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A consumed Kafka record, written in the same transaction as its effect so a
+ * redelivery can be recognised and skipped. Pruned after the retention window.
+ */
+@Entity
+@Table(name = "inbox_messages",
+        indexes = @Index(name = "idx_inbox_processed_at", columnList = "processedAt")
+)
+public class InboxMessage {
+
+    @Id
+    private String messageId;
+
+    private LocalDateTime processedAt;
+
+    public InboxMessage(String messageId, LocalDateTime processedAt) {
+        this.messageId = messageId;
+        this.processedAt = processedAt;
+    }
+
+    public InboxMessage() {
+    }
+
+    public String getMessageId() {
+        return messageId;
+    }
+
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+}
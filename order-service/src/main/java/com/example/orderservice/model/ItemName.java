@@ -0,0 +1,27 @@
+package com.example.orderservice.model;
+
+import jakarta.persistence.*;
+
+/**
+ * One row per distinct item name ordered on this shard; what prefix and fuzzy
+ * item search run against on Postgres, through a trigram GIN index.
+ */
+@Entity
+@Table(name = "item_names")
+public class ItemName {
+
+    @Id
+    @Column(name = "item_name")
+    private String itemName;
+
+    public ItemName(String itemName) {
+        this.itemName = itemName;
+    }
+
+    public ItemName() {
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+}
@@ -8,7 +8,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table (name = "orders",
         indexes = {
-            @Index(name = "idx_item_name", columnList = "itemName")
+            @Index(name = "idx_item_name", columnList = "itemName"),
+            @Index(name = "idx_status_updated_at", columnList = "status, updatedAt")
         }
 )
 public class Order {
@@ -73,6 +74,10 @@ public class Order {
         return idempotencyKey;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public String getOrderId() {
         return orderId;
     }
@@ -98,6 +103,9 @@ public class Order {
     }
 
     public void setStatus(OrderStatus status) {
+        if (this.status != null && this.status != status && !this.status.canTransitionTo(status)) {
+            throw new IllegalStateException("Order " + orderId + " cannot move from " + this.status + " to " + status);
+        }
         this.status = status;
     }
 
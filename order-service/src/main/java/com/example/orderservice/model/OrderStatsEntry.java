@@ -0,0 +1,70 @@
+package com.example.orderservice.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Checkpointed order count and quantity sum for one status or one item.
+ */
+@Entity
+@Table(name = "order_stats")
+public class OrderStatsEntry {
+
+    public static final String STATUS = "status";
+    public static final String ITEM = "item";
+
+    @Id
+    private String id;
+
+    private String dimension;
+
+    @Column(name = "stat_key")
+    private String key;
+
+    private long orderCount;
+
+    private long quantity;
+
+    private LocalDateTime updatedAt;
+
+    public OrderStatsEntry(String dimension, String key, long orderCount, long quantity) {
+        this.id = idOf(dimension, key);
+        this.dimension = dimension;
+        this.key = key;
+        this.orderCount = orderCount;
+        this.quantity = quantity;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public OrderStatsEntry() {
+    }
+
+    public static String idOf(String dimension, String key) {
+        return dimension + ":" + key;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getDimension() {
+        return dimension;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
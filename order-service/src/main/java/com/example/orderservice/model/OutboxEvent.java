@@ -6,7 +6,9 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "outbox_events")
+@Table(name = "outbox_events",
+        indexes = @Index(name = "idx_outbox_type_created_at", columnList = "eventType, createdAt, id")
+)
 public class OutboxEvent {
 
     @Id
@@ -63,6 +65,10 @@ public class OutboxEvent {
         return payload;
     }
 
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
     public boolean isProcessed() {
         return processed;
     }
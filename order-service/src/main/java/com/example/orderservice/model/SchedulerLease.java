@@ -0,0 +1,37 @@
+package com.example.orderservice.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "scheduler_leases")
+public class SchedulerLease {
+
+    @Id
+    private String name;
+
+    private String owner;
+
+    private LocalDateTime lockedUntil;
+
+    public SchedulerLease(String name) {
+        this.name = name;
+        this.lockedUntil = LocalDateTime.of(1970, 1, 1, 0, 0);
+    }
+
+    public SchedulerLease() {
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public LocalDateTime getLockedUntil() {
+        return lockedUntil;
+    }
+}
@@ -6,15 +6,19 @@ import com.example.orderservice.model.OutboxEvent;
 import com.example.orderservice.model.OutboxStatus;
 import com.example.orderservice.repository.OutboxEventRepository;
 import com.example.orderservice.service.OrderSideEffectService;
+import com.example.orderservice.sharding.ShardTemplate;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 @Component
@@ -25,18 +29,55 @@ public class OutboxProcessor {
     private final ObjectMapper objectMapper;
     private final OrderSideEffectService orderSideEffectService;
     private final OrderEventProducer orderEventProducer;
+    private final ShardTemplate shardTemplate;
+    private final Executor outboxExecutor;
 
+    // Shards with a drain in flight
+    private final Set<String> draining = ConcurrentHashMap.newKeySet();
 
-    public OutboxProcessor(OutboxEventRepository repository,ObjectMapper objectMapper, OrderSideEffectService orderSideEffectService, OrderEventProducer orderEventProducer) {
+
+    public OutboxProcessor(OutboxEventRepository repository,ObjectMapper objectMapper, OrderSideEffectService orderSideEffectService, OrderEventProducer orderEventProducer, ShardTemplate shardTemplate,
+                           @Qualifier("outboxExecutor") Executor outboxExecutor) {
         this.repository = repository;
         this.objectMapper = objectMapper;
         this.orderSideEffectService = orderSideEffectService;
         this.orderEventProducer = orderEventProducer;
+        this.shardTemplate = shardTemplate;
+        this.outboxExecutor = outboxExecutor;
     }
 
+    /**
+     * Each shard keeps its own outbox next to its orders. Shards are drained
+     * in parallel on the outbox pool so a slow one doesn't hold up the rest;
+     * a shard whose previous drain is still running is skipped this time.
+     * When every pool thread is busy the scheduling thread drains the shard
+     * itself, which is the pool's caller-runs policy.
+     */
     @Scheduled(fixedDelay = 3000)
-    @Transactional
     public void processOutbox() {
+        for (String shard : shardTemplate.shards()) {
+            if (!draining.add(shard)) {
+                continue;
+            }
+
+            outboxExecutor.execute(() -> drain(shard));
+        }
+    }
+
+    private void drain(String shard) {
+        try {
+            shardTemplate.write(shard, () -> {
+                processShardOutbox();
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Outbox drain failed on {}: {}", shard, e.getMessage());
+        } finally {
+            draining.remove(shard);
+        }
+    }
+
+    private void processShardOutbox() {
 
         List<OutboxEvent> events = repository.findByStatusIn(List.of(OutboxStatus.PENDING, OutboxStatus.FAILED));
 
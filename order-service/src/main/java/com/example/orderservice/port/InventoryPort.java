@@ -1,6 +1,51 @@
 package com.example.orderservice.port;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 public interface InventoryPort {
 
     void reserveStock(String itemName, int quantity);
+
+    /**
+     * Reserves several items in one call. Results are returned in the same
+     * order as the requested reservations.
+     */
+    List<ReservationResult> reserveStockBatch(List<StockReservation> reservations);
+
+    /**
+     * Available quantity per item. Items unknown to inventory are omitted.
+     * This is a read and is safe to repeat.
+     */
+    Map<String, Integer> getAvailability(List<String> itemNames);
+
+    /**
+     * Non-blocking variant of {@link #reserveStock}. Blocking adapters run the
+     * call on the caller's thread and return an already completed future.
+     */
+    default CompletableFuture<Void> reserveStockAsync(String itemName, int quantity) {
+        try {
+            reserveStock(itemName, quantity);
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    default CompletableFuture<List<ReservationResult>> reserveStockBatchAsync(List<StockReservation> reservations) {
+        try {
+            return CompletableFuture.completedFuture(reserveStockBatch(reservations));
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    default CompletableFuture<Map<String, Integer>> getAvailabilityAsync(List<String> itemNames) {
+        try {
+            return CompletableFuture.completedFuture(getAvailability(itemNames));
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
 }
@@ -0,0 +1,39 @@
+package com.example.orderservice.port;
+
+public class ReservationResult {
+
+    private String itemName;
+
+    private boolean reserved;
+
+    private String reason;
+
+    public ReservationResult() {
+    }
+
+    public ReservationResult(String itemName, boolean reserved, String reason) {
+        this.itemName = itemName;
+        this.reserved = reserved;
+        this.reason = reason;
+    }
+
+    public static ReservationResult reserved(String itemName) {
+        return new ReservationResult(itemName, true, null);
+    }
+
+    public static ReservationResult rejected(String itemName, String reason) {
+        return new ReservationResult(itemName, false, reason);
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public boolean isReserved() {
+        return reserved;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.orderservice.port;
+
+public class StockReservation {
+
+    private String itemName;
+
+    private int quantity;
+
+    public StockReservation() {
+    }
+
+    public StockReservation(String itemName, int quantity) {
+        this.itemName = itemName;
+        this.quantity = quantity;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.orderservice.readmodel;
+
+import com.example.orderservice.event.OrderChangedEvent;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OutboxEvent;
+import com.example.orderservice.repository.OrderJpaRepository;
+import com.example.orderservice.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Write side of the read model: every order change appends an
+ * {@value #EVENT_TYPE} row with the order's new state to the outbox of the
+ * order's shard, in the transaction that makes the change. The rows are only
+ * read by {@link OrderReadModel}, so they are stored as already completed and
+ * never relayed to Kafka; the read model deletes them after its retention
+ * window.
+ */
+@Component
+public class OrderChangeLog {
+
+    public static final String EVENT_TYPE = "ORDER_CHANGED";
+
+    private final OrderJpaRepository orderRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final OrderReadModel readModel;
+    private final boolean enabled;
+
+    public OrderChangeLog(OrderJpaRepository orderRepository,
+                          OutboxEventRepository outboxEventRepository,
+                          ObjectMapper objectMapper,
+                          OrderReadModel readModel,
+                          @Value("${orders.read-model.enabled:false}") boolean enabled) {
+        this.orderRepository = orderRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.readModel = readModel;
+        this.enabled = enabled;
+    }
+
+    public void record(Order order) {
+        if (!enabled) {
+            return;
+        }
+
+        // The version is bumped at flush; flush now so the event carries the committed one
+        orderRepository.flush();
+
+        OrderChangedEvent change = new OrderChangedEvent(order.getOrderId(), order.getItemName(), order.getQuantity(),
+                order.getIdempotencyKey(), order.getStatus(), order.getVersion(), order.getUpdatedAt());
+
+        OutboxEvent event;
+        try {
+            event = new OutboxEvent(order.getOrderId(), EVENT_TYPE, objectMapper.writeValueAsString(change));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize event", e);
+        }
+        event.markCompleted();
+        outboxEventRepository.save(event);
+
+        readModel.applyAfterCommit(change);
+    }
+}
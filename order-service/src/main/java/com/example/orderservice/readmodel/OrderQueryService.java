@@ -0,0 +1,122 @@
+package com.example.orderservice.readmodel;
+
+import com.example.orderservice.cache.OrderVersionLookup;
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.search.ItemMatch;
+import com.example.orderservice.service.OrderService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Query side for the order GET endpoints: answers from {@link OrderReadModel}
+ * when it can and falls back to {@link OrderService} and JPA otherwise. A
+ * caller that passes the version its write returned never sees an older state
+ * of that order; strong consistency skips the read model for lists.
+ */
+@Service
+public class OrderQueryService {
+
+    private final OrderService orderService;
+    private final OrderReadModel readModel;
+    private final OrderVersionLookup versionLookup;
+    private final Cache orderCache;
+
+    private final Counter readModelCounter;
+    private final Counter databaseCounter;
+
+    public OrderQueryService(OrderService orderService,
+                             OrderReadModel readModel,
+                             OrderVersionLookup versionLookup,
+                             CacheManager cacheManager,
+                             MeterRegistry meterRegistry) {
+        this.orderService = orderService;
+        this.readModel = readModel;
+        this.versionLookup = versionLookup;
+        this.orderCache = cacheManager.getCache("orders");
+
+        this.readModelCounter = meterRegistry.counter("orders.read.count", "source", "readmodel");
+        this.databaseCounter = meterRegistry.counter("orders.read.count", "source", "database");
+    }
+
+    public OrderResponse getOrderById(String orderId, Long minVersion) {
+        Optional<OrderView> view = readModel.find(orderId);
+        if (view.isPresent() && (minVersion == null || view.get().version() >= minVersion)) {
+            readModelCounter.increment();
+            return view.get().toResponse();
+        }
+
+        databaseCounter.increment();
+        OrderResponse response = orderService.getOrderById(orderId);
+
+        if (minVersion != null && response.getVersion() != null && response.getVersion() < minVersion && orderCache != null) {
+            // The cached copy predates the caller's write, which may have been made on another node
+            orderCache.evict(orderId);
+            response = orderService.getOrderById(orderId);
+        }
+        return response;
+    }
+
+    /**
+     * The version {@link #getOrderById} would answer with, found without
+     * loading or mapping the order: from the read model, else the orders
+     * cache, else a lookup of the version column alone. Null when the order
+     * doesn't exist, so the caller loads it and gets the usual not-found.
+     */
+    public Long currentVersion(String orderId, Long minVersion) {
+        Optional<OrderView> view = readModel.find(orderId);
+        if (view.isPresent() && (minVersion == null || view.get().version() >= minVersion)) {
+            return view.get().version();
+        }
+
+        OrderResponse cached = orderCache != null ? orderCache.get(orderId, OrderResponse.class) : null;
+        if (cached != null && cached.getVersion() != null && (minVersion == null || cached.getVersion() >= minVersion)) {
+            return cached.getVersion();
+        }
+
+        return versionLookup.versions(List.of(orderId)).get(orderId);
+    }
+
+    public Page<OrderResponse> getOrders(int page, int size, boolean strong) {
+        if (!strong) {
+            Optional<Page<OrderView>> views = readModel.page(PageRequest.of(page, size, Sort.by("orderId")));
+            if (views.isPresent()) {
+                readModelCounter.increment();
+                return views.get().map(OrderView::toResponse);
+            }
+        }
+
+        databaseCounter.increment();
+        return orderService.getOrders(page, size);
+    }
+
+    public Page<OrderResponse> searchOrders(String itemName, ItemMatch match, int maxNames, Pageable pageable, boolean strong) {
+        if (!strong && readModel.isReady()) {
+            Optional<Page<OrderView>> views;
+            if (itemName == null) {
+                views = readModel.page(pageable);
+            } else if (match == ItemMatch.EXACT) {
+                views = readModel.pageByItems(List.of(itemName), pageable);
+            } else {
+                views = readModel.pageByItems(orderService.suggestItemNames(itemName, match, maxNames), pageable);
+            }
+
+            if (views.isPresent()) {
+                readModelCounter.increment();
+                return views.get().map(OrderView::toResponse);
+            }
+        }
+
+        databaseCounter.increment();
+        return orderService.searchOrders(itemName, match, maxNames, pageable);
+    }
+}
@@ -0,0 +1,367 @@
+package com.example.orderservice.readmodel;
+
+import com.example.orderservice.event.OrderChangedEvent;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OutboxEvent;
+import com.example.orderservice.repository.OrderJpaRepository;
+import com.example.orderservice.repository.OutboxEventRepository;
+import com.example.orderservice.sharding.ShardTemplate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * In-memory projection of all orders, indexed by id (in id order) and by item
+ * name. Loaded from the orders at startup, then kept current by tailing the
+ * {@link OrderChangeLog} rows in every shard's outbox; this node's own changes
+ * are applied as soon as they commit. Each order keeps the version it was last
+ * seen at and older states are ignored, so replays are harmless.
+ *
+ * The tail only reads rows older than the settle window, so a transaction that
+ * commits later than that after writing its row is missed until the order
+ * changes again. Queries return empty until the initial load completes.
+ *
+ * Rows older than the retention window are deleted. Every node loads from the
+ * orders and tails from a settle window before that, so a row is only needed
+ * until each running node has tailed past it; the retention has to stay well
+ * above the settle window and any stall of a node's tail.
+ */
+@Component
+public class OrderReadModel {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderReadModel.class);
+
+    private final OrderJpaRepository orderRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ShardTemplate shardTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final boolean enabled;
+    private final long pollIntervalMs;
+    private final Duration settle;
+    private final int chunkSize;
+    private final long maxOffset;
+    private final Duration retention;
+
+    private final ConcurrentSkipListMap<String, OrderView> orders = new ConcurrentSkipListMap<>();
+    private final Map<String, NavigableSet<String>> ordersByItem = new ConcurrentHashMap<>();
+
+    // Last outbox row applied per shard; only touched on the poller thread
+    private final Map<String, Cursor> cursors = new HashMap<>();
+
+    private final List<Consumer<OrderView>> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean ready;
+
+    private final ScheduledExecutorService poller;
+    private final Counter appliedCounter;
+
+    public OrderReadModel(OrderJpaRepository orderRepository,
+                          OutboxEventRepository outboxEventRepository,
+                          ShardTemplate shardTemplate,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${orders.read-model.enabled:false}") boolean enabled,
+                          @Value("${orders.read-model.poll-interval-ms:200}") long pollIntervalMs,
+                          @Value("${orders.read-model.settle-ms:1000}") long settleMs,
+                          @Value("${orders.read-model.chunk-size:1000}") int chunkSize,
+                          @Value("${orders.read-model.max-offset:10000}") long maxOffset,
+                          @Value("${orders.read-model.retention-ms:3600000}") long retentionMs) {
+        this.orderRepository = orderRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.shardTemplate = shardTemplate;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.pollIntervalMs = pollIntervalMs;
+        this.settle = Duration.ofMillis(settleMs);
+        this.chunkSize = chunkSize;
+        this.maxOffset = maxOffset;
+        this.retention = Duration.ofMillis(retentionMs);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("Order-ReadModel-");
+        threadFactory.setDaemon(true);
+        this.poller = Executors.newSingleThreadScheduledExecutor(threadFactory);
+
+        this.appliedCounter = meterRegistry.counter("orders.readmodel.applied.count");
+        meterRegistry.gauge("orders.readmodel.size", orders, Map::size);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Called with every newer order state the model takes on, whether loaded,
+     * changed on this node or tailed from another node's changes.
+     */
+    public void addListener(Consumer<OrderView> listener) {
+        listeners.add(listener);
+    }
+
+    public Optional<OrderView> find(String orderId) {
+        return ready ? Optional.ofNullable(orders.get(orderId)) : Optional.empty();
+    }
+
+    /**
+     * All orders, or empty when the page is deeper than max-offset or sorted by
+     * anything but orderId.
+     */
+    public Optional<Page<OrderView>> page(Pageable pageable) {
+        Sort.Direction direction = orderIdDirection(pageable);
+        if (!ready || direction == null) {
+            return Optional.empty();
+        }
+
+        Collection<OrderView> source = direction.isAscending() ? orders.values() : orders.descendingMap().values();
+        return Optional.of(slice(source.iterator(), pageable, orders.size()));
+    }
+
+    /**
+     * Orders for any of the given item names, with the same limits as {@link #page(Pageable)}.
+     */
+    public Optional<Page<OrderView>> pageByItems(Collection<String> itemNames, Pageable pageable) {
+        Sort.Direction direction = orderIdDirection(pageable);
+        if (!ready || direction == null) {
+            return Optional.empty();
+        }
+
+        NavigableSet<String> orderIds;
+        if (itemNames.size() == 1) {
+            orderIds = ordersByItem.getOrDefault(itemNames.iterator().next(), new TreeSet<>());
+        } else {
+            orderIds = new TreeSet<>();
+            for (String itemName : itemNames) {
+                orderIds.addAll(ordersByItem.getOrDefault(itemName, new TreeSet<>()));
+            }
+        }
+
+        Iterator<String> ids = direction.isAscending() ? orderIds.iterator() : orderIds.descendingIterator();
+        Iterator<OrderView> views = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return ids.hasNext();
+            }
+
+            @Override
+            public OrderView next() {
+                return orders.get(ids.next());
+            }
+        };
+        return Optional.of(slice(views, pageable, orderIds.size()));
+    }
+
+    private Sort.Direction orderIdDirection(Pageable pageable) {
+        if (pageable.getOffset() > maxOffset) {
+            return null;
+        }
+
+        Sort sort = pageable.getSort();
+        if (sort.isUnsorted()) {
+            return Sort.Direction.ASC;
+        }
+
+        List<Sort.Order> sortOrders = sort.toList();
+        if (sortOrders.size() != 1 || !"orderId".equals(sortOrders.get(0).getProperty())) {
+            return null;
+        }
+        return sortOrders.get(0).getDirection();
+    }
+
+    private Page<OrderView> slice(Iterator<OrderView> source, Pageable pageable, long total) {
+        for (long skipped = 0; skipped < pageable.getOffset() && source.hasNext(); skipped++) {
+            source.next();
+        }
+
+        List<OrderView> content = new ArrayList<>(pageable.getPageSize());
+        while (content.size() < pageable.getPageSize() && source.hasNext()) {
+            OrderView view = source.next();
+            if (view != null) {
+                content.add(view);
+            }
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Applies a change made on this node once its transaction commits.
+     */
+    void applyAfterCommit(OrderChangedEvent change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(OrderView.of(change));
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(OrderView.of(change));
+            }
+        });
+    }
+
+    void apply(OrderView view) {
+        OrderView previous = orders.get(view.orderId());
+        if (previous != null && previous.version() >= view.version()) {
+            return;
+        }
+
+        OrderView current = orders.merge(view.orderId(), view,
+                (existing, incoming) -> existing.version() >= incoming.version() ? existing : incoming);
+
+        if (previous == null && current == view) {
+            ordersByItem.computeIfAbsent(view.itemName(), item -> new ConcurrentSkipListSet<>()).add(view.orderId());
+        }
+        appliedCounter.increment();
+
+        if (current == view) {
+            listeners.forEach(listener -> listener.accept(view));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        poller.execute(this::load);
+        poller.scheduleWithFixedDelay(this::poll, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Loads every order, starting the outbox tail a settle window before the
+     * load so changes made while it runs are replayed afterwards.
+     */
+    void load() {
+        Cursor start = new Cursor(LocalDateTime.now().minus(settle), "");
+
+        try {
+            for (String shard : shardTemplate.shards()) {
+                cursors.put(shard, start);
+
+                String after = "";
+                while (true) {
+                    String from = after;
+                    List<Order> chunk = shardTemplate.read(shard, () -> orderRepository.findAfter(from, Limit.of(chunkSize)));
+
+                    chunk.forEach(order -> apply(OrderView.of(order)));
+
+                    if (chunk.size() < chunkSize) {
+                        break;
+                    }
+                    after = chunk.get(chunk.size() - 1).getOrderId();
+                }
+            }
+
+            ready = true;
+            log.info("Order read model loaded {} orders", orders.size());
+        } catch (RuntimeException e) {
+            log.warn("Order read model failed to load, reads stay on the database: {}", e.getMessage());
+        }
+    }
+
+    void poll() {
+        if (!ready) {
+            return;
+        }
+
+        LocalDateTime until = LocalDateTime.now().minus(settle);
+
+        for (String shard : shardTemplate.shards()) {
+            try {
+                tail(shard, until);
+            } catch (RuntimeException e) {
+                log.warn("Order read model could not read changes on {}: {}", shard, e.getMessage());
+            }
+        }
+    }
+
+    private void tail(String shard, LocalDateTime until) {
+        while (true) {
+            Cursor cursor = cursors.get(shard);
+            List<OutboxEvent> events = shardTemplate.read(shard, () -> outboxEventRepository.findEventsAfter(
+                    OrderChangeLog.EVENT_TYPE, cursor.createdAt(), cursor.id(), until, Limit.of(chunkSize)));
+
+            for (OutboxEvent event : events) {
+                try {
+                    apply(OrderView.of(objectMapper.readValue(event.getPayload(), OrderChangedEvent.class)));
+                } catch (JsonProcessingException e) {
+                    log.warn("Skipping unreadable {} event {}: {}", OrderChangeLog.EVENT_TYPE, event.getId(), e.getMessage());
+                }
+                cursors.put(shard, new Cursor(event.getCreatedAt(), event.getId()));
+            }
+
+            if (events.size() < chunkSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Deletes {@value OrderChangeLog#EVENT_TYPE} rows older than the retention
+     * window on every shard.
+     */
+    @Scheduled(fixedDelayString = "${orders.read-model.prune-interval-ms:600000}")
+    public void prune() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        try {
+            shardTemplate.forEachShard(() -> {
+                int deleted = outboxEventRepository.deleteEventsBefore(OrderChangeLog.EVENT_TYPE, before);
+                if (deleted > 0) {
+                    log.info("Pruned {} {} events", deleted, OrderChangeLog.EVENT_TYPE);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not prune {} events: {}", OrderChangeLog.EVENT_TYPE, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+    }
+
+    private record Cursor(LocalDateTime createdAt, String id) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.orderservice.readmodel;
+
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.event.OrderChangedEvent;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * An order as held by the read model.
+ */
+public record OrderView(String orderId, String itemName, int quantity, String idempotencyKey,
+                        OrderStatus status, long version, LocalDateTime updatedAt) {
+
+    static OrderView of(OrderChangedEvent change) {
+        return new OrderView(change.getOrderId(), change.getItemName(), change.getQuantity(),
+                change.getIdempotencyKey(), change.getStatus(), change.getVersion(), change.getUpdatedAt());
+    }
+
+    static OrderView of(Order order) {
+        return new OrderView(order.getOrderId(), order.getItemName(), order.getQuantity(),
+                order.getIdempotencyKey(), order.getStatus(), order.getVersion() != null ? order.getVersion() : 0,
+                order.getUpdatedAt());
+    }
+
+    public OrderResponse toResponse() {
+        return new OrderResponse(orderId, itemName, quantity, idempotencyKey, version, updatedAt);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.model.InboxMessage;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface InboxMessageRepository extends JpaRepository<InboxMessage, String> {
+
+    /**
+     * Plain insert, so a message already in the inbox fails here with a key
+     * violation rather than at commit.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO inbox_messages (message_id, processed_at) VALUES (:messageId, :processedAt)", nativeQuery = true)
+    int insert(@Param("messageId") String messageId, @Param("processedAt") LocalDateTime processedAt);
+
+    @Query("select m.messageId from InboxMessage m where m.processedAt >= :since and m.messageId > :after order by m.messageId")
+    List<String> findIdsProcessedSince(@Param("since") LocalDateTime since, @Param("after") String after, Limit limit);
+
+    @Modifying
+    @Query("delete from InboxMessage m where m.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+}
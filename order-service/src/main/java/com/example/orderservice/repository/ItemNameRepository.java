@@ -0,0 +1,38 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.model.ItemName;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Postgres-only queries; they rely on pg_trgm and its GIN index on item_names.
+ */
+@Repository
+public interface ItemNameRepository extends JpaRepository<ItemName, String> {
+
+    @Modifying
+    @Query(value = "INSERT INTO item_names (item_name) VALUES (:itemName) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("itemName") String itemName);
+
+    @Modifying
+    @Query(value = "INSERT INTO item_names (item_name) " +
+            "SELECT DISTINCT item_name FROM orders WHERE item_name IS NOT NULL ON CONFLICT DO NOTHING", nativeQuery = true)
+    int backfillFromOrders();
+
+    /**
+     * {@code pattern} is an escaped prefix followed by {@code %}; ILIKE with a
+     * fixed prefix is served by the trigram index.
+     */
+    @Query(value = "SELECT item_name FROM item_names WHERE item_name ILIKE :pattern " +
+            "ORDER BY lower(item_name), item_name LIMIT :limit", nativeQuery = true)
+    List<String> findByPrefix(@Param("pattern") String pattern, @Param("limit") int limit);
+
+    @Query(value = "SELECT item_name FROM item_names WHERE item_name % :query " +
+            "ORDER BY similarity(item_name, :query) DESC, item_name LIMIT :limit", nativeQuery = true)
+    List<String> findSimilar(@Param("query") String query, @Param("limit") int limit);
+}
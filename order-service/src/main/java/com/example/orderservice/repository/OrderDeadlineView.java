@@ -0,0 +1,13 @@
+package com.example.orderservice.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Just enough of a pending order to re-register its saga deadline.
+ */
+public interface OrderDeadlineView {
+
+    String getOrderId();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -2,13 +2,18 @@ package com.example.orderservice.repository;
 
 import com.example.orderservice.model.Order;
 import com.example.orderservice.model.OrderStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,7 +22,86 @@ public interface OrderJpaRepository extends JpaRepository<Order, String> {
 
     Page<Order> findByItemName(String itemName, Pageable pageable);
 
+    /**
+     * Keyset page of orders after {@code afterOrderId}, in id order.
+     */
+    @Query("select o from Order o where o.orderId > :afterOrderId order by o.orderId")
+    List<Order> findAfter(@Param("afterOrderId") String afterOrderId, Limit limit);
+
+    /**
+     * Rows of [orderId, version] for the given ids that exist.
+     */
+    @Query("select o.orderId, o.version from Order o where o.orderId in :orderIds")
+    List<Object[]> findVersions(@Param("orderIds") Collection<String> orderIds);
+
+    /**
+     * Adds {@code delta} to the quantity in one statement, bumping the version
+     * as an entity update would. Returns the number of rows changed.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Order o set o.quantity = o.quantity + :delta, o.version = o.version + 1, o.updatedAt = :now " +
+            "where o.orderId = :orderId")
+    int incrementQuantity(@Param("orderId") String orderId, @Param("delta") int delta, @Param("now") LocalDateTime now);
+
+    /**
+     * Moves the order to {@code to} only if it is currently {@code from}, in
+     * one statement. Returns the number of rows changed, 0 if the order is
+     * missing or in another status.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Order o set o.status = :to, o.version = o.version + 1, o.updatedAt = :now " +
+            "where o.orderId = :orderId and o.status = :from")
+    int transition(@Param("orderId") String orderId, @Param("from") OrderStatus from, @Param("to") OrderStatus to,
+                   @Param("now") LocalDateTime now);
+
+    Page<Order> findByItemNameIn(Collection<String> itemNames, Pageable pageable);
+
+    /**
+     * Keyset page of distinct item names after {@code afterItemName}, read off idx_item_name.
+     */
+    @Query("select distinct o.itemName from Order o where o.itemName > :afterItemName order by o.itemName")
+    List<String> findItemNamesAfter(@Param("afterItemName") String afterItemName, Limit limit);
+
     Optional<Order> findByIdempotencyKey(String idempotencyKey);
 
     List<Order> findByStatusAndUpdatedAtBefore(OrderStatus status, LocalDateTime time);
+
+    long countByStatusAndUpdatedAtBefore(OrderStatus status, LocalDateTime time);
+
+    /**
+     * Planner's row estimate for the orders table (Postgres only). Negative
+     * until the table has been analyzed.
+     */
+    @Query(value = "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = 'orders'::regclass", nativeQuery = true)
+    Long estimateCount();
+
+    /**
+     * Keyset page of order ids: the next {@code limit} ids after {@code afterOrderId}.
+     */
+    @Query("select o.orderId from Order o " +
+            "where o.status = :status and o.updatedAt < :before and o.orderId > :afterOrderId " +
+            "order by o.orderId")
+    List<String> findIdsByStatusAndUpdatedAtBefore(@Param("status") OrderStatus status,
+                                                   @Param("before") LocalDateTime before,
+                                                   @Param("afterOrderId") String afterOrderId,
+                                                   Limit limit);
+
+    @Query("select o.orderId as orderId, o.updatedAt as updatedAt from Order o " +
+            "where o.status = :status and o.orderId > :afterOrderId " +
+            "order by o.orderId")
+    List<OrderDeadlineView> findDeadlinesByStatus(@Param("status") OrderStatus status,
+                                                  @Param("afterOrderId") String afterOrderId,
+                                                  Limit limit);
+
+    /**
+     * Rows of [status, order count, quantity sum]; full scan, used to rebuild the stats checkpoint.
+     */
+    @Query("select o.status, count(o), coalesce(sum(o.quantity), 0) from Order o group by o.status")
+    List<Object[]> sumByStatus();
+
+    /**
+     * Rows of [itemName, order count, quantity sum]; full scan, used to rebuild the stats checkpoint.
+     */
+    @Query("select o.itemName, count(o), coalesce(sum(o.quantity), 0) from Order o group by o.itemName")
+    List<Object[]> sumByItem();
 }
@@ -0,0 +1,26 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.model.OrderStatsEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface OrderStatsRepository extends JpaRepository<OrderStatsEntry, String> {
+
+    /**
+     * Adds a node's unflushed deltas to the checkpoint row. Returns 0 when the
+     * row does not exist yet.
+     */
+    @Modifying
+    @Query("update OrderStatsEntry s set s.orderCount = s.orderCount + :orderCount, " +
+            "s.quantity = s.quantity + :quantity, s.updatedAt = :now where s.id = :id")
+    int increment(@Param("id") String id,
+                  @Param("orderCount") long orderCount,
+                  @Param("quantity") long quantity,
+                  @Param("now") LocalDateTime now);
+}
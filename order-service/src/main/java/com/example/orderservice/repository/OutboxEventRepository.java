@@ -2,9 +2,14 @@ package com.example.orderservice.repository;
 
 import com.example.orderservice.model.OutboxEvent;
 import com.example.orderservice.model.OutboxStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -13,4 +18,26 @@ public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long>
     List<OutboxEvent> findByProcessedFalse();
 
     List<OutboxEvent> findByStatusIn(List<OutboxStatus> statuses);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.status = com.example.orderservice.model.OutboxStatus.PENDING " +
+            "where e.aggregateId = :aggregateId and e.eventType = 'ORDER_CREATED'")
+    int requeueOrderCreated(@Param("aggregateId") String aggregateId);
+
+    /**
+     * Keyset page of events of one type after (afterCreatedAt, afterId), up to {@code until}.
+     */
+    @Query("select e from OutboxEvent e where e.eventType = :eventType " +
+            "and (e.createdAt > :afterCreatedAt or (e.createdAt = :afterCreatedAt and e.id > :afterId)) " +
+            "and e.createdAt <= :until " +
+            "order by e.createdAt, e.id")
+    List<OutboxEvent> findEventsAfter(@Param("eventType") String eventType,
+                                      @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                      @Param("afterId") String afterId,
+                                      @Param("until") LocalDateTime until,
+                                      Limit limit);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.eventType = :eventType and e.createdAt < :before")
+    int deleteEventsBefore(@Param("eventType") String eventType, @Param("before") LocalDateTime before);
 }
@@ -0,0 +1,33 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.model.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    /**
+     * Takes the lease if it has expired or is already ours, extending it to
+     * {@code until}. Returns 1 when the caller holds the lease afterwards.
+     */
+    @Transactional
+    @Modifying
+    @Query("update SchedulerLease l set l.owner = :owner, l.lockedUntil = :until " +
+            "where l.name = :name and (l.lockedUntil < :now or l.owner = :owner)")
+    int tryAcquire(@Param("name") String name,
+                   @Param("owner") String owner,
+                   @Param("now") LocalDateTime now,
+                   @Param("until") LocalDateTime until);
+
+    @Transactional
+    @Modifying
+    @Query("update SchedulerLease l set l.lockedUntil = :now where l.name = :name and l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
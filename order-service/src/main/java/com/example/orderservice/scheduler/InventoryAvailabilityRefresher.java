@@ -0,0 +1,43 @@
+package com.example.orderservice.scheduler;
+
+import com.example.orderservice.port.InventoryPort;
+import com.example.orderservice.service.InventoryAvailabilityCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "inventory.availability.snapshot-enabled", havingValue = "true")
+public class InventoryAvailabilityRefresher {
+
+    private final InventoryPort inventoryPort;
+
+    private final InventoryAvailabilityCache availabilityCache;
+
+    public InventoryAvailabilityRefresher(InventoryPort inventoryPort, InventoryAvailabilityCache availabilityCache) {
+        this.inventoryPort = inventoryPort;
+        this.availabilityCache = availabilityCache;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.availability.snapshot-interval-ms:15000}")
+    public void refreshSnapshot() {
+
+        List<String> items = availabilityCache.trackedItems();
+        if (items.isEmpty()) {
+            return;
+        }
+
+        try {
+            Map<String, Integer> snapshot = inventoryPort.getAvailability(items);
+            availabilityCache.applySnapshot(snapshot);
+            log.debug("Refreshed availability for {} of {} tracked items", snapshot.size(), items.size());
+        } catch (RuntimeException ex) {
+            log.warn("Availability snapshot failed: {}", ex.getMessage());
+        }
+    }
+}
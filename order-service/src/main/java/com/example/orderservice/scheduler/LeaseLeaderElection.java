@@ -0,0 +1,68 @@
+package com.example.orderservice.scheduler;
+
+import com.example.orderservice.model.SchedulerLease;
+import com.example.orderservice.repository.SchedulerLeaseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Single-leader election on a lease row in the database, so only one node
+ * runs a given job without an external coordinator. The leader renews the
+ * lease on every run; if it dies, another node takes over once the lease
+ * expires. Node clocks are assumed to agree to well within the lease.
+ */
+@Slf4j
+@Component
+public class LeaseLeaderElection {
+
+    private final SchedulerLeaseRepository leaseRepository;
+    private final Duration leaseDuration;
+    private final String owner;
+
+    public LeaseLeaderElection(SchedulerLeaseRepository leaseRepository,
+                               @Value("${scheduler.lease-ms:90000}") long leaseMs) {
+        this.leaseRepository = leaseRepository;
+        this.leaseDuration = Duration.ofMillis(leaseMs);
+        this.owner = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public boolean tryAcquire(String lease) {
+        if (!leaseRepository.existsById(lease)) {
+            try {
+                leaseRepository.saveAndFlush(new SchedulerLease(lease));
+            } catch (DataIntegrityViolationException e) {
+                // another node created it first
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        boolean acquired = leaseRepository.tryAcquire(lease, owner, now, now.plus(leaseDuration)) == 1;
+
+        log.debug("Lease {} {} by {}", lease, acquired ? "held" : "not held", owner);
+        return acquired;
+    }
+
+    public void release(String lease) {
+        leaseRepository.release(lease, owner, LocalDateTime.now());
+    }
+
+    public String owner() {
+        return owner;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.orderservice.scheduler;
+
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.repository.OrderDeadlineView;
+import com.example.orderservice.repository.OrderJpaRepository;
+import com.example.orderservice.sharding.ShardTemplate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saga deadline per PENDING order, held in a {@link TimingWheel}. A deadline
+ * is registered when createOrder commits and cancelled when inventory answers;
+ * one that fires hands the order to the recovery pool straight away instead of
+ * waiting for the next stale-order scan. Pending orders are re-registered from
+ * the database at startup.
+ */
+@Slf4j
+@Component
+public class OrderDeadlineTracker {
+
+    private final boolean enabled;
+    private final long timeoutMs;
+    private final long tickMs;
+    private final int rehydrateChunkSize;
+
+    private final TimingWheel<String> wheel;
+
+    private final OrderJpaRepository orderJpaRepository;
+    private final ShardTemplate shardTemplate;
+    private final OrderRecoveryScheduler recovery;
+
+    private final ScheduledExecutorService ticker;
+    private final Counter expiredCounter;
+
+    public OrderDeadlineTracker(OrderJpaRepository orderJpaRepository,
+                                ShardTemplate shardTemplate,
+                                OrderRecoveryScheduler recovery,
+                                MeterRegistry meterRegistry,
+                                @Value("${orders.deadline.enabled:true}") boolean enabled,
+                                @Value("${orders.deadline.timeout-ms:120000}") long timeoutMs,
+                                @Value("${orders.deadline.tick-ms:100}") long tickMs,
+                                @Value("${orders.deadline.wheel-size:512}") int wheelSize,
+                                @Value("${orders.deadline.levels:4}") int levels,
+                                @Value("${orders.deadline.rehydrate-chunk-size:1000}") int rehydrateChunkSize) {
+        this.orderJpaRepository = orderJpaRepository;
+        this.shardTemplate = shardTemplate;
+        this.recovery = recovery;
+        this.enabled = enabled;
+        this.timeoutMs = timeoutMs;
+        this.tickMs = tickMs;
+        this.rehydrateChunkSize = rehydrateChunkSize;
+
+        this.wheel = new TimingWheel<>(tickMs, wheelSize, levels, System.currentTimeMillis());
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("Order-Deadline-");
+        threadFactory.setDaemon(true);
+        this.ticker = Executors.newSingleThreadScheduledExecutor(threadFactory);
+
+        this.expiredCounter = meterRegistry.counter("orders.deadline.expired.count");
+        meterRegistry.gauge("orders.deadline.pending", wheel, TimingWheel::size);
+    }
+
+    /**
+     * Starts the order's deadline once the surrounding transaction commits, so
+     * a rolled-back create leaves no timer behind.
+     */
+    public void registerAfterCommit(String orderId) {
+        if (!enabled) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            register(orderId, System.currentTimeMillis());
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                register(orderId, System.currentTimeMillis());
+            }
+        });
+    }
+
+    public void cancel(String orderId) {
+        if (enabled) {
+            wheel.cancel(orderId);
+        }
+    }
+
+    private void register(String orderId, long fromMs) {
+        wheel.schedule(orderId, fromMs + timeoutMs);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        ticker.execute(this::rehydrate);
+        ticker.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    void tick() {
+        try {
+            List<String> due = wheel.advanceTo(System.currentTimeMillis());
+            if (due.isEmpty()) {
+                return;
+            }
+
+            expiredCounter.increment(due.size());
+            log.info("Saga deadline passed for {} orders", due.size());
+
+            // Re-enqueued orders get a fresh deadline for their next attempt
+            LocalDateTime staleBefore = LocalDateTime.now().minus(Duration.ofMillis(timeoutMs));
+            recovery.recoverOrdersAsync(due, staleBefore).whenComplete((requeued, ex) -> {
+                if (ex != null) {
+                    log.warn("Deadline handling failed: {}", ex.getMessage());
+                    return;
+                }
+
+                long now = System.currentTimeMillis();
+                for (String orderId : requeued) {
+                    register(orderId, now);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Anything dropped here is still PENDING in the database and is found by the stale-order scan
+            log.warn("Deadline handling failed: {}", e.getMessage());
+        }
+    }
+
+    private void rehydrate() {
+        int restored = 0;
+
+        try {
+            for (String shard : shardTemplate.shards()) {
+                String after = "";
+
+                while (true) {
+                    String from = after;
+                    List<OrderDeadlineView> pending = shardTemplate.read(shard,
+                            () -> orderJpaRepository.findDeadlinesByStatus(OrderStatus.PENDING, from, Limit.of(rehydrateChunkSize)));
+
+                    for (OrderDeadlineView order : pending) {
+                        long updatedAt = order.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                        register(order.getOrderId(), updatedAt);
+                    }
+                    restored += pending.size();
+
+                    if (pending.size() < rehydrateChunkSize) {
+                        break;
+                    }
+                    after = pending.get(pending.size() - 1).getOrderId();
+                }
+            }
+            log.info("Restored {} saga deadlines", restored);
+        } catch (RuntimeException e) {
+            log.warn("Restored {} saga deadlines before failing: {}", restored, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+}
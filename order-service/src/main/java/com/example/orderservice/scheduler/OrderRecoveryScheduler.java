@@ -3,33 +3,308 @@ package com.example.orderservice.scheduler;
 import com.example.orderservice.model.Order;
 import com.example.orderservice.model.OrderStatus;
 import com.example.orderservice.repository.OrderJpaRepository;
+import com.example.orderservice.repository.OutboxEventRepository;
+import com.example.orderservice.service.OrderService;
+import com.example.orderservice.sharding.ShardTemplate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Recovers orders stuck in PENDING. Runs only on the node holding the
+ * recovery lease and walks stale orders shard by shard in keyset-paged
+ * chunks, one short transaction per chunk. The lease is renewed before every
+ * chunk, and a run that finds it taken over stops where it is. An order is retried by putting its
+ * ORDER_CREATED outbox event back to PENDING; after max-attempts retries, or
+ * when there is no event to replay, it is marked FAILED through
+ * {@link OrderService#transition}, like any other status change. Scans run on their
+ * own single-thread pool and deadline-driven recoveries on the recovery pool,
+ * both off the shared scheduling thread; a tick that finds the previous scan
+ * still running is skipped.
+ */
 @Slf4j
 @Component
 public class OrderRecoveryScheduler {
 
+    static final String LEASE = "order-recovery";
+
     private final OrderJpaRepository orderJpaRepository;
 
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final ShardTemplate shardTemplate;
+
+    private final LeaseLeaderElection leaderElection;
+
+    // Provided lazily: OrderService depends on this scheduler through OrderDeadlineTracker
+    private final ObjectProvider<OrderService> orderService;
+
+    private final Cache orderCache;
+
+    private final Executor recoveryExecutor;
+    private final Executor scanExecutor;
+
+    private final boolean enabled;
+    private final Duration staleAfter;
+    private final int chunkSize;
+    private final int maxPerRun;
+    private final int maxAttempts;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicBoolean scanning = new AtomicBoolean();
+    private volatile boolean leader;
 
-    public OrderRecoveryScheduler(OrderJpaRepository orderJpaRepository) {
+    private final Counter requeuedCounter;
+    private final Counter failedCounter;
+
+
+    public OrderRecoveryScheduler(OrderJpaRepository orderJpaRepository,
+                                  OutboxEventRepository outboxEventRepository,
+                                  ShardTemplate shardTemplate,
+                                  LeaseLeaderElection leaderElection,
+                                  ObjectProvider<OrderService> orderService,
+                                  CacheManager cacheManager,
+                                  MeterRegistry meterRegistry,
+                                  @Qualifier("recoveryExecutor") Executor recoveryExecutor,
+                                  @Qualifier("recoveryScanExecutor") Executor scanExecutor,
+                                  @Value("${orders.recovery.enabled:true}") boolean enabled,
+                                  @Value("${orders.recovery.stale-after-ms:120000}") long staleAfterMs,
+                                  @Value("${orders.recovery.chunk-size:100}") int chunkSize,
+                                  @Value("${orders.recovery.max-per-run:5000}") int maxPerRun,
+                                  @Value("${orders.recovery.max-attempts:3}") int maxAttempts) {
         this.orderJpaRepository = orderJpaRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.shardTemplate = shardTemplate;
+        this.leaderElection = leaderElection;
+        this.orderService = orderService;
+        this.orderCache = cacheManager.getCache("orders");
+        this.recoveryExecutor = recoveryExecutor;
+        this.scanExecutor = scanExecutor;
+        this.enabled = enabled;
+        this.staleAfter = Duration.ofMillis(staleAfterMs);
+        this.chunkSize = chunkSize;
+        this.maxPerRun = maxPerRun;
+        this.maxAttempts = maxAttempts;
+
+        this.requeuedCounter = meterRegistry.counter("orders.recovery.requeued.count");
+        this.failedCounter = meterRegistry.counter("orders.recovery.failed.count");
+        meterRegistry.gauge("orders.recovery.backlog", backlog);
+        meterRegistry.gauge("orders.recovery.leader", this, scheduler -> scheduler.leader ? 1 : 0);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.recovery.interval-ms:30000}")
+    public void scheduleRecovery() {
+        if (!enabled || !scanning.compareAndSet(false, true)) {
+            return;
+        }
+
+        scanExecutor.execute(() -> {
+            try {
+                recoverStaleOrders();
+            } finally {
+                scanning.set(false);
+            }
+        });
     }
 
-    @Scheduled(fixedRate = 30000)
     public void recoverStaleOrders() {
 
-        LocalDateTime staleTime = LocalDateTime.now().minusMinutes(2);
+        if (!enabled) {
+            return;
+        }
+
+        leader = leaderElection.tryAcquire(LEASE);
+        if (!leader) {
+            return;
+        }
+
+        LocalDateTime staleTime = LocalDateTime.now().minus(staleAfter);
+
+        long stale = shardTemplate.collectFromAllShards(
+                        () -> orderJpaRepository.countByStatusAndUpdatedAtBefore(OrderStatus.PENDING, staleTime))
+                .stream()
+                .mapToLong(Long::longValue)
+                .sum();
+        backlog.set(stale);
+
+        if (stale == 0) {
+            return;
+        }
+
+        log.warn("Found {} stale pending orders", stale);
+
+        for (String shard : shardTemplate.shards()) {
+            if (!recoverShard(shard, staleTime)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns false if the lease was lost, in which case the run must stop.
+     */
+    private boolean recoverShard(String shard, LocalDateTime staleTime) {
+
+        String after = "";
+        int scanned = 0;
+
+        while (scanned < maxPerRun) {
+            leader = leaderElection.tryAcquire(LEASE);
+            if (!leader) {
+                log.warn("Lost the {} lease during a run, leaving the rest to the new holder", LEASE);
+                return false;
+            }
+
+            String from = after;
+            List<String> orderIds = shardTemplate.read(shard, () -> orderJpaRepository.findIdsByStatusAndUpdatedAtBefore(
+                    OrderStatus.PENDING, staleTime, from, Limit.of(chunkSize)));
+
+            if (orderIds.isEmpty()) {
+                return true;
+            }
+
+            recoverChunk(shard, orderIds, staleTime);
 
-        List<Order> staleOrders = orderJpaRepository.findByStatusAndUpdatedAtBefore(OrderStatus.PENDING, staleTime);
+            after = orderIds.get(orderIds.size() - 1);
+            scanned += orderIds.size();
+
+            if (orderIds.size() < chunkSize) {
+                return true;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Recovers the given orders now rather than on the next scan, e.g. when
+     * their saga deadline fires. Only orders untouched since staleBefore are
+     * recovered, so when every node's deadline for an order fires, the first
+     * requeue moves updatedAt on and the others skip it. Returns the ids that
+     * were re-enqueued.
+     */
+    public List<String> recoverOrders(List<String> orderIds, LocalDateTime staleBefore) {
+
+        Map<String, List<String>> byShard = new LinkedHashMap<>();
+        for (String orderId : orderIds) {
+            byShard.computeIfAbsent(shardTemplate.shardFor(orderId), shard -> new ArrayList<>()).add(orderId);
+        }
+
+        List<String> requeued = new ArrayList<>();
+        byShard.forEach((shard, ids) -> {
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                requeued.addAll(recoverChunk(shard, ids.subList(from, Math.min(ids.size(), from + chunkSize)), staleBefore));
+            }
+        });
+        return requeued;
+    }
+
+    /**
+     * {@link #recoverOrders(List, LocalDateTime)} on the recovery pool.
+     */
+    public CompletableFuture<List<String>> recoverOrdersAsync(List<String> orderIds, LocalDateTime staleBefore) {
+        return CompletableFuture.supplyAsync(() -> recoverOrders(orderIds, staleBefore), recoveryExecutor);
+    }
+
+    private List<String> recoverChunk(String shard, List<String> orderIds, LocalDateTime staleBefore) {
+        try {
+            return shardTemplate.write(shard, () -> recoverInTransaction(orderIds, staleBefore));
+        } catch (OptimisticLockingFailureException e) {
+            // An order in the chunk moved on concurrently; whatever is still stale is picked up next run
+            log.info("Skipping recovery chunk of {} orders on {}: {}", orderIds.size(), shard, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private List<String> recoverInTransaction(List<String> orderIds, LocalDateTime staleBefore) {
+
+        List<String> requeued = new ArrayList<>();
+        List<Order> exhausted = new ArrayList<>();
+
+        for (Order order : orderJpaRepository.findAllById(orderIds)) {
+
+            // Another node may have recovered it since it was picked; a requeue bumps updatedAt
+            if (order.getStatus() != OrderStatus.PENDING
+                    || (order.getUpdatedAt() != null && !order.getUpdatedAt().isBefore(staleBefore))) {
+                continue;
+            }
+
+            if (order.getRetryCount() < maxAttempts
+                    && outboxEventRepository.requeueOrderCreated(order.getOrderId()) > 0) {
+                order.setRetryCount(order.getRetryCount() + 1);
+                requeued.add(order.getOrderId());
+                requeuedCounter.increment();
+                log.info("Re-enqueued outbox event for orderId={} attempt={}", order.getOrderId(), order.getRetryCount());
+            } else {
+                exhausted.add(order);
+            }
+        }
+
+        // After the requeues, since each status update flushes and detaches the chunk's entities
+        for (Order order : exhausted) {
+            if (orderService.getObject().transition(order.getOrderId(), OrderStatus.FAILED).isPresent()) {
+                failedCounter.increment();
+                log.warn("Marked stale orderId={} FAILED after {} recoveries", order.getOrderId(), order.getRetryCount());
+            }
+        }
+
+        List<String> changed = new ArrayList<>(requeued);
+        exhausted.forEach(order -> changed.add(order.getOrderId()));
+        evictAfterCommit(changed);
+        return requeued;
+    }
+
+    // Evicting before the commit would let a concurrent read cache the old row again
+    private void evictAfterCommit(List<String> orderIds) {
+        if (orderCache == null || orderIds.isEmpty()) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            orderIds.forEach(orderCache::evict);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                orderIds.forEach(orderCache::evict);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void releaseLease() {
+        if (!leader) {
+            return;
+        }
 
-        if(!staleOrders.isEmpty()) {
-            log.warn("Found {} stale pending orders", staleOrders.size());
+        try {
+            leaderElection.release(LEASE);
+        } catch (RuntimeException e) {
+            log.warn("Could not release {} lease: {}", LEASE, e.getMessage());
         }
     }
 }
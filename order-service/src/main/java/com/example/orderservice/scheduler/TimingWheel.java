@@ -0,0 +1,190 @@
+package com.example.orderservice.scheduler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical hashed timing wheel. Level 0 has one bucket per tick; each
+ * higher level covers wheelSize times the span of the one below and is
+ * cascaded down as time reaches it. Schedule and cancel are O(1): a timer is
+ * a node in an intrusive doubly linked bucket list, found by key through one
+ * map. Deadlines beyond the top level are parked in its furthest bucket and
+ * re-placed when they get there.
+ *
+ * Not driven by a clock of its own; {@link #advanceTo(long)} moves it forward
+ * and returns the keys that came due.
+ */
+public class TimingWheel<K> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final int bits;
+    private final int levels;
+
+    private final Timer<K>[] buckets;
+    private final Map<K, Timer<K>> timers = new HashMap<>();
+
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMs, int wheelSize, int levels, long startMs) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize must be a power of two");
+        }
+
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.bits = Integer.numberOfTrailingZeros(wheelSize);
+        this.levels = levels;
+        this.buckets = new Timer[wheelSize * levels];
+        this.currentTick = startMs / tickMs;
+    }
+
+    /**
+     * Schedules the key to come due at the deadline, replacing any timer it
+     * already has. Deadlines in the past come due on the next tick.
+     */
+    public synchronized void schedule(K key, long deadlineMs) {
+        Timer<K> timer = timers.get(key);
+
+        if (timer == null) {
+            timer = new Timer<>(key);
+            timers.put(key, timer);
+        } else {
+            unlink(timer);
+        }
+
+        timer.deadlineTick = Math.max(Math.ceilDiv(deadlineMs, tickMs), currentTick + 1);
+        link(timer);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Timer<K> timer = timers.remove(key);
+        if (timer == null) {
+            return false;
+        }
+
+        unlink(timer);
+        return true;
+    }
+
+    public synchronized int size() {
+        return timers.size();
+    }
+
+    public synchronized List<K> advanceTo(long nowMs) {
+        long targetTick = nowMs / tickMs;
+        List<K> expired = new ArrayList<>();
+
+        if (timers.isEmpty()) {
+            currentTick = Math.max(currentTick, targetTick);
+            return expired;
+        }
+
+        while (currentTick < targetTick) {
+            currentTick++;
+
+            for (int level = 1; level < levels; level++) {
+                int index = index(currentTick, level - 1);
+                if (index != 0) {
+                    break;
+                }
+                cascade(level, index(currentTick, level));
+            }
+
+            Timer<K> timer = detach(slot(0, index(currentTick, 0)));
+            while (timer != null) {
+                Timer<K> next = timer.next;
+                timer.prev = timer.next = null;
+
+                if (timer.deadlineTick > currentTick) {
+                    // parked beyond the top level; place it again
+                    link(timer);
+                } else {
+                    timers.remove(timer.key);
+                    expired.add(timer.key);
+                }
+                timer = next;
+            }
+        }
+        return expired;
+    }
+
+    private void cascade(int level, int index) {
+        Timer<K> timer = detach(slot(level, index));
+
+        while (timer != null) {
+            Timer<K> next = timer.next;
+            timer.prev = timer.next = null;
+            link(timer);
+            timer = next;
+        }
+    }
+
+    private void link(Timer<K> timer) {
+        long delta = timer.deadlineTick - currentTick;
+        long bucketTick = timer.deadlineTick;
+
+        int level = 0;
+        long span = wheelSize;
+        while (delta >= span && level < levels - 1) {
+            level++;
+            span <<= bits;
+        }
+        if (delta >= span) {
+            bucketTick = currentTick + span - 1;
+        }
+
+        int slot = slot(level, index(bucketTick, level));
+        Timer<K> head = buckets[slot];
+
+        timer.slot = slot;
+        timer.prev = null;
+        timer.next = head;
+        if (head != null) {
+            head.prev = timer;
+        }
+        buckets[slot] = timer;
+    }
+
+    private void unlink(Timer<K> timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            buckets[timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.prev = timer.next = null;
+    }
+
+    private Timer<K> detach(int slot) {
+        Timer<K> head = buckets[slot];
+        buckets[slot] = null;
+        return head;
+    }
+
+    private int index(long tick, int level) {
+        return (int) ((tick >>> (bits * level)) & (wheelSize - 1));
+    }
+
+    private int slot(int level, int index) {
+        return level * wheelSize + index;
+    }
+
+    private static final class Timer<K> {
+
+        private final K key;
+        private long deadlineTick;
+        private int slot;
+        private Timer<K> prev;
+        private Timer<K> next;
+
+        private Timer(K key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.orderservice.search;
+
+import com.example.orderservice.repository.OrderJpaRepository;
+import com.example.orderservice.sharding.ShardTemplate;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Item-name search for databases without trigram indexes. Distinct names are
+ * held in a {@link RadixTree} for prefix lookups and in trigram posting lists
+ * for fuzzy ones, loaded from the orders' item_name index at startup. They
+ * only grow: when an order for a new name commits on this node, or, with the
+ * read model enabled, when its tail of the change log brings one from another
+ * node. Without the read model, a name first ordered on another node is only
+ * found here after the next start.
+ */
+public class InMemoryItemNameSearch implements ItemNameSearch {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryItemNameSearch.class);
+
+    private final OrderJpaRepository orderRepository;
+    private final ShardTemplate shardTemplate;
+    private final int loadChunkSize;
+    private final double threshold;
+
+    private final Set<String> names = ConcurrentHashMap.newKeySet();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RadixTree prefixIndex = new RadixTree();
+
+    // Posting lists hold name ids, so a query counts shared trigrams in an array instead of a map
+    private final List<String> namesById = new ArrayList<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private int[] trigramCounts = new int[1024];
+
+    // One per fuzzy query in flight rather than per request thread
+    private final Queue<Scratch> spareScratch = new ConcurrentLinkedQueue<>();
+
+    private final ExecutorService loader;
+
+    public InMemoryItemNameSearch(OrderJpaRepository orderRepository,
+                                  ShardTemplate shardTemplate,
+                                  int loadChunkSize,
+                                  double threshold) {
+        this.orderRepository = orderRepository;
+        this.shardTemplate = shardTemplate;
+        this.loadChunkSize = loadChunkSize;
+        this.threshold = threshold;
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("Item-Index-");
+        threadFactory.setDaemon(true);
+        this.loader = Executors.newSingleThreadExecutor(threadFactory);
+    }
+
+    @Override
+    public List<String> prefix(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            return prefixIndex.withPrefix(prefix.toLowerCase(Locale.ROOT), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<String> fuzzy(String query, int limit) {
+        Set<String> queryTrigrams = Trigrams.of(query);
+        List<Map.Entry<String, Double>> matches = new ArrayList<>();
+
+        Scratch counts = spareScratch.poll();
+        if (counts == null) {
+            counts = new Scratch();
+        }
+
+        lock.readLock().lock();
+        try {
+            counts.ensureCapacity(namesById.size());
+
+            for (String trigram : queryTrigrams) {
+                Postings list = postings.get(trigram);
+                if (list != null) {
+                    for (int i = 0; i < list.size; i++) {
+                        counts.increment(list.ids[i]);
+                    }
+                }
+            }
+
+            for (int i = 0; i < counts.touchedCount; i++) {
+                int id = counts.touched[i];
+                double similarity = Trigrams.similarity(counts.shared[id], queryTrigrams.size(), trigramCounts[id]);
+                if (similarity >= threshold) {
+                    matches.add(Map.entry(namesById.get(id), similarity));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+            counts.clear();
+            spareScratch.offer(counts);
+        }
+
+        return matches.stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    @Override
+    public void recordItem(String itemName) {
+        if (itemName == null || names.contains(itemName)) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(itemName);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(itemName);
+            }
+        });
+    }
+
+    void add(String itemName) {
+        if (itemName == null || !names.add(itemName)) {
+            return;
+        }
+
+        Set<String> trigrams = Trigrams.of(itemName);
+
+        lock.writeLock().lock();
+        try {
+            prefixIndex.add(itemName.toLowerCase(Locale.ROOT), itemName);
+
+            int id = namesById.size();
+            namesById.add(itemName);
+            for (String trigram : trigrams) {
+                postings.computeIfAbsent(trigram, t -> new Postings()).add(id);
+            }
+            if (id == trigramCounts.length) {
+                trigramCounts = Arrays.copyOf(trigramCounts, id * 2);
+            }
+            trigramCounts[id] = trigrams.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        loader.execute(this::load);
+    }
+
+    private void load() {
+        try {
+            for (String shard : shardTemplate.shards()) {
+                String after = "";
+
+                while (true) {
+                    String from = after;
+                    List<String> chunk = shardTemplate.read(shard,
+                            () -> orderRepository.findItemNamesAfter(from, Limit.of(loadChunkSize)));
+
+                    chunk.forEach(this::add);
+
+                    if (chunk.size() < loadChunkSize) {
+                        break;
+                    }
+                    after = chunk.get(chunk.size() - 1);
+                }
+            }
+            log.info("Indexed {} item names in memory", names.size());
+        } catch (RuntimeException e) {
+            log.warn("Item name index loaded {} names before failing: {}", names.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loader.shutdownNow();
+    }
+
+    private static final class Postings {
+
+        private int[] ids = new int[2];
+        private int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+
+    /**
+     * Shared-trigram counts of one query by name id, reused across queries and
+     * reset by clearing only the names the query touched.
+     */
+    private static final class Scratch {
+
+        private int[] shared = new int[0];
+        private int[] touched = new int[64];
+        private int touchedCount;
+
+        void ensureCapacity(int names) {
+            if (shared.length < names) {
+                shared = new int[Math.max(names, shared.length * 2)];
+            }
+        }
+
+        void increment(int id) {
+            if (shared[id]++ == 0) {
+                if (touchedCount == touched.length) {
+                    touched = Arrays.copyOf(touched, touchedCount * 2);
+                }
+                touched[touchedCount++] = id;
+            }
+        }
+
+        void clear() {
+            for (int i = 0; i < touchedCount; i++) {
+                shared[touched[i]] = 0;
+            }
+            touchedCount = 0;
+        }
+    }
+}
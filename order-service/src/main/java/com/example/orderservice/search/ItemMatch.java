@@ -0,0 +1,10 @@
+package com.example.orderservice.search;
+
+/**
+ * How an item-name query is matched against the names orders were placed for.
+ */
+public enum ItemMatch {
+    EXACT,
+    PREFIX,
+    FUZZY
+}
@@ -0,0 +1,20 @@
+package com.example.orderservice.search;
+
+import java.util.List;
+
+/**
+ * Resolves prefix and typo-tolerant item-name queries to the distinct item
+ * names that match, best match first. Orders are then fetched by exact name,
+ * so the orders table is only ever read through its item_name index.
+ */
+public interface ItemNameSearch {
+
+    List<String> prefix(String prefix, int limit);
+
+    List<String> fuzzy(String query, int limit);
+
+    /**
+     * Called from the transaction that saves an order for the item.
+     */
+    void recordItem(String itemName);
+}
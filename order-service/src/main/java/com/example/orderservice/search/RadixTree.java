@@ -0,0 +1,140 @@
+package com.example.orderservice.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Compressed trie from string keys to the values stored under them. Edges
+ * carry whole runs of characters, so a lookup touches one node per branching
+ * point rather than one per character. Prefix listings come back in key
+ * order. Not thread-safe.
+ */
+public class RadixTree {
+
+    private final Node root = new Node("");
+
+    private int size;
+
+    /**
+     * Returns false when the value was already stored under the key.
+     */
+    public boolean add(String key, String value) {
+        Node node = root;
+        int offset = 0;
+
+        while (offset < key.length()) {
+            Node child = node.child(key.charAt(offset));
+
+            if (child == null) {
+                child = new Node(key.substring(offset));
+                node.putChild(child);
+                node = child;
+                break;
+            }
+
+            int common = commonPrefix(child.label, key, offset);
+            if (common < child.label.length()) {
+                // Split the edge where the new key leaves it
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.putChild(child);
+                node.putChild(middle);
+                child = middle;
+            }
+
+            node = child;
+            offset += common;
+        }
+
+        if (node.values == null) {
+            node.values = new TreeSet<>();
+        }
+        if (!node.values.add(value)) {
+            return false;
+        }
+
+        size++;
+        return true;
+    }
+
+    public List<String> withPrefix(String prefix, int limit) {
+        List<String> found = new ArrayList<>();
+        Node node = root;
+        int offset = 0;
+
+        while (offset < prefix.length()) {
+            Node child = node.child(prefix.charAt(offset));
+            if (child == null) {
+                return found;
+            }
+
+            int common = commonPrefix(child.label, prefix, offset);
+            if (offset + common < prefix.length() && common < child.label.length()) {
+                return found;
+            }
+
+            node = child;
+            offset += common;
+        }
+
+        collect(node, found, limit);
+        return found;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void collect(Node node, List<String> found, int limit) {
+        if (node.values != null) {
+            for (String value : node.values) {
+                if (found.size() >= limit) {
+                    return;
+                }
+                found.add(value);
+            }
+        }
+
+        if (node.children != null) {
+            for (Node child : node.children.values()) {
+                if (found.size() >= limit) {
+                    return;
+                }
+                collect(child, found, limit);
+            }
+        }
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+
+        private String label;
+        private TreeMap<Character, Node> children;
+        private TreeSet<String> values;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private Node child(char first) {
+            return children == null ? null : children.get(first);
+        }
+
+        private void putChild(Node child) {
+            if (children == null) {
+                children = new TreeMap<>();
+            }
+            children.put(child.label.charAt(0), child);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.orderservice.search;
+
+import com.example.orderservice.repository.ItemNameRepository;
+import com.example.orderservice.sharding.ShardContext;
+import com.example.orderservice.sharding.ShardTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Item-name search on Postgres. Each shard keeps its distinct item names in
+ * item_names, written in the same transaction as the order, and a pg_trgm GIN
+ * index on it answers both ILIKE prefix queries and similarity queries. The
+ * names table stays small however many orders there are.
+ */
+public class TrigramItemNameSearch implements ItemNameSearch {
+
+    private static final Logger log = LoggerFactory.getLogger(TrigramItemNameSearch.class);
+
+    private final ItemNameRepository itemNameRepository;
+    private final ShardTemplate shardTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxKnownNames;
+
+    // Names this node has seen committed per shard, to skip the insert for them
+    private final Set<String> known = ConcurrentHashMap.newKeySet();
+
+    public TrigramItemNameSearch(ItemNameRepository itemNameRepository,
+                                 ShardTemplate shardTemplate,
+                                 JdbcTemplate jdbcTemplate,
+                                 int maxKnownNames) {
+        this.itemNameRepository = itemNameRepository;
+        this.shardTemplate = shardTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxKnownNames = maxKnownNames;
+    }
+
+    @Override
+    public List<String> prefix(String prefix, int limit) {
+        String pattern = escapeLike(prefix) + "%";
+
+        return shardTemplate.collectFromAllShards(() -> itemNameRepository.findByPrefix(pattern, limit))
+                .stream()
+                .flatMap(List::stream)
+                .distinct()
+                .sorted(Comparator.comparing((String name) -> name.toLowerCase(Locale.ROOT))
+                        .thenComparing(Comparator.naturalOrder()))
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public List<String> fuzzy(String query, int limit) {
+        List<List<String>> perShard = shardTemplate.collectFromAllShards(() -> itemNameRepository.findSimilar(query, limit));
+        if (perShard.size() == 1) {
+            return perShard.get(0);
+        }
+
+        // Each shard ranked its own names; rank the union the same way
+        Set<String> queryTrigrams = Trigrams.of(query);
+        return perShard.stream()
+                .flatMap(List::stream)
+                .distinct()
+                .sorted(Comparator.comparingDouble((String name) -> -Trigrams.similarity(queryTrigrams, Trigrams.of(name)))
+                        .thenComparing(Comparator.naturalOrder()))
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public void recordItem(String itemName) {
+        String key = ShardContext.current() + "/" + itemName;
+        if (known.contains(key)) {
+            return;
+        }
+
+        itemNameRepository.insertIfAbsent(itemName);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remember(key);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(key);
+            }
+        });
+    }
+
+    private void remember(String key) {
+        if (known.size() >= maxKnownNames) {
+            known.clear();
+        }
+        known.add(key);
+    }
+
+    /**
+     * Creates the trigram index on every shard and fills item_names from the
+     * orders on first start.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            shardTemplate.forEachShard(() -> {
+                jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+                jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_item_names_trgm ON item_names USING gin (item_name gin_trgm_ops)");
+
+                if (itemNameRepository.count() == 0) {
+                    log.info("Backfilled {} item names from orders", itemNameRepository.backfillFromOrders());
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not set up trigram item search, set orders.item-search.mode=memory if pg_trgm is unavailable: {}",
+                    e.getMessage());
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
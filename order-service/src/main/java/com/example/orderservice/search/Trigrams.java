@@ -0,0 +1,48 @@
+package com.example.orderservice.search;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Trigrams extracted the way Postgres pg_trgm does: each word is lower-cased
+ * and padded with two spaces in front and one behind. Similarity is shared
+ * trigrams over all distinct trigrams of both strings, so the in-memory index
+ * ranks matches the same as the database one.
+ */
+public final class Trigrams {
+
+    private Trigrams() {
+    }
+
+    public static Set<String> of(String text) {
+        Set<String> trigrams = new HashSet<>();
+
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    public static double similarity(Set<String> a, Set<String> b) {
+        int shared = 0;
+        for (String trigram : a) {
+            if (b.contains(trigram)) {
+                shared++;
+            }
+        }
+        return similarity(shared, a.size(), b.size());
+    }
+
+    public static double similarity(int shared, int sizeA, int sizeB) {
+        int union = sizeA + sizeB - shared;
+        return union == 0 ? 0 : (double) shared / union;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.orderservice.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers successful username/password logins for a short TTL, so a client
+ * sending Basic credentials on every request pays for the password hash once
+ * per TTL rather than per request. Entries are keyed by an HMAC of the
+ * credentials under a per-process random key, so the cache never holds
+ * passwords or anything that can be checked offline against a guess. Failed
+ * logins are not cached, and a changed or removed user keeps working until
+ * its entry expires.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private final AuthenticationProvider delegate;
+    private final Clock clock;
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    private final ThreadLocal<Mac> digest;
+    private final Map<String, Entry> verified = new ConcurrentHashMap<>();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, Clock clock, Duration ttl, int maxEntries,
+                                         MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.ttlMillis = ttl.toMillis();
+        this.maxEntries = maxEntries;
+
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        SecretKeySpec key = new SecretKeySpec(secret, "HmacSHA256");
+        this.digest = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        this.hitCounter = meterRegistry.counter("auth.credentials.cache", "result", "hit");
+        this.missCounter = meterRegistry.counter("auth.credentials.cache", "result", "miss");
+        meterRegistry.gauge("auth.credentials.cache.size", verified, Map::size);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (ttlMillis <= 0 || !(authentication.getCredentials() instanceof String password)) {
+            return delegate.authenticate(authentication);
+        }
+
+        String key = key(authentication.getName(), password);
+        long now = clock.millis();
+
+        Entry entry = verified.get(key);
+        if (entry != null && entry.expiresAt() > now) {
+            hitCounter.increment();
+            return entry.authentication();
+        }
+
+        missCounter.increment();
+        Authentication result = delegate.authenticate(authentication);
+        if (result != null && result.isAuthenticated()) {
+            if (verified.size() >= maxEntries) {
+                verified.values().removeIf(expired -> expired.expiresAt() <= now);
+                if (verified.size() >= maxEntries) {
+                    verified.clear();
+                }
+            }
+            verified.put(key, new Entry(result, now + ttlMillis));
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+
+    private String key(String username, String password) {
+        Mac mac = digest.get();
+        mac.update(username.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        return HexFormat.of().formatHex(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private record Entry(Authentication authentication, long expiresAt) {
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.orderservice.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Issues and verifies HS256 JWTs so bearer requests are authenticated locally
+ * with one HMAC instead of a password hash. Keys are configured as
+ * {@code kid:base64} pairs and decoded once; the first signs, the rest still
+ * verify, which allows rotation. Keys must be at least 256 bits. Only created
+ * with security.token.enabled; then startup fails without configured keys,
+ * unless a local key is allowed (dev): a random key is made, so tokens only
+ * work on this node until it restarts.
+ */
+public class TokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Duration CLOCK_SKEW = Duration.ofSeconds(30);
+    private static final int MIN_KEY_BYTES = 32;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final Duration ttl;
+
+    private final String signingKeyId;
+    private final Map<String, ThreadLocal<Mac>> macs = new LinkedHashMap<>();
+
+    public TokenService(ObjectMapper objectMapper, Clock clock, String keys, Duration ttl, boolean allowLocalKey) {
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.ttl = ttl;
+
+        for (String entry : keys.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int colon = entry.indexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Token keys must be kid:base64 pairs");
+            }
+            String keyId = entry.substring(0, colon).trim();
+            byte[] secret = Base64.getDecoder().decode(entry.substring(colon + 1).trim());
+            if (secret.length < MIN_KEY_BYTES) {
+                throw new IllegalArgumentException("Token key " + keyId + " is " + secret.length
+                        + " bytes, HS256 needs at least " + MIN_KEY_BYTES);
+            }
+            addKey(keyId, secret);
+        }
+
+        if (macs.isEmpty()) {
+            if (!allowLocalKey) {
+                throw new IllegalStateException("security.token.enabled is set but security.token.keys is empty; set shared keys, or security.token.allow-local-key=true for a single dev node");
+            }
+            byte[] secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+            addKey("local", secret);
+            log.warn("No security.token.keys configured, bearer tokens are only valid on this node until restart");
+        }
+        this.signingKeyId = macs.keySet().iterator().next();
+    }
+
+    private void addKey(String keyId, byte[] secret) {
+        SecretKeySpec key = new SecretKeySpec(secret, ALGORITHM);
+        macs.put(keyId, ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public String issue(Authentication authentication) {
+        long now = clock.instant().getEpochSecond();
+
+        ObjectNode header = objectMapper.createObjectNode()
+                .put("alg", "HS256")
+                .put("typ", "JWT")
+                .put("kid", signingKeyId);
+
+        ObjectNode claims = objectMapper.createObjectNode()
+                .put("sub", authentication.getName())
+                .put("iat", now)
+                .put("exp", now + ttl.toSeconds());
+        authentication.getAuthorities().forEach(authority -> claims.withArray("roles").add(authority.getAuthority()));
+
+        String signed = encode(header) + "." + encode(claims);
+        return signed + "." + ENCODER.encodeToString(sign(signingKeyId, signed));
+    }
+
+    /**
+     * Returns the authenticated principal the token was issued to.
+     *
+     * @throws BadCredentialsException if the token is malformed, forged or expired
+     */
+    public Authentication verify(String token) {
+        int first = token.indexOf('.');
+        int last = token.lastIndexOf('.');
+        if (first <= 0 || last == first) {
+            throw new BadCredentialsException("Malformed token");
+        }
+
+        try {
+            JsonNode header = objectMapper.readTree(DECODER.decode(token.substring(0, first)));
+            String keyId = header.path("kid").asText();
+            if (!"HS256".equals(header.path("alg").asText()) || !macs.containsKey(keyId)) {
+                throw new BadCredentialsException("Unsupported token key or algorithm");
+            }
+
+            byte[] expected = sign(keyId, token.substring(0, last));
+            if (!MessageDigest.isEqual(expected, DECODER.decode(token.substring(last + 1)))) {
+                throw new BadCredentialsException("Invalid token signature");
+            }
+
+            JsonNode claims = objectMapper.readTree(DECODER.decode(token.substring(first + 1, last)));
+            if (claims.path("exp").asLong() + CLOCK_SKEW.toSeconds() < clock.instant().getEpochSecond()) {
+                throw new BadCredentialsException("Token expired");
+            }
+
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            claims.path("roles").forEach(role -> authorities.add(new SimpleGrantedAuthority(role.asText())));
+            return UsernamePasswordAuthenticationToken.authenticated(claims.path("sub").asText(), null, authorities);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new BadCredentialsException("Malformed token", e);
+        }
+    }
+
+    private byte[] sign(String keyId, String content) {
+        return macs.get(keyId).get().doFinal(content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private String encode(ObjectNode node) {
+        try {
+            return ENCODER.encodeToString(objectMapper.writeValueAsBytes(node));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
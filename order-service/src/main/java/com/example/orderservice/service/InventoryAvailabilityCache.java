@@ -0,0 +1,157 @@
+package com.example.orderservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * In-process view of which items inventory can currently serve, built from
+ * reservation outcomes and optional availability snapshots. Lets createOrder
+ * turn away orders that are known to fail without the outbox, Kafka and
+ * inventory round trip. Entries expire, so an item that was out of stock is
+ * probed again once its entry is stale.
+ *
+ * A rejection only says that the requested quantity could not be covered, so
+ * it records an upper bound of one less; smaller orders still go through.
+ * Rejections for any other reason say nothing about stock and are ignored.
+ */
+@Component
+public class InventoryAvailabilityCache {
+
+    private final boolean enabled;
+    private final boolean failFast;
+    private final long maxStalenessNanos;
+    private final long unavailableTtlNanos;
+    private final Set<String> outOfStockReasons;
+
+    private final Map<String, Availability> entries;
+
+    private final Counter avoidedCounter;
+    private final Counter staleCounter;
+
+    public InventoryAvailabilityCache(
+            @Value("${inventory.availability.enabled:false}") boolean enabled,
+            @Value("${inventory.availability.mode:reject}") String mode,
+            @Value("${inventory.availability.max-entries:10000}") int maxEntries,
+            @Value("${inventory.availability.max-staleness-ms:30000}") long maxStalenessMs,
+            @Value("${inventory.availability.unavailable-ttl-ms:10000}") long unavailableTtlMs,
+            @Value("${inventory.availability.out-of-stock-reasons:Insufficient stock,Out of stock}") String outOfStockReasons,
+            MeterRegistry meterRegistry) {
+
+        this.enabled = enabled;
+        this.failFast = "fail-fast".equals(mode);
+        this.maxStalenessNanos = Duration.ofMillis(maxStalenessMs).toNanos();
+        this.unavailableTtlNanos = Duration.ofMillis(unavailableTtlMs).toNanos();
+        this.outOfStockReasons = Arrays.stream(outOfStockReasons.split(","))
+                .map(String::trim)
+                .filter(reason -> !reason.isEmpty())
+                .map(reason -> reason.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Availability> eldest) {
+                return size() > maxEntries;
+            }
+        });
+
+        this.avoidedCounter = meterRegistry.counter("inventory.availability.avoided.count");
+        this.staleCounter = meterRegistry.counter("inventory.availability.stale.count");
+        meterRegistry.gaugeMapSize("inventory.availability.entries", List.of(), entries);
+    }
+
+    /**
+     * True when a fresh entry says the item cannot cover the quantity. Each
+     * true answer counts as one avoided inventory round trip.
+     */
+    public boolean isKnownUnavailable(String itemName, int quantity) {
+        if (!enabled) {
+            return false;
+        }
+
+        Availability availability = entries.get(itemName);
+        if (availability == null) {
+            return false;
+        }
+
+        long age = System.nanoTime() - availability.observedAt;
+        long ttl = availability.unavailable ? unavailableTtlNanos : maxStalenessNanos;
+        if (age > ttl) {
+            staleCounter.increment();
+            return false;
+        }
+
+        boolean unavailable = availability.quantity != null
+                ? availability.quantity < quantity
+                : availability.unavailable;
+        if (unavailable) {
+            avoidedCounter.increment();
+        }
+        return unavailable;
+    }
+
+    public boolean isFailFast() {
+        return failFast;
+    }
+
+    public void recordReserved(String itemName, int quantity) {
+        entries.compute(itemName, (name, current) -> {
+            Integer remaining = current == null || current.quantity == null
+                    ? null
+                    : Math.max(0, current.quantity - quantity);
+            return new Availability(false, remaining, System.nanoTime());
+        });
+    }
+
+    /**
+     * Records that inventory could not reserve {@code quantity} of the item.
+     * Only out-of-stock reasons count; returns whether the rejection was recorded.
+     */
+    public boolean recordRejected(String itemName, int quantity, String reason) {
+        if (reason == null || !outOfStockReasons.contains(reason.trim().toLowerCase(Locale.ROOT))) {
+            return false;
+        }
+
+        int atMost = Math.max(0, quantity - 1);
+        entries.merge(itemName, new Availability(true, atMost, System.nanoTime()),
+                (current, rejected) -> current.quantity != null && current.quantity < atMost
+                        ? new Availability(true, current.quantity, rejected.observedAt)
+                        : rejected);
+        return true;
+    }
+
+    /**
+     * Applies a snapshot from inventory. Items missing from the snapshot are
+     * left untouched because a missing item may just mean the read failed.
+     */
+    public void applySnapshot(Map<String, Integer> snapshot) {
+        long now = System.nanoTime();
+        snapshot.forEach((itemName, quantity) ->
+                entries.put(itemName, new Availability(quantity <= 0, quantity, now)));
+    }
+
+    public List<String> trackedItems() {
+        synchronized (entries) {
+            return new ArrayList<>(entries.keySet());
+        }
+    }
+
+    /**
+     * unavailable marks entries learned from a rejection or an empty snapshot,
+     * which expire after the shorter unavailable TTL.
+     */
+    private record Availability(boolean unavailable, Integer quantity, long observedAt) {
+    }
+}
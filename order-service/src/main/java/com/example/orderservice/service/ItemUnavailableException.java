@@ -0,0 +1,8 @@
+package com.example.orderservice.service;
+
+public class ItemUnavailableException extends RuntimeException {
+
+    public ItemUnavailableException(String itemName) {
+        super("Item currently unavailable: " + itemName);
+    }
+}
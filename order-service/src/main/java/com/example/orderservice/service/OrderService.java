@@ -2,19 +2,30 @@ package com.example.orderservice.service;
 
 import com.example.orderservice.dto.OrderRequest;
 import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.dto.OrderStatusResponse;
+import com.example.orderservice.datasource.ReadYourWritesTracker;
 import com.example.orderservice.error.GlobalExceptionHandler;
 import com.example.orderservice.event.OrderCreatedEvent;
+import com.example.orderservice.inbox.ConsumerInbox;
 import com.example.orderservice.mapper.OrderMapper;
 import com.example.orderservice.model.Order;
 import com.example.orderservice.model.OrderStatus;
 import com.example.orderservice.model.OutboxEvent;
 import com.example.orderservice.repository.OrderJpaRepository;
 import com.example.orderservice.repository.OutboxEventRepository;
+import com.example.orderservice.readmodel.OrderChangeLog;
+import com.example.orderservice.scheduler.OrderDeadlineTracker;
+import com.example.orderservice.search.ItemMatch;
+import com.example.orderservice.search.ItemNameSearch;
+import com.example.orderservice.sharding.ShardTemplate;
+import com.example.orderservice.sharding.ShardedBy;
+import com.example.orderservice.stream.OrderStatusNotifier;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.LoggerFactory;
 import org.slf4j.Logger;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.actuate.autoconfigure.wavefront.WavefrontProperties;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
@@ -24,12 +35,15 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class OrderService {
@@ -45,6 +59,23 @@ public class OrderService {
 
     private final OrderMapper orderMapper;
 
+    private final InventoryAvailabilityCache availabilityCache;
+
+    private final ShardTemplate shardTemplate;
+
+    private final OrderDeadlineTracker deadlineTracker;
+
+    private final OrderStatsService statsService;
+
+    private final ItemNameSearch itemNameSearch;
+
+    private final OrderChangeLog changeLog;
+
+    private final OrderStatusNotifier statusNotifier;
+
+    private final ConsumerInbox inbox;
+
+    private final ObjectProvider<ReadYourWritesTracker> writesTracker;
 
     private final Counter orderCreatedCounter;
 
@@ -55,15 +86,25 @@ public class OrderService {
 //        this.sideEffectService = sideEffectService;
 //    }
 
-    public OrderService(OrderJpaRepository orderRepository, OutboxEventRepository outboxEventRepository, OrderMapper orderMapper, MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+    public OrderService(OrderJpaRepository orderRepository, OutboxEventRepository outboxEventRepository, OrderMapper orderMapper, MeterRegistry meterRegistry, ObjectMapper objectMapper, InventoryAvailabilityCache availabilityCache, ShardTemplate shardTemplate, OrderDeadlineTracker deadlineTracker, OrderStatsService statsService, ItemNameSearch itemNameSearch, OrderChangeLog changeLog, OrderStatusNotifier statusNotifier, ConsumerInbox inbox, ObjectProvider<ReadYourWritesTracker> writesTracker) {
 
         this.orderRepository = orderRepository;
         this.outboxEventRepository = outboxEventRepository;
         this.orderMapper = orderMapper;
+        this.availabilityCache = availabilityCache;
+        this.shardTemplate = shardTemplate;
+        this.deadlineTracker = deadlineTracker;
+        this.statsService = statsService;
+        this.itemNameSearch = itemNameSearch;
+        this.changeLog = changeLog;
+        this.statusNotifier = statusNotifier;
+        this.inbox = inbox;
+        this.writesTracker = writesTracker;
         this.orderCreatedCounter = meterRegistry.counter("orders.created.count");
         this.objectMapper = objectMapper;
     }
 
+    @ShardedBy("#request.orderId")
     @Transactional
     public OrderResponse createOrder(OrderRequest request) {
 
@@ -93,7 +134,25 @@ public class OrderService {
                 request.getIdempotencyKey()
         );
 
+        if (availabilityCache.isKnownUnavailable(request.getItemName(), request.getQuantity())) {
+
+            if (!availabilityCache.isFailFast()) {
+                log.info("Rejecting order for unavailable itemName={}", request.getItemName());
+                throw new ItemUnavailableException(request.getItemName());
+            }
+
+            log.info("Failing order fast for unavailable itemName={}", request.getItemName());
+            order.setStatus(OrderStatus.FAILED);
+            Order failed = orderRepository.save(order);
+            itemNameSearch.recordItem(failed.getItemName());
+            changeLog.record(failed);
+            statsService.recordCreated(failed.getItemName(), failed.getStatus(), failed.getQuantity());
+            writesTracker.ifAvailable(ReadYourWritesTracker::recordWrite);
+            return orderMapper.toResponse(failed);
+        }
+
         Order saved = orderRepository.save(order);
+        itemNameSearch.recordItem(saved.getItemName());
 
         try {
             String payload = objectMapper.writeValueAsString(
@@ -113,6 +172,12 @@ public class OrderService {
             throw new RuntimeException("Failed to serialize event", e);
         }
 
+        deadlineTracker.registerAfterCommit(saved.getOrderId());
+        // With replicas, the client's next reads go to the primary until the new order has replicated
+        writesTracker.ifAvailable(ReadYourWritesTracker::recordWrite);
+        statsService.recordCreated(saved.getItemName(), saved.getStatus(), saved.getQuantity());
+        changeLog.record(saved);
+
         orderCreatedCounter.increment();
 
         log.info("Order created successfully with: orderId={}, itemName={}, quantity={}",
@@ -125,6 +190,8 @@ public class OrderService {
     }
 
     @Cacheable(value = "orders", key = "#orderId")
+    @ShardedBy("#orderId")
+    @Transactional(readOnly = true)
     public OrderResponse getOrderById(String orderId) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new OrderNotFoundException(orderId));
@@ -134,67 +201,163 @@ public class OrderService {
         return orderMapper.toResponse(order);
     }
 
+    @ShardedBy("#orderId")
+    @Transactional(readOnly = true)
+    public OrderStatusResponse getOrderStatus(String orderId) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new OrderNotFoundException(orderId));
+
+        return new OrderStatusResponse(order.getOrderId(), order.getStatus(),
+                order.getVersion() == null ? 0 : order.getVersion());
+    }
+
+    /**
+     * Adds to the quantity with an atomic UPDATE rather than read-modify-write,
+     * so concurrent increments to the same order queue on the row lock instead
+     * of failing their version check. See {@link QuantityIncrementCombiner}.
+     */
     @CacheEvict(value = "orders", key = "#orderId")
-    @Transactional(isolation = Isolation.REPEATABLE_READ)
-    public void increaseQuantity(String orderId, int delta) {
+    @ShardedBy("#orderId")
+    @Transactional
+    public OrderResponse addQuantity(String orderId, int delta) {
 
         if (delta <= 0) {
             throw new IllegalArgumentException("Delta must be positive");
         }
 
+        log.debug("Adding {} to quantity of orderId={}", delta, orderId);
 
-        log.info("Updating quantity for orderId={} by {}", orderId, delta);
+        if (orderRepository.incrementQuantity(orderId, delta, LocalDateTime.now()) == 0) {
+            throw new OrderNotFoundException(orderId);
+        }
 
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new OrderNotFoundException(orderId));
 
-        order.setQuantity(order.getQuantity() + delta);
+        statsService.recordQuantityChange(order.getItemName(), order.getStatus(), delta);
+        changeLog.record(order);
+
+        return orderMapper.toResponse(order);
     }
 
     public Page<OrderResponse> getOrders (int page, int size) {
         log.debug("Fetching orders page={} size={}", page, size);
 
-        return orderRepository.findAll(PageRequest.of(page, size))
+        return shardTemplate.scatterGather(PageRequest.of(page, size, Sort.by("orderId")), orderRepository::findAll)
                 .map(orderMapper::toResponse);
     }
 
     public Page<OrderResponse> searchOrders(String itemName, Pageable pageable) {
         log.debug("Searching orders itemName={}", itemName);
 
-        Page<Order> page = (itemName == null)
-                ? orderRepository.findAll(pageable)
-                : orderRepository.findByItemName(itemName, pageable);
+        Page<Order> page = shardTemplate.scatterGather(pageable, shardPageable -> (itemName == null)
+                ? orderRepository.findAll(shardPageable)
+                : orderRepository.findByItemName(itemName, shardPageable));
 
         return page.map(orderMapper::toResponse);
     }
 
+    /**
+     * Prefix and fuzzy matches are resolved to at most {@code maxNames} item
+     * names first; the orders for those names are then paged by exact name.
+     */
+    public Page<OrderResponse> searchOrders(String itemName, ItemMatch match, int maxNames, Pageable pageable) {
+        if (itemName == null || match == ItemMatch.EXACT) {
+            return searchOrders(itemName, pageable);
+        }
+
+        List<String> itemNames = suggestItemNames(itemName, match, maxNames);
+        log.debug("Searching orders itemName={} match={} resolved to {} names", itemName, match, itemNames.size());
+
+        if (itemNames.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        return shardTemplate.scatterGather(pageable, shardPageable -> orderRepository.findByItemNameIn(itemNames, shardPageable))
+                .map(orderMapper::toResponse);
+    }
+
+    public List<String> suggestItemNames(String query, ItemMatch match, int limit) {
+        return match == ItemMatch.FUZZY
+                ? itemNameSearch.fuzzy(query, limit)
+                : itemNameSearch.prefix(query, limit);
+    }
+
 
-    @CacheEvict(value = "orders", key = "#orderId")
+    /**
+     * Returns false, leaving the order and its cache entry alone, if the order
+     * is no longer PENDING.
+     */
+    @CacheEvict(value = "orders", key = "#orderId", condition = "#result")
+    @ShardedBy("#orderId")
     @Transactional
-    public void markOrderCompleted(String orderId) {
+    public boolean markOrderCompleted(String orderId, String messageId) {
 
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new OrderNotFoundException(orderId));
+        inbox.record(messageId);
 
-        order.setStatus(OrderStatus.COMPLETED);
+        Optional<Order> completed = transition(orderId, OrderStatus.COMPLETED);
+        if (completed.isEmpty()) {
+            return false;
+        }
 
-        orderRepository.save(order);
+        Order order = completed.get();
+        availabilityCache.recordReserved(order.getItemName(), order.getQuantity());
 
         log.info("Order Completed: " + orderId);
+        return true;
     }
 
-    @CacheEvict(value = "orders", key = "#orderId")
+    /**
+     * Returns false, leaving the order and its cache entry alone, if the order
+     * is no longer PENDING.
+     */
+    @CacheEvict(value = "orders", key = "#orderId", condition = "#result")
+    @ShardedBy("#orderId")
     @Transactional
-    public void markOrderFailed(String orderId) {
+    public boolean markOrderFailed(String orderId, String messageId, String reason) {
 
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new OrderNotFoundException(orderId));
+        inbox.record(messageId);
 
-        order.setStatus(OrderStatus.FAILED);
+        Optional<Order> failed = transition(orderId, OrderStatus.FAILED);
+        if (failed.isEmpty()) {
+            return false;
+        }
 
-        orderRepository.save(order);
+        Order order = failed.get();
+        availabilityCache.recordRejected(order.getItemName(), order.getQuantity(), reason);
 
         log.info("Order Failed: " + orderId);
+        return true;
+    }
+
+    /**
+     * Moves the order to {@code target} with a conditional update per legal
+     * source status, so an out-of-order or repeated event, or one for an order
+     * that doesn't exist, changes nothing, and the status left is the one
+     * whose update matched. Returns the updated order, or empty if no source
+     * status matched. Runs in the caller's transaction, which must be on the
+     * order's shard; entities loaded in it are detached afterwards.
+     */
+    @Transactional
+    public Optional<Order> transition(String orderId, OrderStatus target) {
+        Set<OrderStatus> sources = target.sources();
+
+        for (OrderStatus source : sources) {
+            if (orderRepository.transition(orderId, source, target, LocalDateTime.now()) == 0) {
+                continue;
+            }
+
+            Order order = orderRepository.findById(orderId)
+                    .orElseThrow(() -> new OrderNotFoundException(orderId));
+
+            statsService.recordStatusChange(order.getQuantity(), source, target);
+            changeLog.record(order);
+            statusNotifier.notifyAfterCommit(order);
+            return Optional.of(order);
+        }
+
+        log.info("Ignoring {} for orderId={}, it is missing or no longer in {}", target, orderId, sources);
+        return Optional.empty();
     }
 }
 
@@ -10,7 +10,7 @@ public class OrderSideEffectService {
 
     private static final Logger log = LoggerFactory.getLogger(OrderSideEffectService.class);
 
-    @Async
+    @Async("sideEffectExecutor")
     public void sendOrderConfirmation(String orderId) {
         log.info("Sending confirmation for orderId={}", orderId);
     }
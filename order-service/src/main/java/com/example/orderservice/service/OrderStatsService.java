@@ -0,0 +1,354 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderStatsResponse;
+import com.example.orderservice.model.OrderStatsEntry;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.repository.OrderJpaRepository;
+import com.example.orderservice.repository.OrderStatsRepository;
+import com.example.orderservice.sharding.ShardTemplate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Order count and quantity sum per status and per item, kept in memory and
+ * updated as order changes commit, so reading them never touches the orders
+ * table. Each node also collects its changes as deltas and adds them to the
+ * order_stats table on every checkpoint, then reloads the table so totals
+ * include the other nodes' changes. {@link #rebuild()} recomputes everything
+ * from the orders themselves when the checkpoint has drifted or is missing.
+ */
+@Service
+public class OrderStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStatsService.class);
+
+    private final OrderJpaRepository orderRepository;
+    private final OrderStatsRepository statsRepository;
+    private final ShardTemplate shardTemplate;
+
+    private final boolean enabled;
+    private final long checkpointIntervalMs;
+
+    // Recording takes the read lock; swapping the delta map out for a flush takes the write lock
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private volatile Map<String, Counts> totals = new ConcurrentHashMap<>();
+    private Map<String, Counts> pending = new ConcurrentHashMap<>();
+    private volatile Instant checkpointedAt;
+
+    private final ScheduledExecutorService checkpointer;
+    private final Counter checkpointFailedCounter;
+
+    public OrderStatsService(OrderJpaRepository orderRepository,
+                             OrderStatsRepository statsRepository,
+                             ShardTemplate shardTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${orders.stats.enabled:true}") boolean enabled,
+                             @Value("${orders.stats.checkpoint-interval-ms:10000}") long checkpointIntervalMs) {
+        this.orderRepository = orderRepository;
+        this.statsRepository = statsRepository;
+        this.shardTemplate = shardTemplate;
+        this.enabled = enabled;
+        this.checkpointIntervalMs = checkpointIntervalMs;
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("Order-Stats-");
+        threadFactory.setDaemon(true);
+        this.checkpointer = Executors.newSingleThreadScheduledExecutor(threadFactory);
+
+        this.checkpointFailedCounter = meterRegistry.counter("orders.stats.checkpoint.failed.count");
+    }
+
+    public void recordCreated(String itemName, OrderStatus status, int quantity) {
+        afterCommit(() -> {
+            add(OrderStatsEntry.STATUS, status.name(), 1, quantity);
+            add(OrderStatsEntry.ITEM, itemName, 1, quantity);
+        });
+    }
+
+    public void recordStatusChange(int quantity, OrderStatus from, OrderStatus to) {
+        if (from == to) {
+            return;
+        }
+
+        afterCommit(() -> {
+            add(OrderStatsEntry.STATUS, from.name(), -1, -quantity);
+            add(OrderStatsEntry.STATUS, to.name(), 1, quantity);
+        });
+    }
+
+    public void recordQuantityChange(String itemName, OrderStatus status, int delta) {
+        afterCommit(() -> {
+            add(OrderStatsEntry.STATUS, status.name(), 0, delta);
+            add(OrderStatsEntry.ITEM, itemName, 0, delta);
+        });
+    }
+
+    public OrderStatsResponse getStats() {
+        Map<String, OrderStatsResponse.Totals> byStatus = new TreeMap<>();
+        Map<String, OrderStatsResponse.Totals> byItem = new TreeMap<>();
+
+        totals.values().forEach(counts -> (OrderStatsEntry.STATUS.equals(counts.dimension) ? byStatus : byItem)
+                .put(counts.key, counts.toTotals()));
+
+        return new OrderStatsResponse(byStatus, byItem, checkpointedAt());
+    }
+
+    /**
+     * Totals of a single item, a lookup in the in-memory map.
+     */
+    public OrderStatsResponse getItemStats(String itemName) {
+        Counts counts = totals.get(OrderStatsEntry.idOf(OrderStatsEntry.ITEM, itemName));
+        OrderStatsResponse.Totals item = counts != null ? counts.toTotals() : new OrderStatsResponse.Totals(0, 0);
+
+        return new OrderStatsResponse(Map.of(), Map.of(itemName, item), checkpointedAt());
+    }
+
+    private String checkpointedAt() {
+        Instant at = checkpointedAt;
+        return at != null ? at.toString() : null;
+    }
+
+    private void afterCommit(Runnable update) {
+        if (!enabled) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    private void add(String dimension, String key, long orderCount, long quantity) {
+        String id = OrderStatsEntry.idOf(dimension, key);
+
+        flushLock.readLock().lock();
+        try {
+            totals.computeIfAbsent(id, k -> new Counts(dimension, key)).add(orderCount, quantity);
+            pending.computeIfAbsent(id, k -> new Counts(dimension, key)).add(orderCount, quantity);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        checkpointer.execute(this::load);
+        checkpointer.scheduleWithFixedDelay(this::checkpoint, checkpointIntervalMs, checkpointIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void load() {
+        try {
+            List<OrderStatsEntry> stored = shardTemplate.read(statsShard(), statsRepository::findAll);
+
+            if (stored.isEmpty()) {
+                log.info("No order stats checkpoint found, rebuilding from orders");
+                rebuild();
+                return;
+            }
+
+            replaceTotals(stored);
+            log.info("Loaded {} order stats from checkpoint", stored.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not load order stats checkpoint: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Adds this node's deltas to the checkpoint table and reloads it. Deltas
+     * that fail to flush are put back and retried on the next checkpoint.
+     */
+    synchronized void checkpoint() {
+        Map<String, Counts> flushing = swapPending();
+
+        try {
+            List<OrderStatsEntry> stored = shardTemplate.write(statsShard(), () -> {
+                LocalDateTime now = LocalDateTime.now();
+
+                for (Counts delta : flushing.values()) {
+                    long orderCount = delta.orderCount.sum();
+                    long quantity = delta.quantity.sum();
+
+                    if (orderCount == 0 && quantity == 0) {
+                        continue;
+                    }
+                    if (statsRepository.increment(delta.id(), orderCount, quantity, now) == 0) {
+                        statsRepository.save(new OrderStatsEntry(delta.dimension, delta.key, orderCount, quantity));
+                    }
+                }
+                return statsRepository.findAll();
+            });
+
+            replaceTotals(stored);
+        } catch (RuntimeException e) {
+            checkpointFailedCounter.increment();
+            log.warn("Order stats checkpoint failed, keeping {} deltas for the next one: {}", flushing.size(), e.getMessage());
+            restorePending(flushing);
+        }
+    }
+
+    /**
+     * Recomputes the stats from the orders on every shard and replaces the
+     * checkpoint with them. Scans the whole orders table; orders that change
+     * while the scan runs, and other nodes' unflushed deltas, may be counted
+     * twice until the next rebuild.
+     */
+    public synchronized void rebuild() {
+        Map<String, Counts> discarded = swapPending();
+
+        try {
+            rebuildFromOrders();
+        } catch (RuntimeException e) {
+            restorePending(discarded);
+            throw e;
+        }
+    }
+
+    private void rebuildFromOrders() {
+
+        Map<String, Counts> fresh = new HashMap<>();
+        for (List<Object[]> rows : shardTemplate.collectFromAllShards(orderRepository::sumByStatus)) {
+            for (Object[] row : rows) {
+                fresh.computeIfAbsent(OrderStatsEntry.idOf(OrderStatsEntry.STATUS, ((OrderStatus) row[0]).name()),
+                                id -> new Counts(OrderStatsEntry.STATUS, ((OrderStatus) row[0]).name()))
+                        .add(((Number) row[1]).longValue(), ((Number) row[2]).longValue());
+            }
+        }
+        for (List<Object[]> rows : shardTemplate.collectFromAllShards(orderRepository::sumByItem)) {
+            for (Object[] row : rows) {
+                fresh.computeIfAbsent(OrderStatsEntry.idOf(OrderStatsEntry.ITEM, (String) row[0]),
+                                id -> new Counts(OrderStatsEntry.ITEM, (String) row[0]))
+                        .add(((Number) row[1]).longValue(), ((Number) row[2]).longValue());
+            }
+        }
+
+        List<OrderStatsEntry> entries = fresh.values().stream()
+                .map(counts -> new OrderStatsEntry(counts.dimension, counts.key, counts.orderCount.sum(), counts.quantity.sum()))
+                .toList();
+
+        shardTemplate.write(statsShard(), () -> {
+            statsRepository.deleteAllInBatch();
+            return statsRepository.saveAll(entries);
+        });
+
+        replaceTotals(entries);
+        log.info("Rebuilt order stats: {} entries", entries.size());
+    }
+
+    private Map<String, Counts> swapPending() {
+        flushLock.writeLock().lock();
+        try {
+            Map<String, Counts> swapped = pending;
+            pending = new ConcurrentHashMap<>();
+            return swapped;
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    private void restorePending(Map<String, Counts> deltas) {
+        flushLock.readLock().lock();
+        try {
+            deltas.forEach((id, delta) -> pending.computeIfAbsent(id, k -> new Counts(delta.dimension, delta.key))
+                    .add(delta.orderCount.sum(), delta.quantity.sum()));
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the totals with the checkpoint plus whatever was recorded on
+     * this node since the deltas were last swapped out.
+     */
+    private void replaceTotals(List<OrderStatsEntry> stored) {
+        Map<String, Counts> loaded = new ConcurrentHashMap<>();
+        for (OrderStatsEntry entry : stored) {
+            loaded.computeIfAbsent(entry.getId(), id -> new Counts(entry.getDimension(), entry.getKey()))
+                    .add(entry.getOrderCount(), entry.getQuantity());
+        }
+
+        flushLock.writeLock().lock();
+        try {
+            pending.forEach((id, delta) -> loaded.computeIfAbsent(id, k -> new Counts(delta.dimension, delta.key))
+                    .add(delta.orderCount.sum(), delta.quantity.sum()));
+            totals = loaded;
+            checkpointedAt = Instant.now();
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    // The checkpoint table lives with the unsharded data on the default shard
+    private String statsShard() {
+        return shardTemplate.shards().get(0);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        checkpointer.shutdownNow();
+
+        if (enabled) {
+            checkpoint();
+        }
+    }
+
+    private static final class Counts {
+
+        private final String dimension;
+        private final String key;
+        private final LongAdder orderCount = new LongAdder();
+        private final LongAdder quantity = new LongAdder();
+
+        private Counts(String dimension, String key) {
+            this.dimension = dimension;
+            this.key = key;
+        }
+
+        private String id() {
+            return OrderStatsEntry.idOf(dimension, key);
+        }
+
+        private void add(long orderCount, long quantity) {
+            this.orderCount.add(orderCount);
+            this.quantity.add(quantity);
+        }
+
+        private OrderStatsResponse.Totals toTotals() {
+            return new OrderStatsResponse.Totals(orderCount.sum(), quantity.sum());
+        }
+    }
+}
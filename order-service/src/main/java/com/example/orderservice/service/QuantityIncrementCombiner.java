@@ -0,0 +1,156 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Merges concurrent quantity increments for the same order into one UPDATE.
+ * The first caller for an order becomes its combiner and writes its own delta
+ * plus every delta queued behind it meanwhile; those callers get the same
+ * result without touching the database. When it is done, the combiner hands
+ * over to the oldest caller still queued, so no caller ends up writing for
+ * the others indefinitely. Orders nobody is incrementing hold no state.
+ *
+ * Combining only happens within this node; increments from different nodes
+ * still meet at the row lock.
+ */
+@Component
+public class QuantityIncrementCombiner {
+
+    // Completes a queued caller's outcome to make it the next combiner
+    private static final Object COMBINE = new Object();
+
+    private final OrderService orderService;
+    private final boolean enabled;
+
+    private final Map<String, HotKey> hotKeys = new ConcurrentHashMap<>();
+
+    private final DistributionSummary batchSize;
+    private final Counter writeCounter;
+
+    public QuantityIncrementCombiner(OrderService orderService,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${orders.increment.combining.enabled:true}") boolean enabled) {
+        this.orderService = orderService;
+        this.enabled = enabled;
+
+        this.batchSize = DistributionSummary.builder("orders.increment.batch.size")
+                .description("Increments combined into each quantity UPDATE")
+                .register(meterRegistry);
+        this.writeCounter = meterRegistry.counter("orders.increment.write.count");
+    }
+
+    public OrderResponse increment(String orderId, int delta) {
+        if (delta <= 0) {
+            throw new IllegalArgumentException("Delta must be positive");
+        }
+
+        if (!enabled) {
+            writeCounter.increment();
+            return orderService.addQuantity(orderId, delta);
+        }
+
+        Increment self = new Increment(delta);
+        boolean[] combiner = new boolean[1];
+
+        hotKeys.compute(orderId, (id, hotKey) -> {
+            if (hotKey == null) {
+                combiner[0] = true;
+                return new HotKey();
+            }
+            hotKey.queued.add(self);
+            return hotKey;
+        });
+
+        if (!combiner[0]) {
+            Object outcome = await(self);
+            if (outcome != COMBINE) {
+                return (OrderResponse) outcome;
+            }
+        }
+        return combine(orderId, self);
+    }
+
+    private OrderResponse combine(String orderId, Increment self) {
+        List<Increment> batch = new ArrayList<>();
+
+        try {
+            long[] total = {self.delta};
+
+            hotKeys.computeIfPresent(orderId, (id, hotKey) -> {
+                // Whatever would overflow the column waits for the next write
+                while (!hotKey.queued.isEmpty() && total[0] + hotKey.queued.peek().delta <= Integer.MAX_VALUE) {
+                    Increment next = hotKey.queued.poll();
+                    total[0] += next.delta;
+                    batch.add(next);
+                }
+                return hotKey;
+            });
+
+            OrderResponse response;
+            try {
+                writeCounter.increment();
+                batchSize.record(batch.size() + 1);
+                response = orderService.addQuantity(orderId, (int) total[0]);
+            } catch (RuntimeException e) {
+                batch.forEach(increment -> increment.outcome.completeExceptionally(e));
+                throw e;
+            }
+
+            batch.forEach(increment -> increment.outcome.complete(response));
+            return response;
+        } finally {
+            handOver(orderId);
+        }
+    }
+
+    private void handOver(String orderId) {
+        hotKeys.compute(orderId, (id, hotKey) -> {
+            Increment next = hotKey.queued.poll();
+            if (next == null) {
+                return null;
+            }
+            next.outcome.complete(COMBINE);
+            return hotKey;
+        });
+    }
+
+    private static Object await(Increment increment) {
+        try {
+            return increment.outcome.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Increment {
+
+        private final int delta;
+        private final CompletableFuture<Object> outcome = new CompletableFuture<>();
+
+        private Increment(int delta) {
+            this.delta = delta;
+        }
+    }
+
+    private static final class HotKey {
+
+        // Only touched inside compute() on the map entry
+        private final ArrayDeque<Increment> queued = new ArrayDeque<>();
+    }
+}
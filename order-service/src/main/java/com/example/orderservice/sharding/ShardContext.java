@@ -0,0 +1,34 @@
+package com.example.orderservice.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard selected for the current thread. Read by {@link ShardRoutingDataSource}
+ * when a transaction fetches its connection, so it must be set before the
+ * transaction starts.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    public static <T> T callOn(String shard, Supplier<T> work) {
+        String previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
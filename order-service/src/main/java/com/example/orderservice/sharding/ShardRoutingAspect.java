@@ -0,0 +1,67 @@
+package com.example.orderservice.sharding;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.Ordered;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.Order;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Selects the shard for {@link ShardedBy} methods. Ordered ahead of the
+ * transaction interceptor so the transaction opens on the right shard.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ShardRoutingAspect {
+
+    private final ConsistentHashRing ring;
+
+    private final SpelExpressionParser parser = new SpelExpressionParser();
+    private final ParameterNameDiscoverer parameterNames = new DefaultParameterNameDiscoverer();
+    private final Map<String, Expression> expressions = new ConcurrentHashMap<>();
+
+    public ShardRoutingAspect(ConsistentHashRing ring) {
+        this.ring = ring;
+    }
+
+    @Around("@annotation(shardedBy)")
+    public Object route(ProceedingJoinPoint joinPoint, ShardedBy shardedBy) throws Throwable {
+
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Object key = expressions
+                .computeIfAbsent(shardedBy.value(), parser::parseExpression)
+                .getValue(new MethodBasedEvaluationContext(null, signature.getMethod(), joinPoint.getArgs(), parameterNames));
+
+        if (key == null) {
+            throw new IllegalArgumentException("Shard key " + shardedBy.value() + " is null");
+        }
+
+        String shard = ring.shardFor(key.toString());
+
+        String current = ShardContext.current();
+        if (TransactionSynchronizationManager.isActualTransactionActive() && !Objects.equals(current, shard)) {
+            throw new IllegalStateException("Cannot switch to " + shard + " inside a transaction on " + current);
+        }
+
+        return ShardContext.callOn(shard, () -> {
+            try {
+                return joinPoint.proceed();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+}
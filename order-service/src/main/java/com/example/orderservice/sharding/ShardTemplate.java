@@ -0,0 +1,198 @@
+package com.example.orderservice.sharding;
+
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs work that is not tied to one order on every shard, each shard in its
+ * own transaction. With sharding disabled there is a single shard and every
+ * call runs inline, so callers don't need to know whether storage is sharded.
+ */
+public class ShardTemplate {
+
+    private final List<String> shards;
+    private final ConsistentHashRing ring;
+    private final TransactionTemplate writeTransaction;
+    private final TransactionTemplate readTransaction;
+    private final Executor executor;
+
+    public ShardTemplate(List<String> shards, PlatformTransactionManager transactionManager, Executor executor) {
+        this(shards, null, transactionManager, executor);
+    }
+
+    public ShardTemplate(ConsistentHashRing ring, PlatformTransactionManager transactionManager, Executor executor) {
+        this(ring.shards(), ring, transactionManager, executor);
+    }
+
+    private ShardTemplate(List<String> shards, ConsistentHashRing ring,
+                          PlatformTransactionManager transactionManager, Executor executor) {
+        this.shards = List.copyOf(shards);
+        this.ring = ring;
+        this.executor = executor;
+
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    public List<String> shards() {
+        return shards;
+    }
+
+    public String shardFor(String key) {
+        return ring != null ? ring.shardFor(key) : shards.get(0);
+    }
+
+    /**
+     * Runs the work once per shard, one shard after another, each in a
+     * read-write transaction.
+     */
+    public void forEachShard(Runnable work) {
+        for (String shard : shards) {
+            ShardContext.callOn(shard, () -> writeTransaction.execute(status -> {
+                work.run();
+                return null;
+            }));
+        }
+    }
+
+    /**
+     * Runs a read-only query on all shards in parallel and returns the results
+     * in shard order.
+     */
+    public <T> List<T> collectFromAllShards(Supplier<T> query) {
+        if (shards.size() == 1) {
+            return List.of(read(shards.get(0), query));
+        }
+
+        List<CompletableFuture<T>> results = shards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> read(shard, query), executor))
+                .toList();
+
+        try {
+            return results.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Pages across shards: every shard returns its first offset + size rows in
+     * the requested order, and the sorted streams are merged to cut the
+     * requested page. Deep pages therefore cost shards x (offset + size) rows.
+     */
+    public <T> Page<T> scatterGather(Pageable pageable, Function<Pageable, Page<T>> query) {
+        if (shards.size() == 1) {
+            return read(shards.get(0), () -> query.apply(pageable));
+        }
+
+        Pageable shardPageable = pageable.isPaged()
+                ? PageRequest.of(0, Math.toIntExact(pageable.getOffset() + pageable.getPageSize()), pageable.getSort())
+                : pageable;
+
+        List<Page<T>> pages = collectFromAllShards(() -> query.apply(shardPageable));
+
+        long total = pages.stream().mapToLong(Page::getTotalElements).sum();
+        long skip = pageable.isPaged() ? pageable.getOffset() : 0;
+        long limit = pageable.isPaged() ? pageable.getPageSize() : Long.MAX_VALUE;
+
+        return new PageImpl<>(merge(pages, comparatorFor(pageable.getSort()), skip, limit), pageable, total);
+    }
+
+    public <T> T read(String shard, Supplier<T> query) {
+        return ShardContext.callOn(shard, () -> readTransaction.execute(status -> query.get()));
+    }
+
+    public <T> T write(String shard, Supplier<T> work) {
+        return ShardContext.callOn(shard, () -> writeTransaction.execute(status -> work.get()));
+    }
+
+    private static <T> List<T> merge(List<Page<T>> pages, Comparator<T> comparator, long skip, long limit) {
+
+        // Ties go to the lower shard so repeated requests page identically.
+        PriorityQueue<Cursor<T>> heads = new PriorityQueue<>(
+                Comparator.<Cursor<T>, T>comparing(Cursor::head, comparator).thenComparingInt(Cursor::shard));
+
+        for (int i = 0; i < pages.size(); i++) {
+            List<T> content = pages.get(i).getContent();
+            if (!content.isEmpty()) {
+                heads.add(new Cursor<>(i, content));
+            }
+        }
+
+        List<T> merged = new ArrayList<>();
+        long position = 0;
+
+        while (!heads.isEmpty() && merged.size() < limit) {
+            Cursor<T> cursor = heads.poll();
+            if (position++ >= skip) {
+                merged.add(cursor.head());
+            }
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Comparator<T> comparatorFor(Sort sort) {
+        Comparator<T> comparator = (a, b) -> 0;
+
+        for (Sort.Order order : sort) {
+            Comparator<Object> values = order.isIgnoreCase()
+                    ? Comparator.comparing(Object::toString, String.CASE_INSENSITIVE_ORDER)
+                    : (Comparator) Comparator.naturalOrder();
+
+            Comparator<T> byProperty = Comparator.comparing(
+                    item -> new BeanWrapperImpl(item).getPropertyValue(order.getProperty()),
+                    Comparator.nullsLast(values));
+
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator;
+    }
+
+    private static final class Cursor<T> {
+
+        private final int shard;
+        private final List<T> content;
+        private int index;
+
+        private Cursor(int shard, List<T> content) {
+            this.shard = shard;
+            this.content = content;
+        }
+
+        private T head() {
+            return content.get(index);
+        }
+
+        private int shard() {
+            return shard;
+        }
+
+        private boolean advance() {
+            return ++index < content.size();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.orderservice.sharding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated method on the shard that owns the given key, e.g.
+ * {@code @ShardedBy("#orderId")}. The key is a SpEL expression over the method
+ * arguments, as with {@code @Cacheable}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardedBy {
+
+    String value();
+}
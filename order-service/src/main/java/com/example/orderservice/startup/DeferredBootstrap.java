@@ -0,0 +1,122 @@
+package com.example.orderservice.startup;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Finishes start-up off the critical path for the fast-startup profile. Once
+ * the application is ready and serving, the Kafka listeners left stopped
+ * (spring.kafka.listener.auto-startup=false), the first service-registry
+ * fetch and the creation of the beans lazy initialization skipped all run in
+ * parallel in the background, so the first requests don't pay for them.
+ */
+@Component
+public class DeferredBootstrap {
+
+    private static final Logger log = LoggerFactory.getLogger(DeferredBootstrap.class);
+
+    private final ConfigurableListableBeanFactory beanFactory;
+    private final ObjectProvider<KafkaListenerEndpointRegistry> kafkaListeners;
+    private final ObjectProvider<DiscoveryClient> discoveryClients;
+    private final boolean enabled;
+
+    private final ExecutorService bootstrap;
+
+    public DeferredBootstrap(ConfigurableListableBeanFactory beanFactory,
+                             ObjectProvider<KafkaListenerEndpointRegistry> kafkaListeners,
+                             ObjectProvider<DiscoveryClient> discoveryClients,
+                             @Value("${startup.deferred-bootstrap.enabled:false}") boolean enabled) {
+        this.beanFactory = beanFactory;
+        this.kafkaListeners = kafkaListeners;
+        this.discoveryClients = discoveryClients;
+        this.enabled = enabled;
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("Startup-");
+        threadFactory.setDaemon(true);
+        this.bootstrap = Executors.newFixedThreadPool(3, threadFactory);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        bootstrap.execute(() -> timed("Kafka listeners", this::startKafkaListeners));
+        bootstrap.execute(() -> timed("Service registry fetch", this::fetchRegistry));
+        bootstrap.execute(() -> timed("Lazy bean warm-up", this::createLazyBeans));
+    }
+
+    private void startKafkaListeners() {
+        KafkaListenerEndpointRegistry registry = kafkaListeners.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+
+        for (MessageListenerContainer container : registry.getListenerContainers()) {
+            if (!container.isRunning()) {
+                container.start();
+            }
+        }
+    }
+
+    private void fetchRegistry() {
+        discoveryClients.orderedStream().forEach(DiscoveryClient::getServices);
+    }
+
+    private void createLazyBeans() {
+        int failed = 0;
+
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+
+            BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+            if (definition.isAbstract() || !definition.isSingleton() || beanFactory.containsSingleton(beanName)) {
+                continue;
+            }
+
+            try {
+                beanFactory.getBean(beanName);
+            } catch (RuntimeException e) {
+                failed++;
+                log.debug("Deferred creation of bean {} failed: {}", beanName, e.getMessage());
+            }
+        }
+
+        if (failed > 0) {
+            log.warn("{} beans could not be created ahead of use; they will be retried when first needed", failed);
+        }
+    }
+
+    private void timed(String step, Runnable work) {
+        long start = System.nanoTime();
+        try {
+            work.run();
+            log.info("{} done {} ms after ready", step, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("{} failed in the background: {}", step, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        bootstrap.shutdownNow();
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.orderservice.startup;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.lang.reflect.Method;
+
+/**
+ * Keeps beans that do work on their own eager when
+ * spring.main.lazy-initialization is on: a {@code @Scheduled} or
+ * {@code @KafkaListener} method is only registered once its bean exists, so a
+ * lazy one would never run.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter scheduledAndListenerBeans() {
+        return (beanName, beanDefinition, beanType) -> AnnotatedElementUtils.hasAnnotation(beanType, KafkaListener.class)
+                || !MethodIntrospector.selectMethods(beanType, (MethodIntrospector.MetadataLookup<Method>) method ->
+                        AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)
+                                || AnnotatedElementUtils.hasAnnotation(method, KafkaListener.class) ? method : null)
+                .isEmpty();
+    }
+}
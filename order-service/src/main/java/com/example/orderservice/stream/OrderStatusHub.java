@@ -0,0 +1,105 @@
+package com.example.orderservice.stream;
+
+import com.example.orderservice.dto.OrderStatusResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Open status subscriptions on this node, by orderId. Almost every order has
+ * zero or one watcher, so each entry is a small array that is copied on
+ * change, and an order's entry disappears with its last subscriber. The total
+ * is capped at orders.status-stream.max-subscribers.
+ */
+@Component
+public class OrderStatusHub {
+
+    /**
+     * A parked request waiting for status changes of one order.
+     */
+    public interface Subscriber {
+
+        /**
+         * Returns false once the subscriber is done and should be dropped.
+         */
+        boolean deliver(OrderStatusResponse status);
+    }
+
+    private static final Subscriber[] NONE = new Subscriber[0];
+
+    private final int maxSubscribers;
+
+    private final Map<String, Subscriber[]> subscribers;
+    private final AtomicInteger count = new AtomicInteger();
+
+    private final Counter rejectedCounter;
+    private final Counter deliveredCounter;
+
+    public OrderStatusHub(MeterRegistry meterRegistry,
+                          @Value("${orders.status-stream.max-subscribers:100000}") int maxSubscribers) {
+        this.maxSubscribers = maxSubscribers;
+        this.subscribers = new ConcurrentHashMap<>(Math.min(maxSubscribers, 1 << 16));
+
+        meterRegistry.gauge("orders.status.subscribers", count);
+        this.rejectedCounter = meterRegistry.counter("orders.status.rejected.count");
+        this.deliveredCounter = meterRegistry.counter("orders.status.delivered.count");
+    }
+
+    /**
+     * Registers the subscriber, or throws when this node is at its limit.
+     */
+    public void subscribe(String orderId, Subscriber subscriber) {
+        if (count.incrementAndGet() > maxSubscribers) {
+            count.decrementAndGet();
+            rejectedCounter.increment();
+            throw new SubscriberLimitException(maxSubscribers);
+        }
+
+        subscribers.merge(orderId, new Subscriber[]{subscriber}, (existing, added) -> {
+            Subscriber[] merged = Arrays.copyOf(existing, existing.length + 1);
+            merged[existing.length] = subscriber;
+            return merged;
+        });
+    }
+
+    public void unsubscribe(String orderId, Subscriber subscriber) {
+        boolean[] removed = new boolean[1];
+
+        subscribers.computeIfPresent(orderId, (id, existing) -> {
+            Subscriber[] remaining = Arrays.stream(existing).filter(s -> s != subscriber).toArray(Subscriber[]::new);
+            removed[0] = remaining.length < existing.length;
+            return remaining.length == 0 ? null : remaining;
+        });
+
+        if (removed[0]) {
+            count.decrementAndGet();
+        }
+    }
+
+    /**
+     * Hands the status to every subscriber of the order on this node.
+     */
+    public void publish(OrderStatusResponse status) {
+        for (Subscriber subscriber : subscribers.getOrDefault(status.getOrderId(), NONE)) {
+            deliveredCounter.increment();
+            if (!subscriber.deliver(status)) {
+                unsubscribe(status.getOrderId(), subscriber);
+            }
+        }
+    }
+
+    public void forEach(Consumer<Subscriber> action) {
+        subscribers.values().forEach(entry -> Arrays.stream(entry).forEach(action));
+    }
+
+    public int size() {
+        return count.get();
+    }
+}
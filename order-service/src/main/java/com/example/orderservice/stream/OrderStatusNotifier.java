@@ -0,0 +1,73 @@
+package com.example.orderservice.stream;
+
+import com.example.orderservice.dto.OrderStatusResponse;
+import com.example.orderservice.event.OrderStatusChangedEvent;
+import com.example.orderservice.kafka.OrderEventProducer;
+import com.example.orderservice.model.Order;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Wakes status subscribers when an order's status changes. Once the change
+ * commits, subscribers on this node are told directly and the change is sent
+ * to the order-status-changed topic, which every node reads with a group of
+ * its own, for subscribers connected elsewhere. Delivery is best effort;
+ * streams and long polls start from the stored status, so a lost
+ * notification only delays a client until its next request.
+ */
+@Component
+public class OrderStatusNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStatusNotifier.class);
+
+    private final OrderStatusHub hub;
+    private final OrderEventProducer producer;
+    private final boolean fanout;
+
+    public OrderStatusNotifier(OrderStatusHub hub,
+                               OrderEventProducer producer,
+                               @Value("${orders.status-stream.fanout-enabled:true}") boolean fanout) {
+        this.hub = hub;
+        this.producer = producer;
+        this.fanout = fanout;
+    }
+
+    public void notifyAfterCommit(Order order) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            notify(order);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // The version was bumped when the transaction flushed
+                OrderStatusNotifier.this.notify(order);
+            }
+        });
+    }
+
+    private void notify(Order order) {
+        long version = order.getVersion() == null ? 0 : order.getVersion();
+        hub.publish(new OrderStatusResponse(order.getOrderId(), order.getStatus(), version));
+
+        if (!fanout) {
+            return;
+        }
+
+        try {
+            producer.sendOrderStatusChanged(new OrderStatusChangedEvent(order.getOrderId(), order.getStatus(), version))
+                    .whenComplete((result, e) -> {
+                        if (e != null) {
+                            log.debug("Status change of orderId={} not fanned out: {}", order.getOrderId(), e.getMessage());
+                        }
+                    });
+        } catch (RuntimeException e) {
+            log.debug("Status change of orderId={} not fanned out: {}", order.getOrderId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.orderservice.stream;
+
+import com.example.orderservice.dto.OrderStatusResponse;
+import com.example.orderservice.service.OrderService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Order status pushed to clients instead of polled: a server-sent event
+ * stream, and a long poll that answers as soon as the order moves past a
+ * known version. Both park as async requests in {@link OrderStatusHub}, so a
+ * waiting client holds no thread, and both start from the stored status so a
+ * change made before they subscribed is not missed.
+ */
+@Component
+public class OrderStatusStreams {
+
+    private final OrderService orderService;
+    private final OrderStatusHub hub;
+
+    private final long streamTimeoutMs;
+    private final long maxPollTimeoutMs;
+    private final long heartbeatMs;
+
+    private final ScheduledExecutorService heartbeats;
+
+    public OrderStatusStreams(OrderService orderService,
+                              OrderStatusHub hub,
+                              @Value("${orders.status-stream.stream-timeout-ms:300000}") long streamTimeoutMs,
+                              @Value("${orders.status-stream.max-poll-timeout-ms:30000}") long maxPollTimeoutMs,
+                              @Value("${orders.status-stream.heartbeat-ms:25000}") long heartbeatMs,
+                              @Value("${orders.status-stream.heartbeat-threads:4}") int heartbeatThreads) {
+        this.orderService = orderService;
+        this.hub = hub;
+        this.streamTimeoutMs = streamTimeoutMs;
+        this.maxPollTimeoutMs = maxPollTimeoutMs;
+        this.heartbeatMs = heartbeatMs;
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("Order-Status-");
+        threadFactory.setDaemon(true);
+        this.heartbeats = Executors.newScheduledThreadPool(heartbeatThreads, threadFactory);
+    }
+
+    /**
+     * Streams the current status and then every change, completing once the
+     * order is COMPLETED or FAILED.
+     */
+    public SseEmitter stream(String orderId) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        StreamSubscriber subscriber = new StreamSubscriber(orderId, emitter);
+
+        hub.subscribe(orderId, subscriber);
+        emitter.onCompletion(() -> hub.unsubscribe(orderId, subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> hub.unsubscribe(orderId, subscriber));
+
+        start(orderId, subscriber);
+        return emitter;
+    }
+
+    /**
+     * Answers with the status once its version is past {@code afterVersion},
+     * or with the status as it is when the timeout runs out. Without
+     * {@code afterVersion}, or for an order already COMPLETED or FAILED,
+     * answers straight away.
+     */
+    public DeferredResult<OrderStatusResponse> poll(String orderId, Long afterVersion, long timeoutMs) {
+        DeferredResult<OrderStatusResponse> result = new DeferredResult<>(Math.min(timeoutMs, maxPollTimeoutMs));
+
+        if (afterVersion == null) {
+            result.setResult(orderService.getOrderStatus(orderId));
+            return result;
+        }
+
+        PollSubscriber subscriber = new PollSubscriber(result, afterVersion);
+
+        hub.subscribe(orderId, subscriber);
+        result.onCompletion(() -> hub.unsubscribe(orderId, subscriber));
+        result.onTimeout(() -> result.setResult(orderService.getOrderStatus(orderId)));
+
+        start(orderId, subscriber);
+        return result;
+    }
+
+    private void start(String orderId, OrderStatusHub.Subscriber subscriber) {
+        OrderStatusResponse current;
+        try {
+            current = orderService.getOrderStatus(orderId);
+        } catch (RuntimeException e) {
+            hub.unsubscribe(orderId, subscriber);
+            throw e;
+        }
+
+        if (!subscriber.deliver(current)) {
+            hub.unsubscribe(orderId, subscriber);
+        }
+    }
+
+    /**
+     * Keeps idle streams from being closed by proxies along the way. The sweep
+     * only queues the sends, which the pool's threads share, so one slow
+     * client holds up at most one of them and never the sweep.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startHeartbeats() {
+        heartbeats.scheduleWithFixedDelay(() -> hub.forEach(subscriber -> {
+            if (subscriber instanceof StreamSubscriber stream && stream.heartbeatPending.compareAndSet(false, true)) {
+                heartbeats.execute(stream::heartbeat);
+            }
+        }), heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+    }
+
+    private final class StreamSubscriber implements OrderStatusHub.Subscriber {
+
+        private final String orderId;
+        private final SseEmitter emitter;
+
+        // Highest version sent; changes arrive both locally and from the topic
+        private long sentVersion = -1;
+
+        private final ReentrantLock sending = new ReentrantLock();
+        private final AtomicBoolean heartbeatPending = new AtomicBoolean();
+
+        private StreamSubscriber(String orderId, SseEmitter emitter) {
+            this.orderId = orderId;
+            this.emitter = emitter;
+        }
+
+        @Override
+        public boolean deliver(OrderStatusResponse status) {
+            sending.lock();
+            try {
+                if (status.getVersion() <= sentVersion) {
+                    return true;
+                }
+                sentVersion = status.getVersion();
+
+                try {
+                    emitter.send(SseEmitter.event()
+                            .name("status")
+                            .id(Long.toString(status.getVersion()))
+                            .data(status));
+                } catch (IOException | IllegalStateException e) {
+                    emitter.completeWithError(e);
+                    return false;
+                }
+
+                if (status.isFinal()) {
+                    emitter.complete();
+                    return false;
+                }
+                return true;
+            } finally {
+                sending.unlock();
+            }
+        }
+
+        void heartbeat() {
+            heartbeatPending.set(false);
+
+            // A send already in progress keeps the connection busy, so there is nothing to add
+            if (!sending.tryLock()) {
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event().comment(""));
+            } catch (IOException | IllegalStateException e) {
+                hub.unsubscribe(orderId, this);
+            } finally {
+                sending.unlock();
+            }
+        }
+    }
+
+    private static final class PollSubscriber implements OrderStatusHub.Subscriber {
+
+        private final DeferredResult<OrderStatusResponse> result;
+        private final long afterVersion;
+
+        private PollSubscriber(DeferredResult<OrderStatusResponse> result, long afterVersion) {
+            this.result = result;
+            this.afterVersion = afterVersion;
+        }
+
+        @Override
+        public boolean deliver(OrderStatusResponse status) {
+            if (status.getVersion() <= afterVersion && !status.isFinal()) {
+                return true;
+            }
+            result.setResult(status);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.orderservice.stream;
+
+public class SubscriberLimitException extends RuntimeException {
+
+    public SubscriberLimitException(int maxSubscribers) {
+        super("Too many open order status streams on this node (" + maxSubscribers + "), retry later");
+    }
+}
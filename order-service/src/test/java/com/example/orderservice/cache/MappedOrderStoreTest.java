@@ -0,0 +1,137 @@
+package com.example.orderservice.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedOrderStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private static OrderSnapshot snapshot(String orderId, String itemName, int quantity, long version) {
+        return new OrderSnapshot(orderId, itemName, quantity, "key-" + orderId, version,
+                LocalDateTime.of(2026, 1, 1, 0, 0).plusSeconds(version), true);
+    }
+
+    @Test
+    void shouldStoreReplaceAndRemoveSnapshots() throws Exception {
+        try (MappedOrderStore store = new MappedOrderStore(dir.resolve("orders.dat"), 64, 8)) {
+            assertTrue(store.put(snapshot("o-1", "Pen", 2, 0)));
+            assertTrue(store.put(snapshot("o-2", "Notebook", 1, 3)));
+            assertTrue(store.put(snapshot("o-1", "Pen", 5, 1)));
+
+            assertEquals(snapshot("o-1", "Pen", 5, 1), store.get("o-1"));
+            assertEquals(snapshot("o-2", "Notebook", 1, 3), store.get("o-2"));
+            assertNull(store.get("o-3"));
+            assertEquals(2, store.size());
+
+            assertTrue(store.remove("o-1"));
+            assertNull(store.get("o-1"));
+            assertEquals(1, store.size());
+
+            assertFalse(store.put(snapshot("o-4", "x".repeat(MappedOrderStore.MAX_DATA), 1, 0)));
+        }
+    }
+
+    @Test
+    void shouldKeepSnapshotsAcrossReopenUntilValidated() throws Exception {
+        Path file = dir.resolve("orders.dat");
+
+        try (MappedOrderStore store = new MappedOrderStore(file, 64, 8)) {
+            store.put(snapshot("o-1", "Pen", 2, 4));
+            store.put(snapshot("o-2", "Paper", 1, 0));
+        }
+
+        try (MappedOrderStore store = new MappedOrderStore(file, 64, 8)) {
+            assertEquals(2, store.generation());
+            assertEquals(2, store.size());
+            assertFalse(store.get("o-1").validated());
+
+            List<OrderSnapshot> unvalidated = new ArrayList<>();
+            assertEquals(store.capacity(), store.scanUnvalidated(0, 10, unvalidated));
+            assertEquals(2, unvalidated.size());
+
+            assertFalse(store.markValidated("o-1", 5));
+            assertTrue(store.markValidated("o-1", 4));
+            assertEquals(snapshot("o-1", "Pen", 2, 4), store.get("o-1"));
+
+            unvalidated.clear();
+            store.scanUnvalidated(0, 10, unvalidated);
+            assertEquals(List.of("o-2"), unvalidated.stream().map(OrderSnapshot::orderId).toList());
+        }
+
+        // A different capacity starts the file over
+        try (MappedOrderStore store = new MappedOrderStore(file, 128, 8)) {
+            assertEquals(0, store.size());
+            assertNull(store.get("o-1"));
+        }
+    }
+
+    @Test
+    void shouldOnlyRemoveTheVersionThatWasChecked() throws Exception {
+        try (MappedOrderStore store = new MappedOrderStore(dir.resolve("orders.dat"), 64, 8)) {
+            store.put(snapshot("o-1", "Pen", 2, 4));
+
+            assertFalse(store.remove("o-1", 3));
+            assertEquals(snapshot("o-1", "Pen", 2, 4), store.get("o-1"));
+
+            assertTrue(store.remove("o-1", 4));
+            assertNull(store.get("o-1"));
+            assertEquals(0, store.size());
+        }
+    }
+
+    @Test
+    void shouldTreatCorruptedRecordAsMiss() throws Exception {
+        Path file = dir.resolve("orders.dat");
+
+        try (MappedOrderStore store = new MappedOrderStore(file, 64, 8)) {
+            store.put(snapshot("o-1", "Fountain Pen", 2, 4));
+        }
+
+        byte[] content = Files.readAllBytes(file);
+        byte[] item = "Fountain Pen".getBytes(StandardCharsets.UTF_8);
+        int at = indexOf(content, item);
+        assertTrue(at > 0);
+        content[at] ^= 0x20;
+        Files.write(file, content);
+
+        try (MappedOrderStore store = new MappedOrderStore(file, 64, 8)) {
+            assertNull(store.get("o-1"));
+            assertEquals(0, store.size());
+        }
+    }
+
+    @Test
+    void shouldOverwriteWhenProbeRangeIsFull() throws Exception {
+        try (MappedOrderStore store = new MappedOrderStore(dir.resolve("orders.dat"), 8, 2)) {
+            for (int i = 0; i < 100; i++) {
+                assertTrue(store.put(snapshot("o-" + i, "Pen", i, i)));
+                assertEquals(snapshot("o-" + i, "Pen", i, i), store.get("o-" + i));
+            }
+            assertTrue(store.size() <= store.capacity());
+        }
+    }
+
+    private static int indexOf(byte[] content, byte[] needle) {
+        outer:
+        for (int i = 0; i <= content.length - needle.length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (content[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
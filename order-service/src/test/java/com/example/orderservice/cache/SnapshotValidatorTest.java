@@ -0,0 +1,82 @@
+package com.example.orderservice.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class SnapshotValidatorTest {
+
+    @TempDir
+    Path dir;
+
+    private static OrderSnapshot snapshot(String orderId, long version) {
+        return new OrderSnapshot(orderId, "Pen", 1, "key-" + orderId, version,
+                LocalDateTime.of(2026, 1, 1, 0, 0), true);
+    }
+
+    @Test
+    void shouldKeepMatchingSnapshotsAndDropTheRest() throws Exception {
+        Path file = dir.resolve("orders.dat");
+        try (MappedOrderStore store = new MappedOrderStore(file, 64, 8)) {
+            for (int i = 0; i < 5; i++) {
+                store.put(snapshot("o-" + i, i));
+            }
+        }
+
+        OrderVersionLookup versionLookup = mock(OrderVersionLookup.class);
+        // o-3 has moved on to version 4 and o-4 was deleted
+        when(versionLookup.versions(any())).thenAnswer(invocation -> {
+            Map<String, Long> versions = new HashMap<>();
+            for (String orderId : invocation.<Collection<String>>getArgument(0)) {
+                long version = Long.parseLong(orderId.substring(2));
+                if (version < 4) {
+                    versions.put(orderId, version == 3 ? 4L : version);
+                }
+            }
+            return versions;
+        });
+
+        try (MappedOrderStore store = new MappedOrderStore(file, 64, 8)) {
+            new SnapshotValidator(store, versionLookup, 2).validate();
+
+            for (int i = 0; i < 3; i++) {
+                assertTrue(store.get("o-" + i).validated());
+            }
+            assertNull(store.get("o-3"));
+            assertNull(store.get("o-4"));
+            assertEquals(3, store.size());
+            verify(versionLookup, times(3)).versions(any());
+        }
+    }
+
+    @Test
+    void shouldKeepASnapshotRewrittenDuringTheLookup() throws Exception {
+        Path file = dir.resolve("orders.dat");
+        try (MappedOrderStore store = new MappedOrderStore(file, 64, 8)) {
+            store.put(snapshot("o-1", 1));
+        }
+
+        try (MappedOrderStore store = new MappedOrderStore(file, 64, 8)) {
+            OrderVersionLookup versionLookup = mock(OrderVersionLookup.class);
+            when(versionLookup.versions(any())).thenAnswer(invocation -> {
+                store.put(snapshot("o-1", 2));
+                return Map.of("o-1", 2L);
+            });
+
+            new SnapshotValidator(store, versionLookup, 10).validate();
+
+            OrderSnapshot kept = store.get("o-1");
+            assertEquals(2, kept.version());
+            assertTrue(kept.validated());
+        }
+    }
+}
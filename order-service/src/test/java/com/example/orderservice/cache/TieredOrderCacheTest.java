@@ -0,0 +1,128 @@
+package com.example.orderservice.cache;
+
+import com.example.orderservice.dto.OrderResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TieredOrderCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private final Cache heap = new ConcurrentMapCache("orders");
+    private final OrderVersionLookup versionLookup = mock(OrderVersionLookup.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private MappedOrderStore store;
+
+    @AfterEach
+    void close() throws IOException {
+        store.close();
+    }
+
+    private static OrderSnapshot snapshot(String orderId, int quantity, long version) {
+        return new OrderSnapshot(orderId, "Pen", quantity, "key-" + orderId, version,
+                LocalDateTime.of(2026, 1, 1, 0, 0).plusSeconds(version), true);
+    }
+
+    private TieredOrderCache open() throws IOException {
+        if (store != null) {
+            store.close();
+        }
+        store = new MappedOrderStore(dir.resolve("orders.dat"), 64, 8);
+        return new TieredOrderCache(heap, store, versionLookup, meterRegistry);
+    }
+
+    private double requests(String result) {
+        return meterRegistry.counter("orders.snapshot.requests", "result", result).count();
+    }
+
+    @Test
+    void shouldWriteAndEvictBothLevels() throws IOException {
+        TieredOrderCache cache = open();
+
+        cache.put("o-1", snapshot("o-1", 2, 1).toResponse());
+        assertNotNull(heap.get("o-1"));
+        assertEquals(1, store.get("o-1").version());
+
+        cache.evict("o-1");
+        assertNull(heap.get("o-1"));
+        assertNull(store.get("o-1"));
+        assertNull(cache.get("o-1"));
+        assertEquals(1, requests("miss"));
+    }
+
+    @Test
+    void shouldServeStoreHitsWithoutCopyingThemToTheHeap() throws IOException {
+        TieredOrderCache cache = open();
+        store.put(snapshot("o-1", 2, 1));
+
+        OrderResponse response = cache.get("o-1", OrderResponse.class);
+
+        assertEquals(2, response.getQuantity());
+        assertEquals(1L, response.getVersion());
+        assertNull(heap.get("o-1"));
+        assertEquals(1, requests("hit"));
+        verifyNoInteractions(versionLookup);
+    }
+
+    @Test
+    void shouldServeASnapshotFromBeforeARestartOnlyOnceItsVersionMatches() throws IOException {
+        open();
+        store.put(snapshot("o-1", 2, 4));
+        store.put(snapshot("o-2", 1, 7));
+
+        TieredOrderCache cache = open();
+        when(versionLookup.versions(List.of("o-1"))).thenReturn(Map.of("o-1", 4L));
+        when(versionLookup.versions(List.of("o-2"))).thenReturn(Map.of("o-2", 8L));
+
+        assertEquals(4L, cache.get("o-1", OrderResponse.class).getVersion());
+        assertTrue(store.get("o-1").validated());
+
+        assertNull(cache.get("o-2"));
+        assertNull(store.get("o-2"));
+        assertEquals(1, requests("stale"));
+    }
+
+    @Test
+    void shouldKeepANewerSnapshotWrittenWhileAStaleOneWasChecked() throws IOException {
+        open();
+        store.put(snapshot("o-1", 2, 4));
+
+        TieredOrderCache cache = open();
+        when(versionLookup.versions(List.of("o-1"))).thenAnswer(invocation -> {
+            cache.put("o-1", snapshot("o-1", 3, 5).toResponse());
+            return Map.of("o-1", 5L);
+        });
+
+        assertFalse(store.get("o-1").validated());
+
+        assertNull(cache.get("o-1"));
+        assertEquals(5, store.get("o-1").version());
+        assertEquals(3, cache.get("o-1", OrderResponse.class).getQuantity());
+    }
+
+    @Test
+    void shouldCallTheLoaderOnlyOnAMissInBothLevels() throws IOException {
+        TieredOrderCache cache = open();
+        store.put(snapshot("o-1", 2, 1));
+
+        assertEquals(2, cache.<OrderResponse>get("o-1", () -> fail("loaded a cached order")).getQuantity());
+        assertEquals(9, cache.get("o-2", () -> snapshot("o-2", 9, 1).toResponse()).getQuantity());
+        assertNotNull(heap.get("o-2"));
+        assertEquals(1, store.get("o-2").version());
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.readmodel.OrderQueryService;
+import com.example.orderservice.service.OrderService;
+import com.example.orderservice.service.OrderStatsService;
+import com.example.orderservice.service.QuantityIncrementCombiner;
+import com.example.orderservice.stream.OrderStatusStreams;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class OrderETagsTest {
+
+    private OrderQueryService orderQueryService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setup() {
+        orderQueryService = mock(OrderQueryService.class);
+        OrderController controller = new OrderController(mock(OrderService.class), mock(OrderStatsService.class),
+                orderQueryService, mock(QuantityIncrementCombiner.class), mock(OrderStatusStreams.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void shouldAnswerMatchingVersionWithNotModified() throws Exception {
+        when(orderQueryService.getOrderById("ord-1", null)).thenReturn(order("ord-1", 3L));
+
+        mockMvc.perform(get("/orders/ord-1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(header().string("Cache-Control", "no-cache, private"));
+
+        mockMvc.perform(get("/orders/ord-1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/orders/ord-1").header("If-None-Match", "\"2\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldAnswerAMatchingVersionWithoutLoadingTheOrder() throws Exception {
+        when(orderQueryService.currentVersion("ord-1", null)).thenReturn(3L);
+        when(orderQueryService.getOrderById("ord-1", null)).thenReturn(order("ord-1", 4L));
+
+        mockMvc.perform(get("/orders/ord-1").header("If-None-Match", "\"2\", \"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andExpect(content().string(""));
+        verify(orderQueryService, never()).getOrderById(anyString(), any());
+
+        // Without a validator the version is not looked up at all
+        mockMvc.perform(get("/orders/ord-1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+        verify(orderQueryService).currentVersion("ord-1", null);
+    }
+
+    @Test
+    void shouldChangePageETagWhenAnyOrderChanges() throws Exception {
+        PageRequest pageable = PageRequest.of(0, 10);
+        when(orderQueryService.getOrders(0, 10, false))
+                .thenReturn(new PageImpl<>(List.of(order("ord-1", 1L), order("ord-2", 1L)), pageable, 2));
+
+        MvcResult first = mockMvc.perform(get("/orders")).andExpect(status().isOk()).andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+        assertTrue(etag.startsWith("W/\""));
+
+        mockMvc.perform(get("/orders").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        when(orderQueryService.getOrders(0, 10, false))
+                .thenReturn(new PageImpl<>(List.of(order("ord-1", 1L), order("ord-2", 2L)), pageable, 2));
+
+        MvcResult changed = mockMvc.perform(get("/orders").header("If-None-Match", etag))
+                .andExpect(status().isOk()).andReturn();
+        assertNotEquals(etag, changed.getResponse().getHeader("ETag"));
+    }
+
+    private static OrderResponse order(String orderId, long version) {
+        return new OrderResponse(orderId, "Laptop", 1, "key-" + orderId, version,
+                LocalDateTime.of(2026, 1, 1, 0, 0).plusSeconds(version));
+    }
+}
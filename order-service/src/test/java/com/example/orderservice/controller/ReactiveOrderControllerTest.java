@@ -0,0 +1,111 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.error.GlobalExceptionHandler;
+import com.example.orderservice.readmodel.OrderQueryService;
+import com.example.orderservice.service.OrderNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class ReactiveOrderControllerTest {
+
+    private OrderQueryService orderQueryService;
+    private ReactiveOrderController controller;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setup() {
+        orderQueryService = mock(OrderQueryService.class);
+        controller = new ReactiveOrderController(orderQueryService, 1, 1);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @AfterEach
+    void teardown() {
+        controller.shutdown();
+    }
+
+    @Test
+    void shouldReadOffTheRequestThread() throws Exception {
+        AtomicReference<String> readThread = new AtomicReference<>();
+        when(orderQueryService.getOrderById("ord-1", null)).thenAnswer(invocation -> {
+            readThread.set(Thread.currentThread().getName());
+            return new OrderResponse("ord-1", "Laptop", 1, "key-1", 4L);
+        });
+
+        MvcResult started = mockMvc.perform(get("/reactive/orders/ord-1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.orderId").value("ord-1"));
+
+        assertTrue(readThread.get().startsWith("Order-Read"), readThread.get());
+    }
+
+    @Test
+    void shouldAnswerMatchingVersionWithNotModified() throws Exception {
+        when(orderQueryService.getOrderById("ord-1", null)).thenReturn(new OrderResponse("ord-1", "Laptop", 1, "key-1", 4L));
+
+        MvcResult started = mockMvc.perform(get("/reactive/orders/ord-1").header("If-None-Match", "\"4\""))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void shouldAnswerServiceUnavailableWhenTheReadQueueIsFull() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderQueryService.getOrderById("slow", null)).thenAnswer(invocation -> {
+            running.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new OrderResponse("slow", "Laptop", 1, "key-1", 1L);
+        });
+
+        try {
+            // One read running and one queued fill the scheduler
+            mockMvc.perform(get("/reactive/orders/slow"));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            mockMvc.perform(get("/reactive/orders/slow"));
+
+            MvcResult rejected = mockMvc.perform(get("/reactive/orders/slow")).andReturn();
+            mockMvc.perform(asyncDispatch(rejected))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"))
+                    .andExpect(jsonPath("$.message").value("Too many reads in progress, please retry"));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void shouldMapErrorsLikeTheBlockingApi() throws Exception {
+        when(orderQueryService.getOrderById("missing", null)).thenThrow(new OrderNotFoundException("missing"));
+
+        MvcResult started = mockMvc.perform(get("/reactive/orders/missing")).andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.readmodel.OrderQueryService;
+import com.example.orderservice.service.OrderService;
+import com.example.orderservice.service.OrderStatsService;
+import com.example.orderservice.service.QuantityIncrementCombiner;
+import com.example.orderservice.stream.OrderStatusStreams;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Holds 64, 256 and 1024 concurrent slow reads (a 20ms query) against
+ * GET /orders/{id} and GET /reactive/orders/{id} on a real Tomcat with 32
+ * request threads, while a single client measures a fast read (a cache hit)
+ * alongside. Both variants get 32 threads for the query itself, so slow-read
+ * throughput is comparable; what differs is whether the fast read has to wait
+ * for a Tomcat thread. Not part of the regular test run:
+ * {@code mvn test -Dtest=ReactiveReadBenchmark}
+ */
+public class ReactiveReadBenchmark {
+
+    private static final long QUERY_MS = 20;
+    private static final int[] CONCURRENCY = {64, 256, 1024};
+    private static final long RUN_MS = 5000;
+
+    @Test
+    void compareUnderConcurrency() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Web.class)
+                .properties("spring.config.name=reactive-read-benchmark", "spring.cloud.config.enabled=false", "server.port=0", "server.tomcat.threads.max=32", "server.tomcat.accept-count=2000",
+                        "orders.reactive-api.max-threads=32", "spring.main.banner-mode=off", "logging.level.root=warn")
+                .run()) {
+            String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+            run(client, base, "/orders/slow", 64, false);
+            for (int concurrency : CONCURRENCY) {
+                run(client, base, "/orders/slow", concurrency, true);
+                run(client, base, "/reactive/orders/slow", concurrency, true);
+            }
+        }
+    }
+
+    private void run(HttpClient client, String base, String path, int concurrency, boolean report) throws Exception {
+        HttpRequest slow = HttpRequest.newBuilder(URI.create(base + path)).build();
+        HttpRequest fast = HttpRequest.newBuilder(URI.create(base + "/orders/cached")).build();
+
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong completed = new AtomicLong();
+
+        Thread load = new Thread(() -> {
+            while (running.get()) {
+                inFlight.acquireUninterruptibly();
+                client.sendAsync(slow, HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((response, error) -> {
+                            completed.incrementAndGet();
+                            inFlight.release();
+                        });
+            }
+        });
+
+        List<Long> fastNanos = new ArrayList<>();
+        long start = System.nanoTime();
+        load.start();
+        while (System.nanoTime() - start < RUN_MS * 1_000_000) {
+            long sent = System.nanoTime();
+            client.send(fast, HttpResponse.BodyHandlers.discarding());
+            fastNanos.add(System.nanoTime() - sent);
+        }
+        running.set(false);
+        load.join();
+        long elapsed = System.nanoTime() - start;
+
+        // Let the remaining slow reads finish before the next run
+        inFlight.acquire(concurrency);
+        CompletableFuture.runAsync(() -> { }).join();
+
+        if (report) {
+            Collections.sort(fastNanos);
+            System.out.printf("%-22s %5d concurrent: %6.0f slow reads/s, fast read p50 %6.1fms p99 %7.1fms%n",
+                    path, concurrency, completed.get() * 1e9 / elapsed,
+                    fastNanos.get(fastNanos.size() / 2) / 1e6, fastNanos.get(fastNanos.size() * 99 / 100) / 1e6);
+        }
+    }
+
+    @Configuration
+    @ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class, JacksonAutoConfiguration.class})
+    @Import(ReactiveOrderController.class)
+    static class Web {
+
+        @Bean
+        OrderQueryService orderQueryService() {
+            OrderQueryService orderQueryService = mock(OrderQueryService.class, withSettings().stubOnly());
+            when(orderQueryService.getOrderById("cached", null)).thenReturn(new OrderResponse("cached", "Laptop", 1, "key", 1L));
+            when(orderQueryService.getOrderById("slow", null)).thenAnswer(invocation -> {
+                Thread.sleep(QUERY_MS);
+                return new OrderResponse("slow", "Laptop", 1, "key", 1L);
+            });
+            return orderQueryService;
+        }
+
+        @Bean
+        OrderController orderController(OrderQueryService orderQueryService) {
+            return new OrderController(mock(OrderService.class), mock(OrderStatsService.class), orderQueryService,
+                    mock(QuantityIncrementCombiner.class), mock(OrderStatusStreams.class));
+        }
+    }
+}
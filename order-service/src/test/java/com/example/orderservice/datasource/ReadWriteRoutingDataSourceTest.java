@@ -0,0 +1,207 @@
+package com.example.orderservice.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReadWriteRoutingDataSourceTest {
+
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+    private ReadWriteRoutingDataSource routing;
+    private ReplicaRoutingDataSource replicaRouting;
+    private ReadYourWritesTracker writesTracker;
+
+    @BeforeEach
+    void setup() {
+        primary = h2("primary");
+        replica = h2("replica");
+
+        new JdbcTemplate(replica).execute("CREATE TABLE replica_lag (ms BIGINT)");
+        new JdbcTemplate(replica).update("INSERT INTO replica_lag VALUES (0)");
+
+        writesTracker = new ReadYourWritesTracker(Duration.ofMinutes(1), 100, "X-Client-Id");
+        replicaRouting = new ReplicaRoutingDataSource(
+                primary,
+                Map.of("replica-1", replica),
+                writesTracker,
+                "SELECT ms FROM replica_lag",
+                Duration.ofMillis(500),
+                Duration.ofHours(1),
+                new SimpleMeterRegistry()
+        );
+        routing = new ReadWriteRoutingDataSource(primary, replicaRouting);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        RequestContextHolder.resetRequestAttributes();
+        routing.close();
+    }
+
+    private static HikariDataSource h2(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        jdbc.update("DELETE FROM node");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        jdbc.execute("DROP TABLE IF EXISTS replica_lag");
+        return dataSource;
+    }
+
+    private String readNode(boolean readOnly) {
+        TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(routing));
+        tx.setReadOnly(readOnly);
+        return tx.execute(status -> new JdbcTemplate(routing).queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private String readNodeWithJpa(EntityManagerFactory entityManagerFactory, boolean readOnly) {
+        TransactionTemplate tx = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+        tx.setReadOnly(readOnly);
+        return tx.execute(status -> {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            return (String) entityManager.createNativeQuery("SELECT name FROM node").getSingleResult();
+        });
+    }
+
+    private void write(boolean commit) {
+        TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(routing));
+        tx.executeWithoutResult(status -> {
+            new JdbcTemplate(routing).update("UPDATE node SET name = name");
+            writesTracker.recordWrite();
+            if (!commit) {
+                status.setRollbackOnly();
+            }
+        });
+    }
+
+    private void client(String clientId, String address) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(address);
+        if (clientId != null) {
+            request.addHeader("X-Client-Id", clientId);
+        }
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @Test
+    void shouldSendReadOnlyTransactionsToReplica() {
+        assertEquals("replica", readNode(true));
+        assertEquals("primary", readNode(false));
+    }
+
+    @Test
+    void shouldRouteJpaTransactionsByTheirReadOnlyFlag() {
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(routing);
+        factoryBean.setPackagesToScan("com.example.orderservice.datasource");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of(
+                "hibernate.dialect", "org.hibernate.dialect.H2Dialect",
+                "hibernate.boot.allow_jdbc_metadata_access", "false"));
+        factoryBean.afterPropertiesSet();
+
+        EntityManagerFactory entityManagerFactory = factoryBean.getObject();
+        try {
+            assertEquals("replica", readNodeWithJpa(entityManagerFactory, true));
+            assertEquals("primary", readNodeWithJpa(entityManagerFactory, false));
+
+            client("alice", "10.0.0.1");
+            write(true);
+            assertEquals("primary", readNodeWithJpa(entityManagerFactory, true));
+        } finally {
+            factoryBean.destroy();
+        }
+    }
+
+    @Test
+    void shouldRouteConnectionsWithCredentials() throws Exception {
+        // Hikari pools keep their own credentials, so the chosen pool refuses others
+        assertThrows(SQLFeatureNotSupportedException.class, () -> replicaRouting.getConnection("sa", ""));
+    }
+
+    @Test
+    void shouldPinRecentWriterToPrimary() {
+        client("alice", "10.0.0.1");
+        write(true);
+
+        assertEquals("primary", readNode(true));
+
+        // Same principal and address, different client
+        client("bob", "10.0.0.1");
+        assertEquals("replica", readNode(true));
+    }
+
+    @Test
+    void shouldPinClientsWithoutHeaderByAddress() {
+        client(null, "10.0.0.1");
+        write(true);
+
+        assertEquals("primary", readNode(true));
+
+        client(null, "10.0.0.2");
+        assertEquals("replica", readNode(true));
+    }
+
+    @Test
+    void shouldNotPinWithoutACommittedWrite() {
+        client("alice", "10.0.0.1");
+
+        readNode(false);
+        assertEquals("replica", readNode(true));
+
+        write(false);
+        assertEquals("replica", readNode(true));
+    }
+
+    @Test
+    void shouldNotPinWorkOutsideARequest() {
+        write(true);
+
+        assertEquals("replica", readNode(true));
+    }
+
+    @Test
+    void shouldSkipReplicaWhileLagging() {
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET ms = 5000");
+        replicaRouting.checkLag();
+
+        assertEquals("primary", readNode(true));
+
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET ms = 100");
+        replicaRouting.checkLag();
+
+        assertEquals("replica", readNode(true));
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenReplicaIsDown() {
+        replica.close();
+
+        assertEquals("primary", readNode(true));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.orderservice.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class StatementRecorderTest {
+
+    private HikariDataSource pool;
+    private SimpleMeterRegistry meterRegistry;
+    private StatementRecorder recorder;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setup() {
+        pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:statements;DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        new JdbcTemplate(pool).execute("CREATE TABLE IF NOT EXISTS item (id INT, name VARCHAR(20))");
+
+        meterRegistry = new SimpleMeterRegistry();
+        recorder = new StatementRecorder(meterRegistry, Duration.ofSeconds(10), 3, 0, 100);
+        jdbc = new JdbcTemplate(new InstrumentedDataSource(pool, () -> recorder));
+    }
+
+    @AfterEach
+    void close() {
+        new JdbcTemplate(pool).execute("DROP TABLE item");
+        pool.close();
+    }
+
+    @Test
+    void shouldNormalizeLiteralsAndInLists() {
+        SqlShape shape = SqlShape.of("select o1_0.order_id from   orders o1_0\n where o1_0.item_name = 'Pen' and o1_0.quantity > 5 and o1_0.order_id in (?, ?, ?)");
+
+        assertEquals("select o1_0.order_id from orders o1_0 where o1_0.item_name = ? and o1_0.quantity > ? and o1_0.order_id in (?)", shape.sql());
+        assertEquals("select", shape.operation());
+        assertEquals("orders", shape.table());
+        assertEquals("insert", SqlShape.of("insert into public.inbox_messages (message_id) values (?)").operation());
+        assertEquals("inbox_messages", SqlShape.of("insert into public.inbox_messages (message_id) values (?)").table());
+    }
+
+    @Test
+    void shouldGroupExecutionsByShapeAndRecordBatches() {
+        jdbc.batchUpdate("INSERT INTO item VALUES (?, ?)", List.of(
+                new Object[]{1, "Pen"}, new Object[]{2, "Ink"}, new Object[]{3, "Pad"}));
+        jdbc.queryForList("SELECT name FROM item WHERE id = 1");
+        jdbc.queryForList("SELECT name FROM item WHERE id = 2");
+
+        List<StatementRecorder.ShapeReport> report = recorder.report(10);
+        StatementRecorder.ShapeReport insert = shape(report, "insert");
+        StatementRecorder.ShapeReport select = shape(report, "select");
+
+        assertEquals(1, insert.executions());
+        assertEquals(3, insert.statements());
+        assertEquals(3, insert.maxBatchSize());
+        assertEquals(2, select.executions());
+        assertEquals("SELECT name FROM item WHERE id = ?", select.sql());
+        assertEquals(3, meterRegistry.get("jdbc.batch.size").tag("operation", "insert").tag("table", "item").summary().totalAmount());
+        assertEquals(2, meterRegistry.get("jdbc.statements").tag("operation", "select").timer().count());
+    }
+
+    @Test
+    void shouldFlagRepeatedQueryWithinOneRequest() {
+        recorder.beginRequest("GET /orders");
+        for (int id = 0; id < 5; id++) {
+            jdbc.queryForList("SELECT name FROM item WHERE id = ?", id);
+        }
+        jdbc.queryForList("SELECT count(*) FROM item");
+        recorder.endRequest();
+
+        // Outside a request the same loop is not attributed to anything
+        for (int id = 0; id < 5; id++) {
+            jdbc.queryForList("SELECT name FROM item WHERE id = ?", id);
+        }
+
+        assertEquals(1, shape(recorder.report(10), "select", "SELECT name FROM item WHERE id = ?").nPlusOne());
+        assertEquals(1, meterRegistry.get("jdbc.n-plus-one").counter().count());
+        assertEquals(6, meterRegistry.get("jdbc.request.statements").summary().totalAmount());
+    }
+
+    @Test
+    void shouldCountSlowStatements() {
+        recorder = new StatementRecorder(meterRegistry, Duration.ZERO, 3, 0, 100);
+
+        jdbc.queryForList("SELECT name FROM item");
+
+        assertEquals(1, shape(recorder.report(10), "select").slow());
+        assertEquals(1, meterRegistry.get("jdbc.statements.slow").counter().count());
+    }
+
+    private static StatementRecorder.ShapeReport shape(List<StatementRecorder.ShapeReport> report, String operation) {
+        return report.stream().filter(shape -> shape.operation().equals(operation)).findFirst().orElseThrow();
+    }
+
+    private static StatementRecorder.ShapeReport shape(List<StatementRecorder.ShapeReport> report, String operation, String sql) {
+        return report.stream().filter(shape -> shape.operation().equals(operation) && shape.sql().equals(sql)).findFirst().orElseThrow();
+    }
+}
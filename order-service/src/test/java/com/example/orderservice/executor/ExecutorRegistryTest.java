@@ -0,0 +1,127 @@
+package com.example.orderservice.executor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExecutorRegistryTest {
+
+    private MockEnvironment environment;
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorRegistry registry;
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    void setup() {
+        environment = new MockEnvironment();
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new ExecutorRegistry(environment, meterRegistry);
+    }
+
+    @AfterEach
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+        MDC.clear();
+    }
+
+    @Test
+    void shouldOverrideDefaultsFromProperties() {
+        environment.setProperty("orders.executors.side-effect.max-size", "8");
+        environment.setProperty("orders.executors.side-effect.rejection", "discard-oldest");
+
+        ExecutorSettings settings = registry.settingsFor("sideEffectExecutor",
+                new ExecutorSettings(1, 2, 100, RejectionPolicy.CALLER_RUNS));
+
+        assertEquals(new ExecutorSettings(1, 8, 100, RejectionPolicy.DISCARD_OLDEST), settings);
+    }
+
+    @Test
+    void shouldRunOnCallerWhenFullAndKeepItsMdc() throws Exception {
+        executor = start("inventoryExecutor", RejectionPolicy.CALLER_RUNS);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> await(release));
+        executor.execute(() -> await(release));
+
+        MDC.put("requestId", "caller");
+        AtomicReference<String> ranOn = new AtomicReference<>();
+        executor.execute(() -> {
+            ranOn.set(Thread.currentThread().getName());
+            MDC.put("requestId", "task");
+        });
+        release.countDown();
+
+        assertEquals(Thread.currentThread().getName(), ranOn.get());
+        assertEquals("caller", MDC.get("requestId"));
+        assertEquals(1, meterRegistry.get("executor.rejected").tag("name", "inventoryExecutor").counter().count());
+    }
+
+    @Test
+    void shouldAbortWhenFullAndCountRejection() {
+        executor = start("orderExecutor", RejectionPolicy.ABORT);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> await(release));
+        executor.execute(() -> await(release));
+
+        assertThrows(TaskRejectedException.class, () -> executor.execute(() -> { }));
+        release.countDown();
+
+        assertEquals(1, meterRegistry.get("executor.rejected").tag("policy", "abort").counter().count());
+    }
+
+    @Test
+    void shouldPropagateMdcAndPublishPoolMetrics() throws Exception {
+        executor = start("outboxExecutor", RejectionPolicy.ABORT);
+
+        MDC.put("requestId", "r-1");
+        AtomicReference<String> seen = new AtomicReference<>();
+        executor.execute(() -> seen.set(MDC.get("requestId")));
+        executor.getThreadPoolExecutor().shutdown();
+        assertTrue(executor.getThreadPoolExecutor().awaitTermination(1, TimeUnit.SECONDS));
+
+        assertEquals("r-1", seen.get());
+        assertEquals(1, meterRegistry.get("executor").tag("name", "outboxExecutor").timer().count());
+        assertEquals(1, meterRegistry.get("executor.idle").tag("name", "outboxExecutor").timer().count());
+        assertNotNull(meterRegistry.get("executor.queued").tag("name", "outboxExecutor").gauge());
+        assertTrue(registry.names().contains("outboxExecutor"));
+    }
+
+    @Test
+    void shouldRefuseDuplicateNames() {
+        executor = start("recoveryExecutor", RejectionPolicy.ABORT);
+
+        assertThrows(IllegalStateException.class,
+                () -> registry.register("recoveryExecutor", "Other-", new ExecutorSettings(1, 1, 1, RejectionPolicy.ABORT)));
+    }
+
+    // One thread and one queue slot, so the third concurrent task is rejected
+    private ThreadPoolTaskExecutor start(String name, RejectionPolicy rejection) {
+        ThreadPoolTaskExecutor started = registry.register(name, "Test-",
+                new ExecutorSettings(1, 1, 1, rejection));
+        started.initialize();
+        return started;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
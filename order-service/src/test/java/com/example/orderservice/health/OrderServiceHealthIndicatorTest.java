@@ -0,0 +1,85 @@
+package com.example.orderservice.health;
+
+import com.example.orderservice.repository.OrderJpaRepository;
+import com.example.orderservice.sharding.ShardTemplate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.InvalidDataAccessResourceUsageException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+public class OrderServiceHealthIndicatorTest {
+
+    private OrderJpaRepository orderRepository;
+    private ShardTemplate shardTemplate;
+
+    @BeforeEach
+    void setup() {
+        orderRepository = mock(OrderJpaRepository.class);
+        shardTemplate = new ShardTemplate(List.of("default"), mock(PlatformTransactionManager.class), Runnable::run);
+    }
+
+    private OrderServiceHealthIndicator indicator(long maxStalenessMs) {
+        return new OrderServiceHealthIndicator(orderRepository, shardTemplate, 5000, maxStalenessMs);
+    }
+
+    @Test
+    void shouldServeCachedEstimateWithoutQueryingPerPoll() {
+        when(orderRepository.estimateCount()).thenReturn(1200L);
+        OrderServiceHealthIndicator indicator = indicator(30000);
+
+        assertEquals(Status.UNKNOWN, indicator.health().getStatus());
+
+        indicator.refresh();
+        for (int i = 0; i < 10; i++) {
+            Health health = indicator.health();
+            assertEquals(Status.UP, health.getStatus());
+            assertEquals(1200L, health.getDetails().get("orderCount"));
+            assertEquals(true, health.getDetails().get("orderCountApproximate"));
+        }
+
+        verify(orderRepository, times(1)).estimateCount();
+        verify(orderRepository, never()).count();
+    }
+
+    @Test
+    void shouldFallBackToExactCountWhenEstimatesAreUnsupported() {
+        when(orderRepository.estimateCount()).thenThrow(new InvalidDataAccessResourceUsageException("pg_class"));
+        when(orderRepository.count()).thenReturn(7L);
+        OrderServiceHealthIndicator indicator = indicator(30000);
+
+        indicator.refresh();
+        indicator.refresh();
+
+        assertEquals(7L, indicator.health().getDetails().get("orderCount"));
+        assertEquals(false, indicator.health().getDetails().get("orderCountApproximate"));
+        verify(orderRepository, times(1)).estimateCount();
+    }
+
+    @Test
+    void shouldReportDownWhenCheckFailsOrIsStale() throws Exception {
+        when(orderRepository.estimateCount()).thenThrow(new DataAccessResourceFailureException("connection refused"));
+        OrderServiceHealthIndicator indicator = indicator(30000);
+
+        indicator.refresh();
+        assertEquals(Status.DOWN, indicator.health().getStatus());
+
+        reset(orderRepository);
+        when(orderRepository.estimateCount()).thenReturn(5L);
+        OrderServiceHealthIndicator stale = indicator(1);
+
+        stale.refresh();
+        Thread.sleep(5);
+
+        Health health = stale.health();
+        assertEquals(Status.DOWN, health.getStatus());
+        assertEquals(5L, health.getDetails().get("orderCount"));
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.orderservice.inbox;
+
+import com.example.orderservice.repository.InboxMessageRepository;
+import com.example.orderservice.sharding.ShardTemplate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ConsumerInboxTest {
+
+    private InboxMessageRepository inboxRepository;
+    private ConsumerInbox inbox;
+
+    @BeforeEach
+    void setup() {
+        inboxRepository = mock(InboxMessageRepository.class);
+        ShardTemplate shardTemplate = mock(ShardTemplate.class);
+        when(shardTemplate.shards()).thenReturn(List.of("shard0"));
+        when(shardTemplate.shardFor(anyString())).thenReturn("shard0");
+        when(shardTemplate.read(anyString(), any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+
+        inbox = new ConsumerInbox(inboxRepository, shardTemplate, new SimpleMeterRegistry(), true, 168, 10_000, 0.01, 2, 10);
+    }
+
+    @AfterEach
+    void shutdown() {
+        inbox.shutdown();
+    }
+
+    @Test
+    void shouldLookUpEveryDeliveryUntilLoaded() {
+        assertFalse(inbox.isDuplicate("ord-1", "inventory-reserved-0@1"));
+        verify(inboxRepository).existsById("inventory-reserved-0@1");
+    }
+
+    @Test
+    void shouldSkipTheLookupForCertainlyNewMessages() {
+        when(inboxRepository.findIdsProcessedSince(any(), eq(""), any())).thenReturn(List.of("t-0@1", "t-0@2"));
+        when(inboxRepository.findIdsProcessedSince(any(), eq("t-0@2"), any())).thenReturn(List.of("t-0@3"));
+        when(inboxRepository.existsById(startsWith("t-0@"))).thenReturn(true);
+        inbox.load();
+
+        assertTrue(inbox.isDuplicate("ord-1", "t-0@3"));
+        assertFalse(inbox.isDuplicate("ord-1", "t-0@4"));
+
+        inbox.record("t-0@4");
+        assertTrue(inbox.isDuplicate("ord-1", "t-0@4"));
+
+        verify(inboxRepository).insert(eq("t-0@4"), any());
+        verify(inboxRepository, times(2)).existsById(anyString());
+    }
+
+    @Test
+    void shouldLookUpNewlyAssignedPartitionsUntilReloaded() {
+        // The reload requested by the assignment may run at any point below, so it already sees offset 7
+        when(inboxRepository.findIdsProcessedSince(any(), eq(""), any()))
+                .thenReturn(List.of())
+                .thenReturn(List.of("t-1@7"));
+        inbox.load();
+
+        // Offset 7 was applied by the partition's previous owner
+        when(inboxRepository.existsById("t-1@7")).thenReturn(true);
+        Consumer<?, ?> consumer = mock(Consumer.class);
+        inbox.onPartitionsAssigned(consumer, List.of(new TopicPartition("t", 1)));
+
+        assertTrue(inbox.isDuplicate("ord-1", "t-1@7"));
+        assertFalse(inbox.isDuplicate("ord-1", "t-0@7"));
+        verify(inboxRepository, never()).existsById("t-0@7");
+
+        verify(inboxRepository, timeout(2000).times(2)).findIdsProcessedSince(any(), eq(""), any());
+        awaitNoLookup("t-1@8");
+    }
+
+    @Test
+    void shouldRetryAFailedLoad() {
+        when(inboxRepository.findIdsProcessedSince(any(), eq(""), any()))
+                .thenThrow(new IllegalStateException("shard down"))
+                .thenReturn(List.of("t-0@1"));
+
+        inbox.start();
+
+        verify(inboxRepository, timeout(2000).times(2)).findIdsProcessedSince(any(), eq(""), any());
+        awaitNoLookup("t-0@2");
+    }
+
+    // A load finishes just after its query returns, so poll until deliveries skip the lookup
+    private void awaitNoLookup(String messageId) {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (true) {
+            clearInvocations(inboxRepository);
+            assertFalse(inbox.isDuplicate("ord-1", messageId));
+            if (mockingDetails(inboxRepository).getInvocations().isEmpty()) {
+                return;
+            }
+            assertTrue(System.currentTimeMillis() < deadline, "deliveries are still looked up");
+            Thread.onSpinWait();
+        }
+    }
+
+    @Test
+    void shouldKeepTheBloomFilterNearItsFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("inventory-reserved-" + (i % 12) + "@" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("inventory-reserved-" + (i % 12) + "@" + i));
+            if (filter.mightContain("inventory-failed-" + (i % 12) + "@" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+}
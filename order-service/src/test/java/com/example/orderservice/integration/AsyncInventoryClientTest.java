@@ -0,0 +1,164 @@
+package com.example.orderservice.integration;
+
+import com.example.orderservice.loadbalancer.InstanceLatencyTracker;
+import com.example.orderservice.port.ReservationResult;
+import com.example.orderservice.port.StockReservation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.springboot3.circuitbreaker.autoconfigure.CircuitBreakerAutoConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncInventoryClientTest {
+
+    private StubInventoryServer server;
+    private ExecutorService httpExecutor;
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+        httpExecutor.shutdownNow();
+    }
+
+    private AsyncInventoryClient client(long serverLatencyMs, int serverThreads, Duration timeout) throws Exception {
+        server = new StubInventoryServer(serverLatencyMs, serverThreads);
+        httpExecutor = Executors.newFixedThreadPool(2);
+
+        URI uri = URI.create(server.baseUrl());
+        DefaultServiceInstance instance = new DefaultServiceInstance(
+                "inventory-1", "inventory-service", uri.getHost(), uri.getPort(), false);
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .executor(httpExecutor)
+                .build();
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        InstanceLatencyTracker tracker = new InstanceLatencyTracker(meterRegistry);
+        HedgedRequestExecutor hedger = new HedgedRequestExecutor(
+                false, tracker, Duration.ofMillis(10), Duration.ofMillis(100), 0.1, 10, meterRegistry);
+
+        return new AsyncInventoryClient(
+                httpClient,
+                request -> Mono.just(new DefaultResponse(instance)),
+                tracker,
+                hedger,
+                new ObjectMapper(),
+                timeout,
+                1000
+        );
+    }
+
+    @Test
+    void shouldReserveAndRejectThroughFutures() throws Exception {
+        AsyncInventoryClient client = client(0, 2, Duration.ofSeconds(2));
+        server.setStock("Pen", 1);
+
+        client.reserveStockAsync("Pen", 1).get();
+
+        ExecutionException ex = assertThrows(ExecutionException.class,
+                () -> client.reserveStockAsync("Pen", 1).get());
+        assertInstanceOf(InventoryReservationException.class, ex.getCause());
+        assertEquals(0, server.getStock("Pen"));
+    }
+
+    @Test
+    void shouldReturnBatchResultsInRequestOrder() throws Exception {
+        AsyncInventoryClient client = client(0, 2, Duration.ofSeconds(2));
+        server.setStock("Pen", 1);
+        server.setStock("Book", 5);
+
+        List<ReservationResult> results = client.reserveStockBatch(List.of(
+                new StockReservation("Book", 2),
+                new StockReservation("Pen", 2),
+                new StockReservation("Pen", 1)));
+
+        assertTrue(results.get(0).isReserved());
+        assertFalse(results.get(1).isReserved());
+        assertTrue(results.get(2).isReserved());
+        assertEquals(3, server.getStock("Book"));
+    }
+
+    @Test
+    void shouldReadAvailabilityForKnownItems() throws Exception {
+        AsyncInventoryClient client = client(0, 2, Duration.ofSeconds(2));
+        server.setStock("Pen", 3);
+
+        Map<String, Integer> availability = client.getAvailability(List.of("Pen", "Unknown item"));
+
+        assertEquals(Map.of("Pen", 3), availability);
+    }
+
+    @Test
+    void shouldFailCallsThatExceedTheDeadline() throws Exception {
+        AsyncInventoryClient client = client(500, 2, Duration.ofMillis(100));
+        server.setStock("Pen", 10);
+
+        assertThrows(InventoryReservationException.class, () -> client.reserveStock("Pen", 1));
+    }
+
+    @Test
+    void shouldFallBackOnTheBlockingPathsOnceTheBreakerIsOpen() throws Exception {
+        AsyncInventoryClient target = client(0, 2, Duration.ofSeconds(2));
+        server.setStock("Pen", 0);
+
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(AopAutoConfiguration.class, CircuitBreakerAutoConfiguration.class))
+                .withPropertyValues(
+                        "resilience4j.circuitbreaker.instances.inventoryService.sliding-window-size=2",
+                        "resilience4j.circuitbreaker.instances.inventoryService.minimum-number-of-calls=2",
+                        "resilience4j.circuitbreaker.instances.inventoryService.wait-duration-in-open-state=1m")
+                .withBean(AsyncInventoryClient.class, () -> target)
+                .run(context -> {
+                    AsyncInventoryClient client = context.getBean(AsyncInventoryClient.class);
+
+                    // Rejected reservations are swallowed by the fallback and counted as failures
+                    client.reserveStock("Pen", 1);
+                    client.reserveStock("Pen", 1);
+                    assertEquals(CircuitBreaker.State.OPEN,
+                            context.getBean(CircuitBreakerRegistry.class).circuitBreaker("inventoryService").getState());
+
+                    server.setStock("Pen", 5);
+                    List<ReservationResult> results = client.reserveStockBatch(List.of(new StockReservation("Pen", 1)));
+
+                    assertFalse(results.get(0).isReserved());
+                    assertEquals(Map.of(), client.getAvailability(List.of("Pen")));
+                    assertEquals(5, server.getStock("Pen"));
+                });
+    }
+
+    @Test
+    void shouldKeepManyReservationsInFlightOnFewThreads() throws Exception {
+        AsyncInventoryClient client = client(50, 200, Duration.ofSeconds(10));
+        server.setStock("Pen", 1000);
+
+        List<CompletableFuture<Void>> calls = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            calls.add(client.reserveStockAsync("Pen", 1));
+        }
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).get();
+
+        assertEquals(700, server.getStock("Pen"));
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.orderservice.integration;
+
+import com.example.orderservice.loadbalancer.InstanceLatencyTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class HedgedRequestExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HedgedRequestExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    private HedgedRequestExecutor executor(double budgetRatio, int maxTokens) {
+        executor = new HedgedRequestExecutor(
+                true,
+                new InstanceLatencyTracker(meterRegistry),
+                Duration.ofMillis(10),
+                Duration.ofMillis(20),
+                budgetRatio,
+                maxTokens,
+                meterRegistry);
+        return executor;
+    }
+
+    @Test
+    void shouldAnswerFromTheHedgeWhenThePrimaryStalls() throws Exception {
+        HedgedRequestExecutor executor = executor(1.0, 10);
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> stalled = new CompletableFuture<>();
+
+        String result = executor.execute(() -> calls.incrementAndGet() == 1
+                        ? stalled
+                        : CompletableFuture.completedFuture("hedge"))
+                .get(2, TimeUnit.SECONDS);
+
+        assertEquals("hedge", result);
+        assertEquals(2, calls.get());
+        assertEquals(1.0, meterRegistry.counter("inventory.hedge.sent.count").count());
+        assertEquals(true, stalled.isCancelled());
+    }
+
+    @Test
+    void shouldNotHedgeWhenTheBudgetIsExhausted() throws Exception {
+        HedgedRequestExecutor executor = executor(0.1, 10);
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<String> primary = new CompletableFuture<>();
+        CompletableFuture<String> result = executor.execute(() -> {
+            calls.incrementAndGet();
+            return primary;
+        });
+
+        Thread.sleep(100);
+        primary.complete("primary");
+
+        assertEquals("primary", result.get(1, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+        assertEquals(1.0, meterRegistry.counter("inventory.hedge.suppressed.count").count());
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.orderservice.integration;
+
+import com.example.orderservice.port.InventoryPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Compares reservation throughput against the stub inventory server with and
+ * without request collapsing. Not part of the regular test run:
+ * {@code mvn test -Dtest=InventoryCollapsingBenchmark}
+ */
+public class InventoryCollapsingBenchmark {
+
+    private static final int RESERVATIONS = 20_000;
+    private static final int CALLER_THREADS = 64;
+    private static final long SERVER_LATENCY_MS = 2;
+    private static final int SERVER_THREADS = 8;
+
+    @Test
+    void compareDirectAndCollapsedReservations() throws Exception {
+        try (StubInventoryServer server = new StubInventoryServer(SERVER_LATENCY_MS, SERVER_THREADS)) {
+            InventoryClient direct = new InventoryClient(server.feignClient());
+
+            server.setStock("Pen", Integer.MAX_VALUE);
+            run("warmup", direct, server, RESERVATIONS / 10);
+            run("direct", direct, server, RESERVATIONS);
+
+            InventoryRequestCollapser collapser = new InventoryRequestCollapser(
+                    direct, 100, Duration.ofMillis(2), Duration.ofSeconds(30), 4, new SimpleMeterRegistry());
+            try {
+                run("collapsed", collapser, server, RESERVATIONS);
+            } finally {
+                collapser.shutdown();
+            }
+        }
+    }
+
+    private void run(String label, InventoryPort port, StubInventoryServer server, int reservations) throws Exception {
+        long httpCallsBefore = server.getSingleCalls() + server.getBatchCalls();
+        ExecutorService callers = Executors.newFixedThreadPool(CALLER_THREADS);
+
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> calls = new ArrayList<>(reservations);
+            for (int i = 0; i < reservations; i++) {
+                calls.add(callers.submit(() -> port.reserveStock("Pen", 1)));
+            }
+            for (Future<?> call : calls) {
+                call.get();
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        long httpCalls = server.getSingleCalls() + server.getBatchCalls() - httpCallsBefore;
+
+        System.out.printf("%-10s reservations=%d time=%.2fs reservations/sec=%.0f http-calls=%d http-calls/sec=%.0f%n",
+                label, reservations, seconds, reservations / seconds, httpCalls, httpCalls / seconds);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.orderservice.integration;
+
+import com.example.orderservice.port.ReservationResult;
+import feign.FeignException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InventoryRequestCollapserTest {
+
+    private StubInventoryServer server;
+    private InventoryRequestCollapser collapser;
+
+    @BeforeEach
+    void setup() throws Exception {
+        server = new StubInventoryServer(0, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (collapser != null) {
+            collapser.shutdown();
+        }
+        server.close();
+    }
+
+    private InventoryRequestCollapser collapser(int maxBatchSize, Duration window) {
+        collapser = new InventoryRequestCollapser(
+                new InventoryClient(server.feignClient()),
+                maxBatchSize,
+                window,
+                Duration.ofSeconds(5),
+                2,
+                new SimpleMeterRegistry()
+        );
+        return collapser;
+    }
+
+    @Test
+    void shouldCollapseConcurrentReservationsIntoBatches() throws Exception {
+        server.setStock("Pen", 1000);
+        InventoryRequestCollapser collapser = collapser(50, Duration.ofMillis(20));
+
+        ExecutorService callers = Executors.newFixedThreadPool(50);
+        try {
+            List<Future<?>> calls = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                calls.add(callers.submit(() -> collapser.reserveStock("Pen", 1)));
+            }
+            for (Future<?> call : calls) {
+                call.get();
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals(800, server.getStock("Pen"));
+        assertEquals(0, server.getSingleCalls());
+        assertTrue(server.getBatchCalls() < 200,
+                "expected fewer batch calls than reservations but was " + server.getBatchCalls());
+    }
+
+    @Test
+    void shouldFanOutIndividualResultsToEachCaller() throws Exception {
+        server.setStock("Pen", 1);
+        InventoryRequestCollapser collapser = collapser(2, Duration.ofSeconds(1));
+
+        CompletableFuture<ReservationResult> first = collapser.submit("Pen", 1);
+        CompletableFuture<ReservationResult> second = collapser.submit("Pen", 1);
+
+        assertTrue(first.get().isReserved());
+        assertFalse(second.get().isReserved());
+        assertEquals("Insufficient stock", second.get().getReason());
+        assertEquals(1, server.getBatchCalls());
+
+        assertThrows(InventoryReservationException.class, () -> collapser.reserveStock("Pen", 1));
+    }
+
+    @Test
+    void shouldFailEveryCallerWhenBatchCallFails() {
+        server.setFailing(true);
+        InventoryRequestCollapser collapser = collapser(2, Duration.ofSeconds(1));
+
+        CompletableFuture<ReservationResult> first = collapser.submit("Pen", 1);
+        CompletableFuture<ReservationResult> second = collapser.submit("Book", 1);
+
+        ExecutionException ex = assertThrows(ExecutionException.class, first::get);
+        assertInstanceOf(FeignException.class, ex.getCause());
+        assertThrows(ExecutionException.class, second::get);
+    }
+}
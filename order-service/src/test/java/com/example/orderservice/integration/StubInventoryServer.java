@@ -0,0 +1,220 @@
+package com.example.orderservice.integration;
+
+import com.example.orderservice.port.ReservationResult;
+import com.example.orderservice.port.StockReservation;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import feign.Feign;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for inventory-service. Serves the single and batch
+ * reservation endpoints against an in-memory stock table and counts calls.
+ */
+public class StubInventoryServer implements AutoCloseable {
+
+    static {
+        // avoid Nagle/delayed-ACK stalls when headers and body are written separately
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, AtomicInteger> stock = new ConcurrentHashMap<>();
+    private final AtomicLong singleCalls = new AtomicLong();
+    private final AtomicLong batchCalls = new AtomicLong();
+    private final AtomicLong availabilityCalls = new AtomicLong();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long latencyMillis;
+    private volatile boolean failing;
+
+    public StubInventoryServer(long latencyMillis, int handlerThreads) throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.executor = Executors.newFixedThreadPool(handlerThreads);
+        server.setExecutor(executor);
+        server.createContext("/inventory/reserve/batch", this::handleBatch);
+        server.createContext("/inventory/reserve", this::handleSingle);
+        server.createContext("/inventory/availability", this::handleAvailability);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public InventoryFeignClient feignClient() {
+        HttpMessageConverters messageConverters =
+                new HttpMessageConverters(false, List.of(new MappingJackson2HttpMessageConverter(objectMapper)));
+        ObjectFactory<HttpMessageConverters> converters = () -> messageConverters;
+
+        return Feign.builder()
+                .contract(new SpringMvcContract())
+                .encoder(new SpringEncoder(converters))
+                .decoder(new SpringDecoder(converters))
+                .target(InventoryFeignClient.class, baseUrl());
+    }
+
+    public void setStock(String itemName, int quantity) {
+        stock.put(itemName, new AtomicInteger(quantity));
+    }
+
+    public int getStock(String itemName) {
+        AtomicInteger available = stock.get(itemName);
+        return available == null ? 0 : available.get();
+    }
+
+    public void setFailing(boolean failing) {
+        this.failing = failing;
+    }
+
+    public long getSingleCalls() {
+        return singleCalls.get();
+    }
+
+    public long getBatchCalls() {
+        return batchCalls.get();
+    }
+
+    public long getAvailabilityCalls() {
+        return availabilityCalls.get();
+    }
+
+    private void handleSingle(HttpExchange exchange) throws IOException {
+        singleCalls.incrementAndGet();
+        simulateLatency();
+
+        if (failing) {
+            respond(exchange, 500, new byte[0]);
+            return;
+        }
+
+        Map<String, List<String>> params = queryParams(exchange.getRequestURI());
+        ReservationResult result = reserve(
+                params.get("itemName").get(0), Integer.parseInt(params.get("quantity").get(0)));
+
+        respond(exchange, result.isReserved() ? 200 : 409, new byte[0]);
+    }
+
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        batchCalls.incrementAndGet();
+        simulateLatency();
+
+        if (failing) {
+            respond(exchange, 500, new byte[0]);
+            return;
+        }
+
+        List<StockReservation> reservations = objectMapper.readValue(
+                exchange.getRequestBody().readAllBytes(), new TypeReference<List<StockReservation>>() {});
+
+        List<ReservationResult> results = new ArrayList<>(reservations.size());
+        for (StockReservation reservation : reservations) {
+            results.add(reserve(reservation.getItemName(), reservation.getQuantity()));
+        }
+
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        respond(exchange, 200, objectMapper.writeValueAsBytes(results));
+    }
+
+    private void handleAvailability(HttpExchange exchange) throws IOException {
+        availabilityCalls.incrementAndGet();
+        simulateLatency();
+
+        if (failing) {
+            respond(exchange, 500, new byte[0]);
+            return;
+        }
+
+        Map<String, Integer> availability = new HashMap<>();
+        for (String itemName : queryParams(exchange.getRequestURI()).getOrDefault("itemName", List.of())) {
+            AtomicInteger available = stock.get(itemName);
+            if (available != null) {
+                availability.put(itemName, available.get());
+            }
+        }
+
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        respond(exchange, 200, objectMapper.writeValueAsBytes(availability));
+    }
+
+    private ReservationResult reserve(String itemName, int quantity) {
+        AtomicInteger available = stock.get(itemName);
+        if (available == null) {
+            return ReservationResult.rejected(itemName, "Unknown item");
+        }
+
+        int current;
+        do {
+            current = available.get();
+            if (current < quantity) {
+                return ReservationResult.rejected(itemName, "Insufficient stock");
+            }
+        } while (!available.compareAndSet(current, current - quantity));
+
+        return ReservationResult.reserved(itemName);
+    }
+
+    private void simulateLatency() {
+        if (latencyMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            exchange.getResponseBody().write(body);
+        }
+        exchange.close();
+    }
+
+    private static Map<String, List<String>> queryParams(URI uri) {
+        Map<String, List<String>> params = new HashMap<>();
+        String query = uri.getRawQuery();
+        if (query == null) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int idx = pair.indexOf('=');
+            params.computeIfAbsent(URLDecoder.decode(pair.substring(0, idx), StandardCharsets.UTF_8), k -> new ArrayList<>())
+                    .add(URLDecoder.decode(pair.substring(idx + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.orderservice.json;
+
+import com.example.orderservice.dto.OrderResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bytes allocated and time per response for a single order and a 50-order
+ * page, through the generic Jackson converter (PageImpl as Spring Data
+ * serializes it by default) and through {@link OrderJsonMessageConverter}.
+ * The sink is reused, so only the converter's own garbage is counted.
+ * Not part of the regular test run: {@code mvn test -Dtest=OrderJsonBenchmark}
+ */
+public class OrderJsonBenchmark {
+
+    private static final Type ORDER_PAGE = new ParameterizedTypeReference<Page<OrderResponse>>() {
+    }.getType();
+    private static final int ITERATIONS = 100_000;
+
+    private final Sink sink = new Sink();
+
+    @Test
+    void compareConverters() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+        MappingJackson2HttpMessageConverter jackson = new MappingJackson2HttpMessageConverter(objectMapper);
+        OrderJsonMessageConverter streaming = new OrderJsonMessageConverter(objectMapper.getFactory());
+
+        OrderResponse order = new OrderResponse("ord-00000001", "Laptop", 2, "key-00000001", 3L);
+        List<OrderResponse> content = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            content.add(new OrderResponse("ord-" + i, "Item " + (i % 7), i, "key-" + i, (long) i));
+        }
+        Page<OrderResponse> page = new PageImpl<>(content, PageRequest.of(0, 50), 1000);
+
+        for (int round = 0; round < 2; round++) {
+            boolean report = round == 1;
+            run("jackson order", jackson, order, OrderResponse.class, report);
+            run("streaming order", streaming, order, OrderResponse.class, report);
+            run("jackson page", jackson, page, ORDER_PAGE, report);
+            run("streaming page", streaming, page, ORDER_PAGE, report);
+        }
+    }
+
+    private void run(String label, GenericHttpMessageConverter<Object> converter, Object body, Type type,
+                     boolean report) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink.reset();
+            converter.write(body, type, MediaType.APPLICATION_JSON, sink);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+
+        if (report) {
+            System.out.printf("%-16s %6d bytes/response written, %7d bytes/response allocated, %6d ns/response%n",
+                    label, sink.size(), allocated / ITERATIONS, elapsed / ITERATIONS);
+        }
+    }
+
+    private static class Sink extends ByteArrayOutputStream implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        Sink() {
+            super(64 * 1024);
+        }
+
+        @Override
+        public synchronized void reset() {
+            super.reset();
+            headers.clear();
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return this;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.orderservice.json;
+
+import com.example.orderservice.dto.OrderResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderJsonMessageConverterTest {
+
+    private static final Type ORDER_PAGE = new ParameterizedTypeReference<Page<OrderResponse>>() {
+    }.getType();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final OrderJsonMessageConverter converter = new OrderJsonMessageConverter(objectMapper.getFactory());
+
+    @Test
+    void shouldWriteOrdersAsJacksonWould() throws Exception {
+        OrderResponse order = new OrderResponse("ord-1", "Laptop \"Pro\"", 2, null, 7L);
+
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(order, OrderResponse.class, MediaType.APPLICATION_JSON, output);
+
+        assertEquals(objectMapper.writeValueAsString(order), output.getBodyAsString());
+    }
+
+    @Test
+    void shouldLeaveTheResponseStreamOpen() throws Exception {
+        ByteArrayOutputStream body = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                fail("the converter closed the response stream");
+            }
+        };
+        HttpOutputMessage output = new HttpOutputMessage() {
+            private final HttpHeaders headers = new HttpHeaders();
+
+            @Override
+            public OutputStream getBody() {
+                return body;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        };
+
+        converter.write(new OrderResponse("ord-1", "Laptop", 1, null, 1L), OrderResponse.class, MediaType.APPLICATION_JSON, output);
+
+        assertTrue(body.size() > 0);
+    }
+
+    @Test
+    void shouldWritePagesInTheCompactEnvelope() throws Exception {
+        Page<OrderResponse> page = new PageImpl<>(List.of(
+                new OrderResponse("ord-1", "Laptop", 1, "key-1", 1L),
+                new OrderResponse("ord-2", "Mouse", 3, "key-2", null)), PageRequest.of(1, 2), 5);
+
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(page, ORDER_PAGE, MediaType.APPLICATION_JSON, output);
+
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsString(new PagedModel<>(page))),
+                objectMapper.readTree(output.getBodyAsString()));
+    }
+
+    @Test
+    void shouldOnlyWriteOrderTypes() {
+        assertTrue(converter.canWrite(ORDER_PAGE, PageImpl.class, MediaType.APPLICATION_JSON));
+        assertTrue(converter.canWrite(OrderResponse.class, OrderResponse.class, null));
+
+        Type stringPage = new ParameterizedTypeReference<Page<String>>() {
+        }.getType();
+        assertFalse(converter.canWrite(stringPage, PageImpl.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(OrderResponse.class, OrderResponse.class, MediaType.APPLICATION_XML));
+        assertFalse(converter.canRead(OrderResponse.class, OrderResponse.class, MediaType.APPLICATION_JSON));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.orderservice.limit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MS = 1_000_000;
+
+    @Test
+    void shouldShedLowerPrioritiesFirst() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 0, 10);
+
+        for (int i = 0; i < 7; i++) {
+            assertTrue(limiter.tryAcquire(RequestPriority.LOW));
+        }
+        assertFalse(limiter.tryAcquire(RequestPriority.LOW));
+
+        assertTrue(limiter.tryAcquire(RequestPriority.NORMAL));
+        assertTrue(limiter.tryAcquire(RequestPriority.NORMAL));
+        assertFalse(limiter.tryAcquire(RequestPriority.NORMAL));
+
+        assertTrue(limiter.tryAcquire(RequestPriority.HIGH));
+        assertFalse(limiter.tryAcquire(RequestPriority.HIGH));
+        assertEquals(10, limiter.getInflight());
+    }
+
+    @Test
+    void shouldFollowLatency() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 10, 400, 0, 10);
+
+        // Busy and fast: grows
+        feed(limiter, 10 * MS, 50, 10);
+        int grown = limiter.getLimit();
+        assertTrue(grown > 50, "limit " + grown);
+
+        // The database slows down: shrinks until the baseline catches up
+        feed(limiter, 60 * MS, 400, 30);
+        assertTrue(limiter.getLimit() < 20, "limit " + limiter.getLimit());
+
+        // Recovers: grows again
+        feed(limiter, 10 * MS, 400, 30);
+        assertTrue(limiter.getLimit() > 30, "limit " + limiter.getLimit());
+    }
+
+    @Test
+    void shouldNotGrowWhileMostlyIdle() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 10, 400, 0, 10);
+
+        feed(limiter, 10 * MS, 2, 20);
+
+        assertEquals(50, limiter.getLimit());
+    }
+
+    @Test
+    void shouldPrioritiseWritesOverReads() {
+        assertEquals(RequestPriority.HIGH, ConcurrencyLimitFilter.priorityOf(request("POST", "/orders")));
+        assertEquals(RequestPriority.HIGH, ConcurrencyLimitFilter.priorityOf(request("PATCH", "/orders/ord-1/quantity")));
+        assertEquals(RequestPriority.NORMAL, ConcurrencyLimitFilter.priorityOf(request("GET", "/orders/ord-1")));
+        assertEquals(RequestPriority.NORMAL, ConcurrencyLimitFilter.priorityOf(request("GET", "/reactive/orders/ord-1")));
+        assertEquals(RequestPriority.LOW, ConcurrencyLimitFilter.priorityOf(request("GET", "/orders")));
+        assertEquals(RequestPriority.LOW, ConcurrencyLimitFilter.priorityOf(request("GET", "/orders/search")));
+        assertNull(ConcurrencyLimitFilter.priorityOf(request("GET", "/orders/ord-1/events")));
+        assertNull(ConcurrencyLimitFilter.priorityOf(request("GET", "/actuator/health")));
+    }
+
+    private static void feed(AdaptiveConcurrencyLimiter limiter, long latencyNanos, int inflight, int windows) {
+        for (int window = 0; window < windows; window++) {
+            for (int i = 0; i < 10; i++) {
+                limiter.onSample(latencyNanos, Math.min(inflight, limiter.getLimit()), 0);
+            }
+        }
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        return new MockHttpServletRequest(method, path);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.orderservice.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LatencyAwareLoadBalancerTest {
+
+    private final ServiceInstance fastA = new DefaultServiceInstance("a", "inventory-service", "10.0.0.1", 8080, false);
+    private final ServiceInstance fastB = new DefaultServiceInstance("b", "inventory-service", "10.0.0.2", 8080, false);
+    private final ServiceInstance slow = new DefaultServiceInstance("c", "inventory-service", "10.0.0.3", 8080, false);
+
+    private InstanceLatencyTracker tracker;
+
+    @BeforeEach
+    void setup() {
+        tracker = new InstanceLatencyTracker(new SimpleMeterRegistry());
+    }
+
+    private LatencyAwareLoadBalancer balancer(LatencyAwareLoadBalancer.Strategy strategy) {
+        return new LatencyAwareLoadBalancer(
+                ServiceInstanceListSuppliers.toProvider("inventory-service", fastA, fastB, slow),
+                "inventory-service",
+                tracker,
+                strategy);
+    }
+
+    private void observe(ServiceInstance instance, long latencyMillis) {
+        long start = tracker.start(instance);
+        tracker.complete(instance, start - TimeUnit.MILLISECONDS.toNanos(latencyMillis), true);
+    }
+
+    private Map<String, Integer> pick(LatencyAwareLoadBalancer balancer, int times) {
+        Map<String, Integer> picks = new HashMap<>();
+        for (int i = 0; i < times; i++) {
+            ServiceInstance chosen = balancer.choose().block().getServer();
+            picks.merge(chosen.getInstanceId(), 1, Integer::sum);
+        }
+        return picks;
+    }
+
+    @Test
+    void peakEwmaShouldAvoidTheSlowReplica() {
+        observe(fastA, 5);
+        observe(fastB, 6);
+        observe(slow, 200);
+
+        Map<String, Integer> picks = pick(balancer(LatencyAwareLoadBalancer.Strategy.PEAK_EWMA), 3000);
+
+        assertEquals(0, picks.getOrDefault("c", 0));
+        assertTrue(picks.get("a") > 0 && picks.get("b") > 0);
+    }
+
+    @Test
+    void leastOutstandingShouldAvoidTheBusyReplica() {
+        for (int i = 0; i < 10; i++) {
+            tracker.start(slow);
+        }
+        tracker.start(fastA);
+
+        Map<String, Integer> picks = pick(balancer(LatencyAwareLoadBalancer.Strategy.LEAST_OUTSTANDING), 3000);
+
+        assertEquals(0, picks.getOrDefault("c", 0));
+        assertTrue(picks.get("b") > picks.get("a"));
+    }
+
+    @Test
+    void shouldReturnEmptyResponseWithoutInstances() {
+        LatencyAwareLoadBalancer balancer = new LatencyAwareLoadBalancer(
+                ServiceInstanceListSuppliers.toProvider("inventory-service"),
+                "inventory-service",
+                tracker,
+                LatencyAwareLoadBalancer.Strategy.PEAK_EWMA);
+
+        assertTrue(!balancer.choose().block().hasServer());
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.orderservice.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class OrderTest {
+
+    @Test
+    void shouldOnlyAllowLegalStatusChanges() {
+        Order order = new Order("ord-1", "Book", 2, "test-123");
+        order.setStatus(OrderStatus.PENDING);
+        order.setStatus(OrderStatus.FAILED);
+        order.setStatus(OrderStatus.FAILED);
+
+        assertThrows(IllegalStateException.class, () -> order.setStatus(OrderStatus.COMPLETED));
+        assertThrows(IllegalStateException.class, () -> order.setStatus(OrderStatus.PENDING));
+        assertEquals(OrderStatus.FAILED, order.getStatus());
+    }
+}
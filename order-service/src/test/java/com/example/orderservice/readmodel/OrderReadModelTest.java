@@ -0,0 +1,166 @@
+package com.example.orderservice.readmodel;
+
+import com.example.orderservice.event.OrderChangedEvent;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.model.OutboxEvent;
+import com.example.orderservice.repository.OrderJpaRepository;
+import com.example.orderservice.repository.OutboxEventRepository;
+import com.example.orderservice.sharding.ShardTemplate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class OrderReadModelTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private OrderJpaRepository orderRepository;
+    private OutboxEventRepository outboxEventRepository;
+    private OrderReadModel readModel;
+
+    @BeforeEach
+    void setup() {
+        orderRepository = mock(OrderJpaRepository.class);
+        outboxEventRepository = mock(OutboxEventRepository.class);
+
+        ShardTemplate shardTemplate = new ShardTemplate(
+                List.of("default"), mock(PlatformTransactionManager.class), Runnable::run);
+
+        readModel = new OrderReadModel(orderRepository, outboxEventRepository, shardTemplate, objectMapper,
+                new SimpleMeterRegistry(), true, 200, 0, 2, 100, 3600000);
+    }
+
+    private OrderView view(String orderId, String itemName, OrderStatus status, long version) {
+        return new OrderView(orderId, itemName, 1, "key-" + orderId, status, version, null);
+    }
+
+    private List<String> ids(Page<OrderView> page) {
+        return page.getContent().stream().map(OrderView::orderId).toList();
+    }
+
+    private void loadEmpty() {
+        when(orderRepository.findAfter(anyString(), any())).thenReturn(List.of());
+        readModel.load();
+    }
+
+    @Test
+    void shouldAnswerNothingUntilLoaded() {
+        readModel.apply(view("ord-1", "Pen", OrderStatus.PENDING, 0));
+
+        assertTrue(readModel.find("ord-1").isEmpty());
+        assertTrue(readModel.page(PageRequest.of(0, 10)).isEmpty());
+
+        loadEmpty();
+
+        assertEquals(OrderStatus.PENDING, readModel.find("ord-1").orElseThrow().status());
+    }
+
+    @Test
+    void shouldKeepNewestVersion() {
+        loadEmpty();
+
+        readModel.apply(view("ord-1", "Pen", OrderStatus.COMPLETED, 2));
+        readModel.apply(view("ord-1", "Pen", OrderStatus.PENDING, 0));
+        readModel.apply(view("ord-1", "Pen", OrderStatus.FAILED, 2));
+
+        OrderView current = readModel.find("ord-1").orElseThrow();
+        assertEquals(OrderStatus.COMPLETED, current.status());
+        assertEquals(2, current.version());
+    }
+
+    @Test
+    void shouldPageByIdAndByItem() {
+        loadEmpty();
+        for (int i = 1; i <= 5; i++) {
+            readModel.apply(view("ord-" + i, i % 2 == 0 ? "Book" : "Pen", OrderStatus.PENDING, 0));
+        }
+
+        Page<OrderView> first = readModel.page(PageRequest.of(0, 2, Sort.by("orderId"))).orElseThrow();
+        assertEquals(List.of("ord-1", "ord-2"), ids(first));
+        assertEquals(5, first.getTotalElements());
+
+        Page<OrderView> descending = readModel.page(PageRequest.of(1, 2, Sort.by("orderId").descending())).orElseThrow();
+        assertEquals(List.of("ord-3", "ord-2"), ids(descending));
+
+        assertEquals(List.of("ord-1", "ord-3", "ord-5"), ids(readModel.pageByItems(List.of("Pen"), PageRequest.of(0, 10)).orElseThrow()));
+        assertEquals(5, readModel.pageByItems(List.of("Pen", "Book"), PageRequest.of(0, 10)).orElseThrow().getTotalElements());
+        assertEquals(0, readModel.pageByItems(List.of("Lamp"), PageRequest.of(0, 10)).orElseThrow().getTotalElements());
+
+        // Other sorts and deep pages go to the database
+        assertTrue(readModel.page(PageRequest.of(0, 10, Sort.by("quantity"))).isEmpty());
+        assertTrue(readModel.page(PageRequest.of(11, 10)).isEmpty());
+    }
+
+    @Test
+    void shouldLoadOrdersThenTailChangeLog() throws Exception {
+        Order order = new Order("ord-1", "Pen", 2, "key-1");
+        when(orderRepository.findAfter(eq(""), eq(Limit.of(2)))).thenReturn(List.of(order));
+
+        readModel.load();
+        assertEquals(OrderStatus.PENDING, readModel.find("ord-1").orElseThrow().status());
+
+        OutboxEvent completed = new OutboxEvent("ord-1", OrderChangeLog.EVENT_TYPE, objectMapper.writeValueAsString(
+                new OrderChangedEvent("ord-1", "Pen", 2, "key-1", OrderStatus.COMPLETED, 1, LocalDateTime.of(2026, 1, 2, 3, 4, 5))));
+        OutboxEvent created = new OutboxEvent("ord-2", OrderChangeLog.EVENT_TYPE, objectMapper.writeValueAsString(
+                new OrderChangedEvent("ord-2", "Book", 1, "key-2", OrderStatus.PENDING, 0, null)));
+        OutboxEvent unreadable = new OutboxEvent("ord-3", OrderChangeLog.EVENT_TYPE, "{");
+
+        when(outboxEventRepository.findEventsAfter(eq(OrderChangeLog.EVENT_TYPE), any(), eq(""), any(), eq(Limit.of(2))))
+                .thenReturn(List.of(completed, created));
+        when(outboxEventRepository.findEventsAfter(eq(OrderChangeLog.EVENT_TYPE), any(), eq(created.getId()), any(), eq(Limit.of(2))))
+                .thenReturn(List.of(unreadable));
+
+        readModel.poll();
+
+        assertEquals(OrderStatus.COMPLETED, readModel.find("ord-1").orElseThrow().status());
+        assertEquals(LocalDateTime.of(2026, 1, 2, 3, 4, 5), readModel.find("ord-1").orElseThrow().updatedAt());
+        assertEquals("Book", readModel.find("ord-2").orElseThrow().itemName());
+        assertTrue(readModel.find("ord-3").isEmpty());
+        verify(outboxEventRepository, times(2)).findEventsAfter(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldTellListenersAboutNewerStatesOnly() {
+        List<OrderView> seen = new ArrayList<>();
+        readModel.addListener(seen::add);
+
+        OrderView created = view("ord-1", "Pen", OrderStatus.PENDING, 0);
+        OrderView completed = view("ord-1", "Pen", OrderStatus.COMPLETED, 1);
+        readModel.apply(created);
+        readModel.apply(completed);
+        readModel.apply(created);
+
+        assertEquals(List.of(created, completed), seen);
+    }
+
+    @Test
+    void shouldPruneChangesOlderThanTheRetention() {
+        LocalDateTime before = LocalDateTime.now().minusHours(1);
+
+        readModel.prune();
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxEventRepository).deleteEventsBefore(eq(OrderChangeLog.EVENT_TYPE), cutoff.capture());
+        assertFalse(cutoff.getValue().isBefore(before));
+        assertTrue(cutoff.getValue().isBefore(LocalDateTime.now().minusMinutes(59)));
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.orderservice.scheduler;
+
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.repository.OrderJpaRepository;
+import com.example.orderservice.repository.OutboxEventRepository;
+import com.example.orderservice.service.OrderService;
+import com.example.orderservice.sharding.ShardTemplate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class OrderRecoverySchedulerTest {
+
+    private OrderJpaRepository orderRepository;
+    private OutboxEventRepository outboxEventRepository;
+    private LeaseLeaderElection leaderElection;
+    private OrderService orderService;
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrentMapCacheManager cacheManager;
+    private OrderRecoveryScheduler scheduler;
+    private final List<Runnable> scans = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        orderRepository = mock(OrderJpaRepository.class);
+        outboxEventRepository = mock(OutboxEventRepository.class);
+        leaderElection = mock(LeaseLeaderElection.class);
+        orderService = mock(OrderService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new ConcurrentMapCacheManager("orders");
+
+        ShardTemplate shardTemplate = new ShardTemplate(
+                List.of("default"), mock(PlatformTransactionManager.class), Runnable::run);
+
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("orderService", orderService);
+
+        scheduler = new OrderRecoveryScheduler(orderRepository, outboxEventRepository, shardTemplate,
+                leaderElection, beans.getBeanProvider(OrderService.class), cacheManager, meterRegistry, Runnable::run, scans::add,
+                true, 120000, 2, 100, 3);
+    }
+
+    private Order pending(String orderId, int retryCount) {
+        Order order = new Order(orderId, "Pen", 1, "key-" + orderId);
+        order.setRetryCount(retryCount);
+        return order;
+    }
+
+    @Test
+    void shouldDoNothingWithoutLease() {
+        when(leaderElection.tryAcquire(OrderRecoveryScheduler.LEASE)).thenReturn(false);
+
+        scheduler.recoverStaleOrders();
+
+        verifyNoInteractions(orderRepository, outboxEventRepository);
+        assertEquals(0, meterRegistry.get("orders.recovery.leader").gauge().value());
+    }
+
+    @Test
+    void shouldSkipTheTickWhileAScanIsInFlight() {
+        when(leaderElection.tryAcquire(OrderRecoveryScheduler.LEASE)).thenReturn(true);
+
+        scheduler.scheduleRecovery();
+        scheduler.scheduleRecovery();
+        assertEquals(1, scans.size());
+
+        scans.remove(0).run();
+        scheduler.scheduleRecovery();
+        assertEquals(1, scans.size());
+        verify(leaderElection).tryAcquire(OrderRecoveryScheduler.LEASE);
+    }
+
+    @Test
+    void shouldRequeueOrFailStaleOrdersInChunks() {
+        Order requeued = pending("ord-a", 0);
+        Order noEvent = pending("ord-b", 1);
+        Order exhausted = pending("ord-c", 3);
+
+        when(leaderElection.tryAcquire(OrderRecoveryScheduler.LEASE)).thenReturn(true);
+        when(orderRepository.countByStatusAndUpdatedAtBefore(eq(OrderStatus.PENDING), any(LocalDateTime.class)))
+                .thenReturn(3L);
+        when(orderRepository.findIdsByStatusAndUpdatedAtBefore(eq(OrderStatus.PENDING), any(), eq(""), eq(Limit.of(2))))
+                .thenReturn(List.of("ord-a", "ord-b"));
+        when(orderRepository.findIdsByStatusAndUpdatedAtBefore(eq(OrderStatus.PENDING), any(), eq("ord-b"), eq(Limit.of(2))))
+                .thenReturn(List.of("ord-c"));
+        when(orderRepository.findAllById(List.of("ord-a", "ord-b"))).thenReturn(List.of(requeued, noEvent));
+        when(orderRepository.findAllById(List.of("ord-c"))).thenReturn(List.of(exhausted));
+        when(outboxEventRepository.requeueOrderCreated("ord-a")).thenReturn(1);
+        when(orderService.transition(anyString(), eq(OrderStatus.FAILED))).thenReturn(Optional.of(noEvent));
+
+        scheduler.recoverStaleOrders();
+
+        assertEquals(1, requeued.getRetryCount());
+        verify(orderService, never()).transition("ord-a", OrderStatus.FAILED);
+        verify(orderService).transition("ord-b", OrderStatus.FAILED);
+        verify(orderService).transition("ord-c", OrderStatus.FAILED);
+        verify(outboxEventRepository, never()).requeueOrderCreated("ord-c");
+        verify(orderRepository, times(2)).findIdsByStatusAndUpdatedAtBefore(any(), any(), anyString(), any());
+
+        assertEquals(3, meterRegistry.get("orders.recovery.backlog").gauge().value());
+        assertEquals(1, meterRegistry.get("orders.recovery.requeued.count").counter().count());
+        assertEquals(2, meterRegistry.get("orders.recovery.failed.count").counter().count());
+    }
+
+    @Test
+    void shouldStopWhenTheLeaseIsLostBetweenChunks() {
+        when(leaderElection.tryAcquire(OrderRecoveryScheduler.LEASE)).thenReturn(true, true, false);
+        when(orderRepository.countByStatusAndUpdatedAtBefore(eq(OrderStatus.PENDING), any(LocalDateTime.class)))
+                .thenReturn(3L);
+        when(orderRepository.findIdsByStatusAndUpdatedAtBefore(eq(OrderStatus.PENDING), any(), eq(""), eq(Limit.of(2))))
+                .thenReturn(List.of("ord-a", "ord-b"));
+        when(orderRepository.findAllById(List.of("ord-a", "ord-b")))
+                .thenReturn(List.of(pending("ord-a", 0), pending("ord-b", 0)));
+
+        scheduler.recoverStaleOrders();
+
+        verify(orderRepository, times(1)).findIdsByStatusAndUpdatedAtBefore(any(), any(), anyString(), any());
+        verify(orderRepository, never()).findAllById(List.of("ord-c"));
+        assertEquals(0, meterRegistry.get("orders.recovery.leader").gauge().value());
+    }
+
+    @Test
+    void shouldEvictRecoveredOrdersOnlyAfterCommit() {
+        Order order = pending("ord-e", 0);
+        when(orderRepository.findAllById(List.of("ord-e"))).thenReturn(List.of(order));
+        when(outboxEventRepository.requeueOrderCreated("ord-e")).thenReturn(1);
+        cacheManager.getCache("orders").put("ord-e", "cached");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            scheduler.recoverOrders(List.of("ord-e"), LocalDateTime.now());
+            assertNotNull(cacheManager.getCache("orders").get("ord-e"));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertNull(cacheManager.getCache("orders").get("ord-e"));
+    }
+
+    @Test
+    void shouldRequeueOnceWhenDeadlinesFireOneAfterAnother() {
+        Order order = pending("ord-d", 0);
+        ReflectionTestUtils.setField(order, "updatedAt", LocalDateTime.now().minusMinutes(5));
+
+        when(orderRepository.findAllById(List.of("ord-d"))).thenReturn(List.of(order));
+        when(outboxEventRepository.requeueOrderCreated("ord-d")).thenReturn(1);
+
+        LocalDateTime staleBefore = LocalDateTime.now().minusMinutes(2);
+        assertEquals(List.of("ord-d"), scheduler.recoverOrders(List.of("ord-d"), staleBefore));
+
+        // The requeue's flush bumps updatedAt, which is what the next node's deadline sees
+        order.onUpdate();
+        assertEquals(List.of(), scheduler.recoverOrders(List.of("ord-d"), staleBefore));
+
+        assertEquals(1, order.getRetryCount());
+        verify(outboxEventRepository, times(1)).requeueOrderCreated("ord-d");
+    }
+}
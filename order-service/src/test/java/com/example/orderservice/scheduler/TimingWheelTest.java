@@ -0,0 +1,86 @@
+package com.example.orderservice.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimingWheelTest {
+
+    // 8 buckets x 3 levels at 10ms covers 5.12s before timers are parked
+    private final TimingWheel<String> wheel = new TimingWheel<>(10, 8, 3, 0);
+
+    private Map<String, Long> runUntil(long endMs) {
+        Map<String, Long> fired = new HashMap<>();
+        for (long now = 10; now <= endMs; now += 10) {
+            for (String key : wheel.advanceTo(now)) {
+                assertNull(fired.put(key, now), key + " fired twice");
+            }
+        }
+        return fired;
+    }
+
+    @Test
+    void shouldFireEachTimerOnItsTickAcrossLevels() {
+        Random random = new Random(42);
+        Map<String, Long> deadlines = new HashMap<>();
+
+        for (int i = 0; i < 2000; i++) {
+            long deadline = 10 + random.nextInt(20_000);
+            deadlines.put("ord-" + i, deadline);
+            wheel.schedule("ord-" + i, deadline);
+        }
+
+        Map<String, Long> fired = runUntil(21_000);
+
+        assertEquals(deadlines.size(), fired.size());
+        deadlines.forEach((key, deadline) ->
+                assertEquals(Math.ceilDiv(deadline, 10) * 10, fired.get(key), key));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void shouldNotFireCancelledOrReplacedTimers() {
+        wheel.schedule("cancelled", 500);
+        wheel.schedule("moved", 500);
+        wheel.schedule("kept", 500);
+
+        assertTrue(wheel.cancel("cancelled"));
+        assertFalse(wheel.cancel("unknown"));
+        wheel.schedule("moved", 3000);
+
+        Map<String, Long> fired = runUntil(4000);
+
+        assertEquals(Map.of("kept", 500L, "moved", 3000L), fired);
+    }
+
+    @Test
+    void shouldFireOverdueTimersOnNextTick() {
+        wheel.advanceTo(1000);
+        wheel.schedule("late", 200);
+
+        assertEquals(List.of(), wheel.advanceTo(1000));
+        assertEquals(List.of("late"), wheel.advanceTo(1010));
+    }
+
+    @Test
+    void shouldScheduleAndCancelMillionsOfTimers() {
+        TimingWheel<Integer> large = new TimingWheel<>(100, 512, 4, 0);
+
+        for (int i = 0; i < 2_000_000; i++) {
+            large.schedule(i, 120_000 + i);
+        }
+        assertEquals(2_000_000, large.size());
+
+        for (int i = 0; i < 2_000_000; i += 2) {
+            large.cancel(i);
+        }
+        assertEquals(1_000_000, large.size());
+
+        assertEquals(1_000_000, large.advanceTo(120_000 + 2_000_000).size());
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.orderservice.search;
+
+import com.example.orderservice.repository.OrderJpaRepository;
+import com.example.orderservice.sharding.ShardTemplate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class InMemoryItemNameSearchTest {
+
+    private InMemoryItemNameSearch search;
+
+    @BeforeEach
+    void setup() {
+        ShardTemplate shardTemplate = new ShardTemplate(
+                List.of("default"), mock(PlatformTransactionManager.class), Runnable::run);
+
+        search = new InMemoryItemNameSearch(mock(OrderJpaRepository.class), shardTemplate, 1000, 0.3);
+
+        for (String name : List.of("Pen", "Pencil", "pencil case", "Pen Drive", "Penguin Book", "Paper", "Notebook")) {
+            search.recordItem(name);
+        }
+    }
+
+    @Test
+    void shouldListPrefixMatchesInOrderIgnoringCase() {
+        assertEquals(List.of("Pen", "Pen Drive", "Pencil", "pencil case", "Penguin Book"), search.prefix("pen", 10));
+        assertEquals(List.of("Pencil", "pencil case"), search.prefix("PENC", 10));
+        assertEquals(List.of("Pen", "Pen Drive"), search.prefix("pen", 2));
+        assertEquals(List.of("Paper"), search.prefix("pa", 10));
+        assertEquals(List.of(), search.prefix("pencils", 10));
+        assertEquals(7, search.prefix("", 10).size());
+    }
+
+    @Test
+    void shouldRankTypoMatchesBySimilarity() {
+        List<String> matches = search.fuzzy("pencli", 10);
+
+        // "pencil case" shares 4 of 15 trigrams with it, under the 0.3 cut-off
+
+        assertEquals(List.of("Pencil", "Pen"), matches);
+        assertEquals(List.of("pencil case", "Pencil"), search.fuzzy("pencil cse", 10));
+        assertEquals(List.of("Notebook"), search.fuzzy("notebok", 10));
+        assertEquals(List.of(), search.fuzzy("xyz", 10));
+    }
+
+    @Test
+    void shouldServeLargeNameSets() {
+        for (int i = 0; i < 200_000; i++) {
+            search.recordItem("item-" + i);
+        }
+        search.recordItem("item-5");
+
+        assertEquals(List.of("item-199999"), search.prefix("item-199999", 10));
+        assertEquals(List.of("item-12345", "item-123450", "item-123451"), search.prefix("item-12345", 3));
+        assertEquals(111, search.prefix("item-1234", 200).size());
+        assertEquals("item-54321", search.fuzzy("item-54321", 1).get(0));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.orderservice.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Authentication cost per request for a bcrypt (strength 10) user: Basic
+ * verified every time, Basic through {@link CachingAuthenticationProvider},
+ * and a bearer token verified by {@link TokenService}. Not part of the regular
+ * test run: {@code mvn test -Dtest=AuthenticationBenchmark}
+ */
+public class AuthenticationBenchmark {
+
+    @Test
+    void compareAuthenticationCost() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(10);
+        InMemoryUserDetailsManager users = new InMemoryUserDetailsManager(User.withUsername("user")
+                .password("{bcrypt}" + encoder.encode("password"))
+                .roles("USER")
+                .build());
+
+        AuthenticationManager uncached = new ProviderManager(new DaoAuthenticationProvider(users));
+        AuthenticationManager cached = new ProviderManager(new CachingAuthenticationProvider(new DaoAuthenticationProvider(users),
+                Clock.systemUTC(), Duration.ofSeconds(60), 10_000, new SimpleMeterRegistry()));
+
+        TokenService tokenService = new TokenService(new ObjectMapper(), Clock.systemUTC(), "", Duration.ofMinutes(15), true);
+        String token = tokenService.issue(uncached.authenticate(login()));
+
+        for (int round = 0; round < 2; round++) {
+            boolean report = round == 1;
+            run("basic, bcrypt", 50, () -> uncached.authenticate(login()), report);
+            run("basic, cached", 200_000, () -> cached.authenticate(login()), report);
+            run("bearer token", 200_000, () -> tokenService.verify(token), report);
+        }
+    }
+
+    private static UsernamePasswordAuthenticationToken login() {
+        return UsernamePasswordAuthenticationToken.unauthenticated("user", "password");
+    }
+
+    private static void run(String label, int iterations, Supplier<Authentication> authenticate, boolean report) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            if (!authenticate.get().isAuthenticated()) {
+                throw new IllegalStateException(label + " failed");
+            }
+        }
+        long perRequest = (System.nanoTime() - start) / iterations;
+
+        if (report) {
+            System.out.printf("%-14s %10.3f us/request%n", label, perRequest / 1000.0);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.orderservice.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class BearerTokenFilterTest {
+
+    private final TokenService tokenService = new TokenService(new ObjectMapper(), Clock.systemUTC(), "", Duration.ofMinutes(15), true);
+    private final BearerTokenFilter filter = new BearerTokenFilter(tokenService);
+
+    @AfterEach
+    void clear() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldAuthenticateBearerRequests() throws Exception {
+        MockHttpServletRequest request = bearer("/orders/ord-1");
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertEquals("user", SecurityContextHolder.getContext().getAuthentication().getName());
+    }
+
+    @Test
+    void shouldNotExchangeATokenForANewOne() throws Exception {
+        MockHttpServletRequest request = bearer(BearerTokenFilter.TOKEN_PATH);
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Left to Basic authentication, which ignores a bearer header, so the request stays anonymous
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private MockHttpServletRequest bearer(String uri) {
+        String token = tokenService.issue(UsernamePasswordAuthenticationToken.authenticated(
+                "user", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.orderservice.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class CachingAuthenticationProviderTest {
+
+    private AuthenticationProvider delegate;
+    private Clock clock;
+    private CachingAuthenticationProvider provider;
+
+    @BeforeEach
+    void setup() {
+        delegate = mock(AuthenticationProvider.class);
+        when(delegate.authenticate(any())).thenAnswer(invocation -> {
+            UsernamePasswordAuthenticationToken login = invocation.getArgument(0);
+            if (!"password".equals(login.getCredentials())) {
+                throw new BadCredentialsException("Bad credentials");
+            }
+            return UsernamePasswordAuthenticationToken.authenticated(login.getName(), null,
+                    AuthorityUtils.createAuthorityList("ROLE_USER"));
+        });
+
+        clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(0L);
+        provider = new CachingAuthenticationProvider(delegate, clock, Duration.ofSeconds(60), 100, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldVerifyCredentialsOncePerTtl() {
+        assertTrue(provider.authenticate(login("password")).isAuthenticated());
+        assertTrue(provider.authenticate(login("password")).isAuthenticated());
+        verify(delegate, times(1)).authenticate(any());
+
+        when(clock.millis()).thenReturn(60_000L);
+        provider.authenticate(login("password"));
+        verify(delegate, times(2)).authenticate(any());
+    }
+
+    @Test
+    void shouldNotTrustADifferentPasswordForACachedUser() {
+        provider.authenticate(login("password"));
+
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(login("guess")));
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(login("guess")));
+        verify(delegate, times(3)).authenticate(any());
+    }
+
+    private static UsernamePasswordAuthenticationToken login(String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated("user", password);
+    }
+}
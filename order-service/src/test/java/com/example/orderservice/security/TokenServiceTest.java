@@ -0,0 +1,86 @@
+package com.example.orderservice.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TokenServiceTest {
+
+    private static final String OLD_KEY = "old:" + "b2xkLWtleS1vbGQta2V5LW9sZC1rZXktb2xkLWtleSE=";
+    private static final String NEW_KEY = "new:" + "bmV3LWtleS1uZXcta2V5LW5ldy1rZXktbmV3LWtleSE=";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Authentication user = UsernamePasswordAuthenticationToken.authenticated(
+            "user", null, AuthorityUtils.createAuthorityList("ROLE_USER"));
+
+    private Clock clock;
+
+    @BeforeEach
+    void setup() {
+        clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(Instant.parse("2026-01-01T00:00:00Z"));
+    }
+
+    @Test
+    void shouldVerifyIssuedTokensAcrossKeyRotation() {
+        String token = new TokenService(objectMapper, clock, OLD_KEY, Duration.ofMinutes(15), false).issue(user);
+
+        TokenService rotated = new TokenService(objectMapper, clock, NEW_KEY + "," + OLD_KEY, Duration.ofMinutes(15), false);
+        Authentication verified = rotated.verify(token);
+
+        assertEquals("user", verified.getName());
+        assertTrue(verified.isAuthenticated());
+        assertEquals("ROLE_USER", verified.getAuthorities().iterator().next().getAuthority());
+
+        TokenService retired = new TokenService(objectMapper, clock, NEW_KEY, Duration.ofMinutes(15), false);
+        assertThrows(BadCredentialsException.class, () -> retired.verify(token));
+    }
+
+    @Test
+    void shouldRejectTamperedTokens() {
+        TokenService tokenService = new TokenService(objectMapper, clock, OLD_KEY, Duration.ofMinutes(15), false);
+        String token = tokenService.issue(user);
+
+        String[] parts = token.split("\\.");
+        String otherUser = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"sub\":\"admin\",\"exp\":9999999999}".getBytes());
+
+        assertThrows(BadCredentialsException.class, () -> tokenService.verify(parts[0] + "." + otherUser + "." + parts[2]));
+        assertThrows(BadCredentialsException.class, () -> tokenService.verify(parts[0] + "." + parts[1] + "."));
+        assertThrows(BadCredentialsException.class, () -> tokenService.verify("not-a-token"));
+    }
+
+    @Test
+    void shouldRejectExpiredTokens() {
+        TokenService tokenService = new TokenService(objectMapper, clock, OLD_KEY, Duration.ofMinutes(15), false);
+        String token = tokenService.issue(user);
+
+        when(clock.instant()).thenReturn(Instant.parse("2026-01-01T00:16:00Z"));
+
+        assertThrows(BadCredentialsException.class, () -> tokenService.verify(token));
+    }
+
+    @Test
+    void shouldRequireSharedKeysOfAtLeast256Bits() {
+        String shortKey = "short:" + Base64.getEncoder().encodeToString(new byte[16]);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new TokenService(objectMapper, clock, shortKey, Duration.ofMinutes(15), false));
+        assertThrows(IllegalStateException.class,
+                () -> new TokenService(objectMapper, clock, "", Duration.ofMinutes(15), false));
+        assertNotNull(new TokenService(objectMapper, clock, "", Duration.ofMinutes(15), true).issue(user));
+    }
+}
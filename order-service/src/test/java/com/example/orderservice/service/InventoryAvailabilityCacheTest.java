@@ -0,0 +1,89 @@
+package com.example.orderservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InventoryAvailabilityCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private InventoryAvailabilityCache cache;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new InventoryAvailabilityCache(true, "reject", 100, 30_000, 10_000,
+                "Insufficient stock,Out of stock", meterRegistry);
+    }
+
+    @Test
+    void shouldOnlyTurnAwayQuantitiesAtOrAboveARejectedOne() {
+        assertTrue(cache.recordRejected("Book", 5, "Insufficient stock"));
+
+        assertTrue(cache.isKnownUnavailable("Book", 5));
+        assertTrue(cache.isKnownUnavailable("Book", 7));
+        assertFalse(cache.isKnownUnavailable("Book", 4));
+        assertEquals(2, meterRegistry.counter("inventory.availability.avoided.count").count());
+    }
+
+    @Test
+    void shouldTurnAwayEveryQuantityOnceASingleItemIsRejected() {
+        cache.recordRejected("Book", 1, "out of stock");
+
+        assertTrue(cache.isKnownUnavailable("Book", 1));
+    }
+
+    @Test
+    void shouldIgnoreRejectionsThatAreNotAboutStock() {
+        assertFalse(cache.recordRejected("Book", 5, "Item discontinued"));
+        assertFalse(cache.recordRejected("Pen", 5, null));
+
+        assertFalse(cache.isKnownUnavailable("Book", 5));
+        assertFalse(cache.isKnownUnavailable("Pen", 5));
+        assertTrue(cache.trackedItems().isEmpty());
+    }
+
+    @Test
+    void shouldKeepTheTighterBoundAcrossRejections() {
+        cache.recordRejected("Book", 3, "Insufficient stock");
+        cache.recordRejected("Book", 8, "Insufficient stock");
+
+        assertTrue(cache.isKnownUnavailable("Book", 3));
+        assertFalse(cache.isKnownUnavailable("Book", 2));
+    }
+
+    @Test
+    void shouldCountReservationsAgainstASnapshot() {
+        cache.applySnapshot(Map.of("Book", 4, "Pen", 0));
+        cache.recordReserved("Book", 3);
+
+        assertFalse(cache.isKnownUnavailable("Book", 1));
+        assertTrue(cache.isKnownUnavailable("Book", 2));
+        assertTrue(cache.isKnownUnavailable("Pen", 1));
+    }
+
+    @Test
+    void shouldProbeAgainOnceARejectionIsStale() {
+        cache = new InventoryAvailabilityCache(true, "reject", 100, 30_000, 0,
+                "Insufficient stock", meterRegistry);
+        cache.recordRejected("Book", 5, "Insufficient stock");
+
+        assertFalse(cache.isKnownUnavailable("Book", 5));
+        assertEquals(1, meterRegistry.counter("inventory.availability.stale.count").count());
+    }
+
+    @Test
+    void shouldAnswerNothingWhenDisabled() {
+        cache = new InventoryAvailabilityCache(false, "reject", 100, 30_000, 10_000,
+                "Insufficient stock", meterRegistry);
+        cache.recordRejected("Book", 5, "Insufficient stock");
+
+        assertFalse(cache.isKnownUnavailable("Book", 5));
+    }
+}
@@ -1,23 +1,38 @@
 package com.example.orderservice.service;
 
+import com.example.orderservice.datasource.ReadYourWritesTracker;
 import com.example.orderservice.dto.OrderRequest;
 import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.inbox.ConsumerInbox;
 import com.example.orderservice.mapper.OrderMapper;
 import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderStatus;
 import com.example.orderservice.model.OutboxEvent;
 import com.example.orderservice.repository.OrderJpaRepository;
 import com.example.orderservice.repository.OutboxEventRepository;
+import com.example.orderservice.readmodel.OrderChangeLog;
+import com.example.orderservice.scheduler.OrderDeadlineTracker;
+import com.example.orderservice.search.ItemNameSearch;
+import com.example.orderservice.sharding.ShardTemplate;
+import com.example.orderservice.stream.OrderStatusNotifier;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
 import org.springframework.context.ApplicationEventPublisher;
 
+import java.util.Optional;
+
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 public class OrderServiceTest {
@@ -29,6 +44,8 @@ public class OrderServiceTest {
     private OutboxEventRepository outboxEvent;
     private ObjectMapper objectMapper;
     private MeterRegistry meterRegistry;
+    private InventoryAvailabilityCache availabilityCache;
+    private OrderStatsService statsService;
 
     @BeforeEach
     void setup() {
@@ -39,8 +56,10 @@ public class OrderServiceTest {
         meterRegistry = mock(MeterRegistry.class);
         Counter counter = mock(Counter.class);
         when(meterRegistry.counter("orders.created.count")).thenReturn(counter);
+        availabilityCache = mock(InventoryAvailabilityCache.class);
+        statsService = mock(OrderStatsService.class);
 
-        orderService = new OrderService(orderRepository, outboxEvent, orderMapper, meterRegistry, objectMapper);
+        orderService = new OrderService(orderRepository, outboxEvent, orderMapper, meterRegistry, objectMapper, availabilityCache, mock(ShardTemplate.class), mock(OrderDeadlineTracker.class), statsService, mock(ItemNameSearch.class), mock(OrderChangeLog.class), mock(OrderStatusNotifier.class), mock(ConsumerInbox.class), new StaticListableBeanFactory().getBeanProvider(ReadYourWritesTracker.class));
     }
 
     @Test
@@ -88,16 +107,76 @@ public class OrderServiceTest {
         verify(orderRepository, never()).save(any());
     }
 
+    @Test
+    void shouldRejectOrderForKnownUnavailableItem() {
+        OrderRequest request = new OrderRequest("ord-2", "Pen", 1, "test-456");
+        when(availabilityCache.isKnownUnavailable("Pen", 1)).thenReturn(true);
+
+        assertThrows(ItemUnavailableException.class, () -> orderService.createOrder(request));
+
+        verify(orderRepository, never()).save(any());
+        verify(outboxEvent, never()).save(any());
+    }
+
     @Test
     void shouldIncreaseQuantity() {
 
-        Order order = new Order("ord-1", "Book", 2, "test-123" );
+        Order order = new Order("ord-1", "Book", 5, "test-123" );
 
+        when(orderRepository.incrementQuantity(eq("ord-1"), eq(3), any())).thenReturn(1);
         when(orderRepository.findById("ord-1"))
                 .thenReturn(java.util.Optional.of(order));
 
-        orderService.increaseQuantity("ord-1", 3);
+        orderService.addQuantity("ord-1", 3);
+
+        verify(orderRepository).incrementQuantity(eq("ord-1"), eq(3), any());
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(statsService).recordQuantityChange("Book", OrderStatus.PENDING, 3);
+    }
+
+    @Test
+    void shouldCompletePendingOrderWithAConditionalUpdate() {
+        Order order = new Order("ord-1", "Book", 2, "test-123");
+        when(orderRepository.transition(eq("ord-1"), eq(OrderStatus.PENDING), eq(OrderStatus.COMPLETED), any())).thenReturn(1);
+        when(orderRepository.findById("ord-1")).thenReturn(Optional.of(order));
+
+        assertTrue(orderService.markOrderCompleted("ord-1", "inventory-reserved-0@1"));
+
+        verify(statsService).recordStatusChange(2, OrderStatus.PENDING, OrderStatus.COMPLETED);
+        verify(availabilityCache).recordReserved("Book", 2);
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void shouldPassTheRejectedQuantityAndReasonToTheAvailabilityView() {
+        Order order = new Order("ord-1", "Book", 3, "test-123");
+        when(orderRepository.transition(eq("ord-1"), eq(OrderStatus.PENDING), eq(OrderStatus.FAILED), any())).thenReturn(1);
+        when(orderRepository.findById("ord-1")).thenReturn(Optional.of(order));
+
+        assertTrue(orderService.markOrderFailed("ord-1", "inventory-failed-0@1", "Insufficient stock"));
+
+        verify(availabilityCache).recordRejected("Book", 3, "Insufficient stock");
+    }
+
+    @Test
+    void shouldIgnoreCompletionOfAFailedOrder() {
+        when(orderRepository.transition(eq("ord-1"), any(), eq(OrderStatus.COMPLETED), any())).thenReturn(0);
+
+        assertFalse(orderService.markOrderCompleted("ord-1", "inventory-reserved-0@1"));
+
+        verify(orderRepository, times(1)).transition(any(), any(), any(), any());
+        verify(orderRepository, never()).findById(any());
+        verify(statsService, never()).recordStatusChange(anyInt(), any(), any());
+        verify(availabilityCache, never()).recordReserved(any(), anyInt());
+    }
+
+    @Test
+    void shouldIgnoreTransitionsOfMissingOrdersWithoutAnotherQuery() {
+        when(orderRepository.transition(eq("missing"), any(), eq(OrderStatus.FAILED), any())).thenReturn(0);
+
+        assertFalse(orderService.markOrderFailed("missing", "inventory-failed-0@1", "Insufficient stock"));
 
-        assertEquals(5, order.getQuantity());
+        verify(orderRepository, never()).existsById(any());
+        verify(availabilityCache, never()).recordRejected(any(), anyInt(), any());
     }
 }
@@ -0,0 +1,142 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderStatsResponse;
+import com.example.orderservice.model.OrderStatsEntry;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.repository.OrderJpaRepository;
+import com.example.orderservice.repository.OrderStatsRepository;
+import com.example.orderservice.sharding.ShardTemplate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class OrderStatsServiceTest {
+
+    private OrderJpaRepository orderRepository;
+    private OrderStatsRepository statsRepository;
+    private OrderStatsService statsService;
+
+    @BeforeEach
+    void setup() {
+        orderRepository = mock(OrderJpaRepository.class);
+        statsRepository = mock(OrderStatsRepository.class);
+
+        ShardTemplate shardTemplate = new ShardTemplate(
+                List.of("default"), mock(PlatformTransactionManager.class), Runnable::run);
+
+        statsService = new OrderStatsService(orderRepository, statsRepository, shardTemplate,
+                new SimpleMeterRegistry(), true, 10000);
+    }
+
+    private void assertTotals(long orderCount, long quantity, OrderStatsResponse.Totals totals) {
+        assertEquals(orderCount, totals.getOrderCount());
+        assertEquals(quantity, totals.getQuantity());
+    }
+
+    @Test
+    void shouldUpdateTotalsIncrementally() {
+        statsService.recordCreated("Pen", OrderStatus.PENDING, 2);
+        statsService.recordCreated("Pen", OrderStatus.PENDING, 3);
+        statsService.recordCreated("Book", OrderStatus.PENDING, 1);
+        statsService.recordQuantityChange("Pen", OrderStatus.PENDING, 5);
+        statsService.recordStatusChange(7, OrderStatus.PENDING, OrderStatus.COMPLETED);
+        statsService.recordStatusChange(1, OrderStatus.PENDING, OrderStatus.FAILED);
+        statsService.recordStatusChange(1, OrderStatus.FAILED, OrderStatus.FAILED);
+
+        OrderStatsResponse stats = statsService.getStats();
+
+        assertTotals(1, 3, stats.getByStatus().get("PENDING"));
+        assertTotals(1, 7, stats.getByStatus().get("COMPLETED"));
+        assertTotals(1, 1, stats.getByStatus().get("FAILED"));
+        assertTotals(2, 10, stats.getByItem().get("Pen"));
+        assertTotals(1, 1, stats.getByItem().get("Book"));
+
+        assertTotals(2, 10, statsService.getItemStats("Pen").getByItem().get("Pen"));
+        assertTotals(0, 0, statsService.getItemStats("Lamp").getByItem().get("Lamp"));
+    }
+
+    @Test
+    void shouldFlushDeltasAndLoadOtherNodesTotalsOnCheckpoint() {
+        statsService.recordCreated("Pen", OrderStatus.PENDING, 2);
+
+        when(statsRepository.increment(eq("status:PENDING"), anyLong(), anyLong(), any())).thenReturn(1);
+        when(statsRepository.increment(eq("item:Pen"), anyLong(), anyLong(), any())).thenReturn(0);
+        when(statsRepository.findAll()).thenReturn(List.of(
+                new OrderStatsEntry(OrderStatsEntry.STATUS, "PENDING", 10, 40),
+                new OrderStatsEntry(OrderStatsEntry.ITEM, "Pen", 1, 2)));
+
+        statsService.checkpoint();
+
+        verify(statsRepository).increment(eq("status:PENDING"), eq(1L), eq(2L), any());
+        verify(statsRepository).save(argThat(entry -> entry.getId().equals("item:Pen") && entry.getOrderCount() == 1));
+        assertTotals(10, 40, statsService.getStats().getByStatus().get("PENDING"));
+
+        // Nothing recorded since, so the next checkpoint only reloads
+        statsService.checkpoint();
+        verify(statsRepository, times(2)).increment(anyString(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void shouldKeepDeltasWhenCheckpointFails() {
+        statsService.recordCreated("Pen", OrderStatus.PENDING, 2);
+
+        when(statsRepository.increment(anyString(), anyLong(), anyLong(), any()))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(1);
+        when(statsRepository.findAll()).thenReturn(List.of(new OrderStatsEntry(OrderStatsEntry.ITEM, "Pen", 2, 5)));
+
+        statsService.checkpoint();
+        statsService.recordCreated("Pen", OrderStatus.PENDING, 3);
+        statsService.checkpoint();
+
+        verify(statsRepository).increment(eq("status:PENDING"), eq(2L), eq(5L), any());
+        verify(statsRepository).increment(eq("item:Pen"), eq(2L), eq(5L), any());
+        assertTotals(2, 5, statsService.getStats().getByItem().get("Pen"));
+    }
+
+    @Test
+    void shouldRebuildFromOrders() {
+        statsService.recordCreated("Pen", OrderStatus.PENDING, 99);
+
+        when(orderRepository.sumByStatus()).thenReturn(List.<Object[]>of(
+                new Object[]{OrderStatus.PENDING, 2L, 5L},
+                new Object[]{OrderStatus.COMPLETED, 1L, 4L}));
+        when(orderRepository.sumByItem()).thenReturn(List.<Object[]>of(
+                new Object[]{"Pen", 3L, 9L}));
+
+        statsService.rebuild();
+
+        verify(statsRepository).deleteAllInBatch();
+        OrderStatsResponse stats = statsService.getStats();
+        assertTotals(2, 5, stats.getByStatus().get("PENDING"));
+        assertTotals(1, 4, stats.getByStatus().get("COMPLETED"));
+        assertTotals(3, 9, stats.getByItem().get("Pen"));
+
+        // The rebuild replaced the unflushed delta, so a checkpoint has nothing to add
+        statsService.checkpoint();
+        verify(statsRepository, never()).increment(anyString(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void shouldKeepDeltasWhenRebuildFails() {
+        statsService.recordCreated("Pen", OrderStatus.PENDING, 2);
+        when(orderRepository.sumByStatus()).thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertThrows(DataAccessResourceFailureException.class, statsService::rebuild);
+
+        statsService.checkpoint();
+        verify(statsRepository).increment(eq("item:Pen"), eq(1L), eq(2L), any());
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.repository.OrderJpaRepository;
+import com.example.orderservice.sharding.ShardTemplate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * Compares quantity increments on one hot order with 1, 8 and 64 concurrent
+ * writers, through the application's own beans and database: read-modify-write
+ * with a version check (conflicts are what the API used to return as 409),
+ * {@link OrderService#addQuantity}, and addQuantity behind
+ * {@link QuantityIncrementCombiner}. Runs on in-memory H2 and the default
+ * connection pool; application.properties is not loaded, since it imports the
+ * config server, so every setting not given here takes its default. Not part
+ * of the regular test run:
+ * {@code mvn test -Dtest=QuantityIncrementBenchmark}
+ */
+@SpringBootTest(args = "--spring.config.name=quantity-increment-benchmark", properties = {
+        "spring.datasource.url=jdbc:h2:mem:increments;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.kafka.listener.auto-startup=false",
+        "management.tracing.enabled=false",
+        "custom.message=benchmark",
+        "orders.status-stream.group-id=benchmark",
+        "orders.sql.log-sample-rate=0",
+        "logging.level.com.example.orderservice=WARN"
+})
+public class QuantityIncrementBenchmark {
+
+    private static final int INCREMENTS = 20_000;
+    private static final int[] WRITERS_PER_KEY = {1, 8, 64};
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private QuantityIncrementCombiner combiner;
+
+    @Autowired
+    private OrderJpaRepository orderRepository;
+
+    @Autowired
+    private ShardTemplate shardTemplate;
+
+    private final AtomicLong conflicts = new AtomicLong();
+
+    @Test
+    void compareIncrementStrategies() throws Exception {
+        String orderId = "hot";
+        shardTemplate.write(shardTemplate.shardFor(orderId),
+                () -> orderRepository.save(new Order(orderId, "Pen", 1, "key-hot")));
+
+        run("warmup", 8, orderService::addQuantity);
+
+        for (int writers : WRITERS_PER_KEY) {
+            run("optimistic", writers, this::optimistic);
+            run("atomic", writers, orderService::addQuantity);
+            run("combined", writers, combiner::increment);
+        }
+    }
+
+    private void run(String label, int writers, BiFunction<String, Integer, OrderResponse> increment) throws Exception {
+        conflicts.set(0);
+        int before = quantity("hot");
+        ExecutorService callers = Executors.newFixedThreadPool(writers);
+
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> calls = new ArrayList<>(INCREMENTS);
+            for (int i = 0; i < INCREMENTS; i++) {
+                calls.add(callers.submit(() -> increment.apply("hot", 1)));
+            }
+            for (Future<?> call : calls) {
+                call.get();
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        long applied = quantity("hot") - before;
+
+        System.out.printf("%-10s writers=%-2d time=%.2fs increments/sec=%.0f conflicts=%d applied=%d%n",
+                label, writers, seconds, applied / seconds, conflicts.get(), applied);
+    }
+
+    private int quantity(String orderId) {
+        return shardTemplate.read(shardTemplate.shardFor(orderId),
+                () -> orderRepository.findById(orderId).orElseThrow().getQuantity());
+    }
+
+    // What PATCH /orders/{id}/quantity did before addQuantity: load, add, and flush with a version check
+    private OrderResponse optimistic(String orderId, int delta) {
+        try {
+            shardTemplate.write(shardTemplate.shardFor(orderId), () -> {
+                Order order = orderRepository.findById(orderId).orElseThrow();
+                order.setQuantity(order.getQuantity() + delta);
+                return orderRepository.saveAndFlush(order);
+            });
+        } catch (ObjectOptimisticLockingFailureException e) {
+            conflicts.incrementAndGet();
+        }
+        return null;
+    }
+}
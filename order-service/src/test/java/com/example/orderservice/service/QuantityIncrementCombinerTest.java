@@ -0,0 +1,140 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class QuantityIncrementCombinerTest {
+
+    private final AtomicInteger quantity = new AtomicInteger();
+    private final List<Integer> writes = new ArrayList<>();
+
+    private OrderResponse write(String orderId, int delta) {
+        synchronized (writes) {
+            writes.add(delta);
+        }
+        return new OrderResponse(orderId, "Pen", quantity.addAndGet(delta), "key", (long) writes.size());
+    }
+
+    @Test
+    void shouldCombineIncrementsQueuedBehindAWrite() throws Exception {
+        CountDownLatch firstWriteStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstWrite = new CountDownLatch(1);
+
+        BiFunction<String, Integer, OrderResponse> writer = (orderId, delta) -> {
+            if (firstWriteStarted.getCount() > 0) {
+                firstWriteStarted.countDown();
+                await(releaseFirstWrite);
+            }
+            return write(orderId, delta);
+        };
+        QuantityIncrementCombiner combiner = combiner(writer, true);
+
+        ExecutorService callers = Executors.newFixedThreadPool(11);
+        try {
+            Future<OrderResponse> first = callers.submit(() -> combiner.increment("ord-1", 1));
+            assertTrue(firstWriteStarted.await(5, TimeUnit.SECONDS));
+
+            List<Future<OrderResponse>> queued = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                queued.add(callers.submit(() -> combiner.increment("ord-1", 2)));
+            }
+            Thread.sleep(300);
+            releaseFirstWrite.countDown();
+
+            assertEquals(1, first.get(5, TimeUnit.SECONDS).getQuantity());
+            for (Future<OrderResponse> increment : queued) {
+                assertEquals(21, increment.get(5, TimeUnit.SECONDS).getQuantity());
+            }
+            assertEquals(List.of(1, 20), writes);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldFailEveryCombinedCallerWhenTheWriteFails() throws Exception {
+        CountDownLatch firstWriteStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstWrite = new CountDownLatch(1);
+
+        BiFunction<String, Integer, OrderResponse> writer = (orderId, delta) -> {
+            if (firstWriteStarted.getCount() > 0) {
+                firstWriteStarted.countDown();
+                await(releaseFirstWrite);
+                return write(orderId, delta);
+            }
+            throw new OrderNotFoundException(orderId);
+        };
+        QuantityIncrementCombiner combiner = combiner(writer, true);
+
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            Future<OrderResponse> first = callers.submit(() -> combiner.increment("ord-1", 1));
+            assertTrue(firstWriteStarted.await(5, TimeUnit.SECONDS));
+
+            List<Future<OrderResponse>> queued = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                queued.add(callers.submit(() -> combiner.increment("ord-1", 1)));
+            }
+            Thread.sleep(300);
+            releaseFirstWrite.countDown();
+
+            assertEquals(1, first.get(5, TimeUnit.SECONDS).getQuantity());
+            for (Future<OrderResponse> increment : queued) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> increment.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(OrderNotFoundException.class, e.getCause());
+            }
+
+            // Nothing is left behind for the order: the next caller writes straight away
+            assertTimeoutPreemptively(Duration.ofSeconds(5),
+                    () -> assertThrows(OrderNotFoundException.class, () -> combiner.increment("ord-1", 1)));
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldWriteEachIncrementWhenDisabled() {
+        QuantityIncrementCombiner combiner = combiner(this::write, false);
+
+        combiner.increment("ord-1", 2);
+        combiner.increment("ord-1", 3);
+
+        assertEquals(List.of(2, 3), writes);
+        assertThrows(IllegalArgumentException.class, () -> combiner.increment("ord-1", 0));
+    }
+
+    private static QuantityIncrementCombiner combiner(BiFunction<String, Integer, OrderResponse> writer, boolean enabled) {
+        OrderService orderService = mock(OrderService.class);
+        when(orderService.addQuantity(anyString(), anyInt()))
+                .thenAnswer(invocation -> writer.apply(invocation.getArgument(0), invocation.getArgument(1)));
+
+        return new QuantityIncrementCombiner(orderService, new SimpleMeterRegistry(), enabled);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.orderservice.sharding;
+
+import com.example.orderservice.model.Order;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardTemplateTest {
+
+    private static final List<String> SHARDS = List.of("shard-0", "shard-1", "shard-2");
+
+    private final Map<String, DataSource> shardPools = new LinkedHashMap<>();
+    private ShardRoutingDataSource dataSource;
+    private ConsistentHashRing ring;
+    private ShardTemplate shardTemplate;
+    private TransactionTemplate tx;
+    private JdbcTemplate jdbc;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() {
+        for (String shard : SHARDS) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(shard);
+            pool.setJdbcUrl("jdbc:h2:mem:sharding-" + shard + ";DB_CLOSE_DELAY=-1");
+            pool.setUsername("sa");
+
+            JdbcTemplate shardJdbc = new JdbcTemplate(pool);
+            shardJdbc.execute("DROP TABLE IF EXISTS orders");
+            shardJdbc.execute("DROP TABLE IF EXISTS outbox_events");
+            shardJdbc.execute("CREATE TABLE orders (order_id VARCHAR(40) PRIMARY KEY, item_name VARCHAR(40), quantity INT)");
+            shardJdbc.execute("CREATE TABLE outbox_events (id VARCHAR(40) PRIMARY KEY, aggregate_id VARCHAR(40))");
+            shardPools.put(shard, pool);
+        }
+
+        dataSource = new ShardRoutingDataSource(shardPools);
+        ring = new ConsistentHashRing(SHARDS, 128);
+        executor = Executors.newFixedThreadPool(SHARDS.size());
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        shardTemplate = new ShardTemplate(SHARDS, transactionManager, executor);
+        tx = new TransactionTemplate(transactionManager);
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        executor.shutdownNow();
+        dataSource.close();
+    }
+
+    private void createOrder(String orderId, String itemName, String eventId) {
+        ShardContext.callOn(ring.shardFor(orderId), () -> tx.execute(status -> {
+            jdbc.update("INSERT INTO orders VALUES (?, ?, 1)", orderId, itemName);
+            jdbc.update("INSERT INTO outbox_events VALUES (?, ?)", eventId, orderId);
+            return null;
+        }));
+    }
+
+    private Page<Order> findOrders(String itemName, Pageable pageable) {
+        String direction = pageable.getSort().getOrderFor("orderId").isAscending() ? "ASC" : "DESC";
+
+        List<Order> content = jdbc.query(
+                "SELECT order_id, item_name, quantity FROM orders WHERE item_name = ? ORDER BY order_id " + direction
+                        + " LIMIT ? OFFSET ?",
+                (rs, i) -> new Order(rs.getString(1), rs.getString(2), rs.getInt(3), null),
+                itemName, pageable.getPageSize(), pageable.getOffset());
+        long total = jdbc.queryForObject("SELECT COUNT(*) FROM orders WHERE item_name = ?", Long.class, itemName);
+
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    @Test
+    void shouldKeepOrderAndOutboxOnOwningShard() {
+        for (int i = 0; i < 60; i++) {
+            createOrder("ord-" + i, "Pen", "evt-" + i);
+        }
+
+        int total = 0;
+        for (String shard : SHARDS) {
+            JdbcTemplate shardJdbc = new JdbcTemplate(shardPools.get(shard));
+            List<String> orderIds = shardJdbc.queryForList("SELECT order_id FROM orders", String.class);
+            List<String> eventOrderIds = shardJdbc.queryForList("SELECT aggregate_id FROM outbox_events", String.class);
+
+            orderIds.forEach(orderId -> assertEquals(shard, ring.shardFor(orderId)));
+            assertEquals(orderIds.size(), eventOrderIds.size());
+            assertTrue(orderIds.containsAll(eventOrderIds));
+            total += orderIds.size();
+        }
+        assertEquals(60, total);
+    }
+
+    @Test
+    void shouldRollBackOrderWhenOutboxInsertFails() {
+        createOrder("ord-1", "Pen", "evt-1");
+
+        // A second order on the same shard whose outbox row collides with the first one's
+        String sameShard = "ord-2";
+        for (int i = 3; !ring.shardFor(sameShard).equals(ring.shardFor("ord-1")); i++) {
+            sameShard = "ord-" + i;
+        }
+        String orderId = sameShard;
+
+        assertThrows(DuplicateKeyException.class, () -> createOrder(orderId, "Pen", "evt-1"));
+
+        long orders = new JdbcTemplate(shardPools.get(ring.shardFor(orderId)))
+                .queryForObject("SELECT COUNT(*) FROM orders WHERE order_id = ?", Long.class, orderId);
+        assertEquals(0, orders);
+    }
+
+    @Test
+    void shouldMergePagesAcrossShards() {
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String orderId = String.format("ord-%03d", i);
+            createOrder(orderId, i % 5 == 0 ? "Ink" : "Pen", "evt-" + i);
+            if (i % 5 != 0) {
+                expected.add(orderId);
+            }
+        }
+
+        List<String> paged = new ArrayList<>();
+        for (int page = 0; page < 6; page++) {
+            Page<Order> result = shardTemplate.scatterGather(
+                    PageRequest.of(page, 7, Sort.by("orderId")), pageable -> findOrders("Pen", pageable));
+
+            assertEquals(40, result.getTotalElements());
+            result.forEach(order -> paged.add(order.getOrderId()));
+        }
+        assertEquals(expected, paged);
+
+        Page<Order> lastFirst = shardTemplate.scatterGather(
+                PageRequest.of(0, 3, Sort.by("orderId").descending()), pageable -> findOrders("Pen", pageable));
+
+        assertEquals(
+                expected.stream().sorted(Comparator.reverseOrder()).limit(3).toList(),
+                lastFirst.map(Order::getOrderId).getContent());
+    }
+}
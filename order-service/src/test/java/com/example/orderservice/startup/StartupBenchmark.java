@@ -0,0 +1,104 @@
+package com.example.orderservice.startup;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Measures time-to-first-request of the packaged service: each variant is
+ * started in its own JVM and an authenticated page of orders is requested
+ * until one is answered. Not part of the regular test run, and it needs a
+ * packaged jar and the usual SPRING_DATASOURCE_* environment:
+ * {@code mvn -Pfast-startup package && mvn test -Dtest=StartupBenchmark}
+ */
+public class StartupBenchmark {
+
+    private static final int RUNS = 3;
+    private static final int PORT = 18080;
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    @Test
+    void compareTimeToFirstRequest() throws Exception {
+        Path target = Path.of("target");
+        Path jar = target.resolve("orderservice-0.0.1-SNAPSHOT.jar");
+        assumeTrue(Files.exists(jar), "package the service first");
+
+        run("default", List.of("-jar", jar.toString()));
+        run("lazy+deferred", List.of("-jar", jar.toString(), "--spring.profiles.active=fast-startup"));
+
+        Path extracted = target.resolve("app").resolve(jar.getFileName());
+        Path archive = target.resolve("app").resolve("application.jsa");
+        if (Files.exists(extracted) && Files.exists(archive)) {
+            run("aot+appcds", List.of("-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true",
+                    "-jar", extracted.toString(), "--spring.profiles.active=fast-startup"));
+        }
+    }
+
+    private void run(String label, List<String> args) throws Exception {
+        long total = 0;
+        long best = Long.MAX_VALUE;
+
+        for (int i = 0; i < RUNS; i++) {
+            long millis = timeToFirstRequest(args);
+            total += millis;
+            best = Math.min(best, millis);
+        }
+
+        System.out.printf("%-14s runs=%d mean=%dms best=%dms%n", label, RUNS, total / RUNS, best);
+    }
+
+    private long timeToFirstRequest(List<String> args) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(args);
+        command.add("--server.port=" + PORT);
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + "/orders?page=0&size=1"))
+                .header("Authorization", "Basic " + Base64.getEncoder()
+                        .encodeToString("user:password".getBytes(StandardCharsets.UTF_8)))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(new File("target/startup-benchmark.log"))
+                .start();
+
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("service exited, see target/startup-benchmark.log");
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("no answer within " + TIMEOUT);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.orderservice.startup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StartupConfigTest {
+
+    private final LazyInitializationExcludeFilter filter = StartupConfig.scheduledAndListenerBeans();
+
+    @Test
+    void shouldKeepScheduledAndListenerBeansEager() {
+        assertTrue(excluded(Poller.class));
+        assertTrue(excluded(Listener.class));
+        assertTrue(excluded(ClassListener.class));
+        assertFalse(excluded(Plain.class));
+    }
+
+    private boolean excluded(Class<?> type) {
+        return filter.isExcluded("bean", new RootBeanDefinition(type), type);
+    }
+
+    static class Poller {
+        @Scheduled(fixedDelay = 1000)
+        void poll() {
+        }
+    }
+
+    static class Listener {
+        @KafkaListener(topics = "t")
+        void handle(String message) {
+        }
+    }
+
+    @KafkaListener(topics = "t")
+    static class ClassListener {
+    }
+
+    static class Plain {
+        void work() {
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.orderservice.stream;
+
+import com.example.orderservice.dto.OrderStatusResponse;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.service.OrderNotFoundException;
+import com.example.orderservice.service.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class OrderStatusStreamsTest {
+
+    private OrderService orderService;
+    private OrderStatusHub hub;
+    private OrderStatusStreams streams;
+
+    @BeforeEach
+    void setup() {
+        orderService = mock(OrderService.class);
+        hub = new OrderStatusHub(new SimpleMeterRegistry(), 2);
+        streams = new OrderStatusStreams(orderService, hub, 60000, 30000, 25000, 1);
+    }
+
+    @Test
+    void shouldAnswerLongPollWhenTheStatusMovesPastTheKnownVersion() {
+        when(orderService.getOrderStatus("ord-1")).thenReturn(new OrderStatusResponse("ord-1", OrderStatus.PENDING, 1));
+
+        DeferredResult<OrderStatusResponse> poll = streams.poll("ord-1", 1L, 10000);
+        assertFalse(poll.hasResult());
+        assertEquals(1, hub.size());
+
+        // Duplicate of what the client already has
+        hub.publish(new OrderStatusResponse("ord-1", OrderStatus.PENDING, 1));
+        assertFalse(poll.hasResult());
+
+        hub.publish(new OrderStatusResponse("ord-1", OrderStatus.COMPLETED, 2));
+        assertEquals(OrderStatus.COMPLETED, ((OrderStatusResponse) poll.getResult()).getStatus());
+        assertEquals(0, hub.size());
+    }
+
+    @Test
+    void shouldAnswerStraightAwayForNewerOrFinalStatus() {
+        when(orderService.getOrderStatus("ord-1")).thenReturn(new OrderStatusResponse("ord-1", OrderStatus.PENDING, 3));
+        when(orderService.getOrderStatus("ord-2")).thenReturn(new OrderStatusResponse("ord-2", OrderStatus.FAILED, 2));
+
+        assertTrue(streams.poll("ord-1", 1L, 10000).hasResult());
+        assertTrue(streams.poll("ord-1", null, 10000).hasResult());
+        assertTrue(streams.poll("ord-2", 2L, 10000).hasResult());
+        assertEquals(0, hub.size());
+    }
+
+    @Test
+    void shouldEndStreamOnFinalStatus() {
+        when(orderService.getOrderStatus("ord-1")).thenReturn(new OrderStatusResponse("ord-1", OrderStatus.PENDING, 1));
+
+        streams.stream("ord-1");
+        assertEquals(1, hub.size());
+
+        hub.publish(new OrderStatusResponse("ord-1", OrderStatus.FAILED, 2));
+        assertEquals(0, hub.size());
+    }
+
+    @Test
+    void shouldRejectSubscribersOverTheLimitAndReleaseFailedOnes() {
+        when(orderService.getOrderStatus("ord-1")).thenReturn(new OrderStatusResponse("ord-1", OrderStatus.PENDING, 1));
+        when(orderService.getOrderStatus("missing")).thenThrow(new OrderNotFoundException("missing"));
+
+        assertThrows(OrderNotFoundException.class, () -> streams.poll("missing", 0L, 10000));
+        assertEquals(0, hub.size());
+
+        streams.poll("ord-1", 1L, 10000);
+        streams.stream("ord-1");
+        assertThrows(SubscriberLimitException.class, () -> streams.poll("ord-1", 1L, 10000));
+        assertEquals(2, hub.size());
+    }
+}